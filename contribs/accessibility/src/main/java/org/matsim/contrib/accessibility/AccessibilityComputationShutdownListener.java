@@ -23,7 +23,7 @@ import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
 
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.BasicLocation;
@@ -47,6 +47,11 @@ import org.matsim.facilities.ActivityFacility;
 final class AccessibilityComputationShutdownListener implements ShutdownListener {
 	private static final Logger LOG = LogManager.getLogger(AccessibilityComputationShutdownListener.class);
 
+	/**
+	 * Number of partitions of aggregated origins per processor and mode; more partitions than threads for load balancing.
+	 */
+	private static final int PARTITIONS_PER_PROCESSOR = 8;
+
     private final ActivityFacilities measuringPoints;
     private ActivityFacilities opportunities;
 
@@ -110,58 +115,59 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 
 
 	public final void computeAccessibilities(Double departureTime, ActivityFacilities opportunities) {
+		Map<String, List<Id<? extends BasicLocation>>> aggregatedOriginIdsByMode = new LinkedHashMap<>();
+		int numberOfAggregatedOrigins = 0;
 		for (String mode : calculators.keySet()) {
 			AccessibilityContributionCalculator calculator = calculators.get(mode);
 			calculator.initialize(measuringPoints, opportunities);
 
-			// TODO
-            Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins = calculator.getAggregatedMeasurePoints();
-            Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities = calculator.getAgregatedOpportunities();
+			List<Id<? extends BasicLocation>> aggregatedOriginIds = new ArrayList<>(calculator.getAggregatedMeasurePoints().keySet());
+			aggregatedOriginIdsByMode.put(mode, aggregatedOriginIds);
+			numberOfAggregatedOrigins += aggregatedOriginIds.size();
+		}
 
-            Collection<Id<? extends BasicLocation>> aggregatedOriginIds = new LinkedList<>();
-			for (Id<? extends BasicLocation> nodeId : aggregatedOrigins.keySet()) {
-				aggregatedOriginIds.add(nodeId);
-			}
+		LOG.info("Iterating over all aggregated measuring points...");
+		ProgressBar progressBar = new ProgressBar(numberOfAggregatedOrigins);
 
-			LOG.info("Iterating over all aggregated measuring points...");
-
-			if (acg.isUseParallelization()) {
-				int numberOfProcessors = Runtime.getRuntime().availableProcessors();
-				LOG.info("There are " + numberOfProcessors + " available processors.");
-
-				final int partitionSize = (int) ((double) aggregatedOrigins.size() / numberOfProcessors) + 1;
-				LOG.info("Size of partitions = " + partitionSize);
-				Iterable<List<Id<? extends BasicLocation>>> partitions = Iterables.partition(aggregatedOriginIds, partitionSize);
-
-				ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
-
-				ExecutorService service = Executors.newFixedThreadPool(numberOfProcessors);
-				List<Callable<Void>> tasks = new ArrayList<>();
-				for (final List<Id<? extends BasicLocation>> partition : partitions) {
-					tasks.add(() -> {
-						try {
-							compute(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, partition, progressBar);
-						} catch (Exception e) {
-							throw new RuntimeException(e);
-						}
-						return null;
-					});
+		if (acg.isUseParallelization()) {
+			int numberOfProcessors = Runtime.getRuntime().availableProcessors();
+			LOG.info("There are " + numberOfProcessors + " available processors.");
+
+			// One work-stealing pool for all modes. Many small partitions of all modes are queued at once, so idle threads take
+			// over origins of other modes instead of waiting for the slowest partition of the current mode.
+			ForkJoinPool pool = new ForkJoinPool(numberOfProcessors);
+			List<ForkJoinTask<?>> tasks = new ArrayList<>();
+			for (String mode : aggregatedOriginIdsByMode.keySet()) {
+				AccessibilityContributionCalculator calculator = calculators.get(mode);
+				Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins = calculator.getAggregatedMeasurePoints();
+				Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities = calculator.getAgregatedOpportunities();
+
+				// calculators keep the state of the current origin node (e.g. the least cost path tree), so one duplicate per thread
+				ThreadLocal<AccessibilityContributionCalculator> threadCalculator = ThreadLocal.withInitial(calculator::duplicate);
+
+				List<Id<? extends BasicLocation>> aggregatedOriginIds = aggregatedOriginIdsByMode.get(mode);
+				final int partitionSize = aggregatedOriginIds.size() / (numberOfProcessors * PARTITIONS_PER_PROCESSOR) + 1;
+				LOG.info("Size of partitions for mode " + mode + " = " + partitionSize);
+				for (List<Id<? extends BasicLocation>> partition : Lists.partition(aggregatedOriginIds, partitionSize)) {
+					tasks.add(pool.submit(() -> compute(mode, threadCalculator.get(), departureTime, aggregatedOpportunities,
+							aggregatedOrigins, partition, progressBar)));
 				}
-				try {
-					List<Future<Void>> futures = service.invokeAll(tasks);
-					for (Future<Void> future : futures) {
-						future.get();
-					}
-				} catch (InterruptedException e) {
-					throw new RuntimeException(e);
-				} catch (ExecutionException e) {
-					throw new RuntimeException(e);
+			}
+			try {
+				for (ForkJoinTask<?> task : tasks) {
+					task.get();
 				}
-				service.shutdown();
-			} else {
-				LOG.info("Performing the computation without parallelization.");
-				ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
-				compute(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, aggregatedOriginIds, progressBar);
+			} catch (InterruptedException | ExecutionException e) {
+				throw new RuntimeException(e);
+			} finally {
+				pool.shutdown();
+			}
+		} else {
+			LOG.info("Performing the computation without parallelization.");
+			for (String mode : aggregatedOriginIdsByMode.keySet()) {
+				AccessibilityContributionCalculator calculator = calculators.get(mode);
+				compute(mode, calculator, departureTime, calculator.getAgregatedOpportunities(), calculator.getAggregatedMeasurePoints(),
+						aggregatedOriginIdsByMode.get(mode), progressBar);
 			}
 		}
 		for (FacilityDataExchangeInterface zoneDataExchangeInterface : this.zoneDataExchangeListeners) {
@@ -170,20 +176,16 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 	}
 
 
-	private void compute(String mode, Double departureTime, Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities,
+	private void compute(String mode, AccessibilityContributionCalculator calculator, Double departureTime,
+						 Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities,
 						 Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins,
 						 Collection<Id<? extends BasicLocation>> subsetOfNodes, ProgressBar progressBar) {
 
-		AccessibilityContributionCalculator calculator;
-		if (acg.isUseParallelization()) {
-			calculator = calculators.get(mode).duplicate();
-		} else {
-			calculator = calculators.get(mode);
-		}
-
 		// Go through all nodes that have a measuring point assigned
 		for (Id<? extends BasicLocation> fromNodeId : subsetOfNodes) {
-			progressBar.update();
+			synchronized (progressBar) {
+				progressBar.update();
+			}
 
 			Gbl.assertNotNull(calculator);
 			calculator.notifyNewOriginNode(fromNodeId, departureTime);
@@ -205,8 +207,11 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
                     throw new IllegalArgumentException("No valid accessibility measure type chosen.");
                 }
 
-				for (FacilityDataExchangeInterface zoneDataExchangeInterface : this.zoneDataExchangeListeners) {
-					zoneDataExchangeInterface.setFacilityAccessibilities(origin, departureTime, mode, accessibility);
+				// listeners are not required to be thread-safe (modes are computed concurrently)
+				synchronized (this.zoneDataExchangeListeners) {
+					for (FacilityDataExchangeInterface zoneDataExchangeInterface : this.zoneDataExchangeListeners) {
+						zoneDataExchangeInterface.setFacilityAccessibilities(origin, departureTime, mode, accessibility);
+					}
 				}
 			}
 		}
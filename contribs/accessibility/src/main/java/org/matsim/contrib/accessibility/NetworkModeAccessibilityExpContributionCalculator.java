@@ -57,6 +57,14 @@ final class NetworkModeAccessibilityExpContributionCalculator implements Accessi
 	private Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedMeasurePoints;
 	private Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities;
 
+	// aggregated opportunities as plain arrays (same order), shared between duplicates
+	private Id<Node>[] opportunityNodeIds;
+	private double[] opportunitySums;
+
+	// sum over all aggregated opportunities of exp(beta * utility of the network part) * sumExpVjkWalk;
+	// depends only on the origin node, so it is computed once per least cost path tree and reused for all measuring points
+	private double sumExpNetworkUtilities;
+
 
 
 	public NetworkModeAccessibilityExpContributionCalculator(String mode, final TravelTime travelTime, final TravelDisutilityFactory travelDisutilityFactory, Scenario scenario) {
@@ -104,6 +112,17 @@ final class NetworkModeAccessibilityExpContributionCalculator implements Accessi
 
         this.aggregatedMeasurePoints = AccessibilityUtils.aggregateMeasurePointsWithSameNearestNode(measuringPoints, subNetwork);
 		this.aggregatedOpportunities = AccessibilityUtils.aggregateOpportunitiesWithSameNearestNode(opportunities, subNetwork, scenario.getConfig());
+
+		@SuppressWarnings("unchecked")
+		Id<Node>[] nodeIds = new Id[aggregatedOpportunities.size()];
+		this.opportunityNodeIds = nodeIds;
+		this.opportunitySums = new double[aggregatedOpportunities.size()];
+		int i = 0;
+		for (AggregationObject destination : aggregatedOpportunities.values()) {
+			opportunityNodeIds[i] = ((Node) destination.getNearestBasicLocation()).getId();
+			opportunitySums[i] = destination.getSum();
+			i++;
+		}
 	}
 
 
@@ -111,6 +130,16 @@ final class NetworkModeAccessibilityExpContributionCalculator implements Accessi
 	public void notifyNewOriginNode(Id<? extends BasicLocation> fromNodeId, Double departureTime) {
 		this.fromNode = subNetwork.getNodes().get(fromNodeId);
 		this.lcpt.calculate(subNetwork, fromNode, departureTime);
+
+		double beta = this.scoringConfigGroup.getBrainExpBeta();
+		double sum = 0.;
+		for (int i = 0; i < opportunityNodeIds.length; i++) {
+			// Remaining travel on network
+			double congestedCarUtility = -lcpt.getTree().get(opportunityNodeIds[i]).getCost();
+			// Pre-computed effect of all opportunities reachable from destination network node
+			sum += Math.exp(beta * congestedCarUtility) * opportunitySums[i];
+		}
+		this.sumExpNetworkUtilities = sum;
 		//this.dijkstraTree.calcLeastCostPathTree(fromNode, departureTime);
 		//multiNodePathCalculator.calcLeastCostPath(fromNode, aggregatedToNodes, departureTime, null, null);
 	}
@@ -139,6 +168,12 @@ final class NetworkModeAccessibilityExpContributionCalculator implements Accessi
 		// Combine all utility components (using the identity: exp(a+b) = exp(a) * exp(b))
 		double modeSpecificConstant = AccessibilityUtils.getModeSpecificConstantForAccessibilities(mode, scoringConfigGroup);
 
+		if (aggregatedOpportunities == this.aggregatedOpportunities) {
+			// the network part is the same for all measuring points of the current origin node
+			return Math.exp(this.scoringConfigGroup.getBrainExpBeta() * (walkUtilityMeasuringPoint2Road + modeSpecificConstant
+				+ congestedCarUtilityRoad2Node)) * sumExpNetworkUtilities;
+		}
+
 		for (final AggregationObject destination : aggregatedOpportunities.values()) {
 
 
@@ -173,6 +208,8 @@ final class NetworkModeAccessibilityExpContributionCalculator implements Accessi
 		networkModeAccessibilityExpContributionCalculator.subNetwork = this.subNetwork;
 		networkModeAccessibilityExpContributionCalculator.aggregatedMeasurePoints = this.aggregatedMeasurePoints;
 		networkModeAccessibilityExpContributionCalculator.aggregatedOpportunities = this.aggregatedOpportunities;
+		networkModeAccessibilityExpContributionCalculator.opportunityNodeIds = this.opportunityNodeIds;
+		networkModeAccessibilityExpContributionCalculator.opportunitySums = this.opportunitySums;
 		return networkModeAccessibilityExpContributionCalculator;
 	}
 
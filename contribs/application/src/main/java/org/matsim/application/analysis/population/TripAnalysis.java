@@ -1,9 +1,5 @@
 package org.matsim.application.analysis.population;
 
-import it.unimi.dsi.fastutil.doubles.DoubleArrayList;
-import it.unimi.dsi.fastutil.doubles.DoubleList;
-import it.unimi.dsi.fastutil.ints.IntArrayList;
-import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.*;
@@ -13,9 +9,9 @@ import org.apache.commons.math3.analysis.interpolation.LoessInterpolator;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.GeometryFactory;
-import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.matsim.application.ApplicationUtils;
 import org.matsim.application.CommandSpec;
 import org.matsim.application.MATSimAppCommand;
@@ -104,13 +100,65 @@ public class TripAnalysis implements MATSimAppCommand {
 		return labels.get(ins - 1);
 	}
 
-	private static int[] durationToHour(String d) {
-		return Arrays.stream(d.split(":")).mapToInt(Integer::valueOf).toArray();
+	/**
+	 * Parses durations like "hh:mm:ss" without allocating intermediate strings. Hours may have more than two digits.
+	 */
+	static int durationToSeconds(String d) {
+		int seconds = 0;
+		int part = 0;
+		for (int i = 0; i < d.length(); i++) {
+			char c = d.charAt(i);
+			if (c == ':') {
+				seconds = (seconds + part) * 60;
+				part = 0;
+			} else {
+				part = part * 10 + (c - '0');
+			}
+		}
+		return seconds + part;
 	}
 
-	private static int durationToSeconds(String d) {
-		String[] split = d.split(":");
-		return (Integer.parseInt(split[0]) * 60 * 60) + (Integer.parseInt(split[1]) * 60) + Integer.parseInt(split[2]);
+	/**
+	 * Converts a dictionary encoded duration column to seconds. Each distinct value is only parsed once.
+	 */
+	private static IntColumn toSeconds(StringColumn column, String name) {
+		Object2IntMap<String> cache = new Object2IntOpenHashMap<>();
+		int[] seconds = new int[column.size()];
+		for (int i = 0; i < seconds.length; i++) {
+			seconds[i] = cache.computeIfAbsent(column.get(i), (String d) -> durationToSeconds(d));
+		}
+		return IntColumn.create(name, seconds);
+	}
+
+	/**
+	 * Removes suffix durations like _345 in a single pass, the regex is only applied once per distinct value.
+	 */
+	private static StringColumn removeDurationSuffix(StringColumn column) {
+		Object2ObjectMap<String, String> cache = new Object2ObjectOpenHashMap<>();
+		String[] stripped = new String[column.size()];
+		for (int i = 0; i < stripped.length; i++) {
+			stripped[i] = cache.computeIfAbsent(column.get(i), v -> v.replaceAll("_[0-9]{2,}$", ""));
+		}
+		return StringColumn.create(column.name(), stripped);
+	}
+
+	/**
+	 * Returns the indices of all rows with both (or either) coordinates inside the geometry. Rows are tested in parallel.
+	 */
+	private static int[] filterByLocation(PreparedGeometry geometry, double[] x, double[] y, double[] x2, double[] y2, boolean both) {
+		GeometryFactory f = new GeometryFactory();
+		return IntStream.range(0, x.length).parallel()
+			.filter(i -> {
+				boolean start = geometry.contains(f.createPoint(new Coordinate(x[i], y[i])));
+				if (x2 == null)
+					return start;
+				if (both && !start)
+					return false;
+				if (!both && start)
+					return true;
+				return geometry.contains(f.createPoint(new Coordinate(x2[i], y2[i])));
+			})
+			.toArray();
 	}
 
 	private static double[] calcHistogram(double[] data, double[] bins) {
@@ -133,15 +181,18 @@ public class TripAnalysis implements MATSimAppCommand {
 	}
 
 	private static Map<String, ColumnType> getColumnTypes() {
+		// Modes and activity types have only few distinct values and are dictionary encoded
 		Map<String, ColumnType> columnTypes = new HashMap<>(Map.of("person", ColumnType.TEXT,
-			"trav_time", ColumnType.STRING, "wait_time", ColumnType.STRING, "dep_time", ColumnType.STRING,
+			"trav_time", ColumnType.STRING, "dep_time", ColumnType.STRING,
 			"longest_distance_mode", ColumnType.STRING, "main_mode", ColumnType.STRING,
-			"start_activity_type", ColumnType.TEXT, "end_activity_type", ColumnType.TEXT,
-			"first_pt_boarding_stop", ColumnType.TEXT, "last_pt_egress_stop", ColumnType.TEXT));
+			"end_activity_type", ColumnType.STRING,
+			"traveled_distance", ColumnType.LONG, "euclidean_distance", ColumnType.LONG));
 
-		// Map.of only has 10 argument max
-		columnTypes.put("traveled_distance", ColumnType.LONG);
-		columnTypes.put("euclidean_distance", ColumnType.LONG);
+		// Columns not needed by any of the analyses are not loaded at all
+		for (String column : List.of("wait_time", "modes", "start_activity_type", "start_facility_id", "start_link",
+			"end_facility_id", "end_link", "first_pt_boarding_stop", "last_pt_egress_stop")) {
+			columnTypes.put(column, ColumnType.SKIP);
+		}
 
 		return columnTypes;
 	}
@@ -200,20 +251,11 @@ public class TripAnalysis implements MATSimAppCommand {
 
 		// Home filter by standard attribute
 		if (shp.isDefined() && filter == LocationFilter.home) {
-			Geometry geometry = shp.getGeometry();
-			GeometryFactory f = new GeometryFactory();
+			PreparedGeometry geometry = PreparedGeometryFactory.prepare(shp.getGeometry());
+			int[] idx = filterByLocation(geometry, persons.numberColumn("home_x").asDoubleArray(),
+				persons.numberColumn("home_y").asDoubleArray(), null, null, false);
 
-			IntList idx = new IntArrayList();
-
-			for (int i = 0; i < persons.rowCount(); i++) {
-				Row row = persons.row(i);
-				Point p = f.createPoint(new Coordinate(row.getDouble("home_x"), row.getDouble("home_y")));
-				if (geometry.contains(p)) {
-					idx.add(i);
-				}
-			}
-
-			persons = persons.where(Selection.with(idx.toIntArray()));
+			persons = persons.where(Selection.with(idx));
 		}
 
 		log.info("Filtered {} out of {} persons", persons.rowCount(), total);
@@ -223,38 +265,15 @@ public class TripAnalysis implements MATSimAppCommand {
 			.sample(false)
 			.separator(CsvOptions.detectDelimiter(input.getPath("trips.csv"))).build());
 
-		// Trip filter with start AND end
-		if (shp.isDefined() && filter == LocationFilter.trip_start_and_end) {
-			Geometry geometry = shp.getGeometry();
-			GeometryFactory f = new GeometryFactory();
-			IntList idx = new IntArrayList();
-
-			for (int i = 0; i < trips.rowCount(); i++) {
-				Row row = trips.row(i);
-				Point start = f.createPoint(new Coordinate(row.getDouble("start_x"), row.getDouble("start_y")));
-				Point end = f.createPoint(new Coordinate(row.getDouble("end_x"), row.getDouble("end_y")));
-				if (geometry.contains(start) && geometry.contains(end)) {
-					idx.add(i);
-				}
-			}
-
-			trips = trips.where(Selection.with(idx.toIntArray()));
-//		trip filter with start OR end
-		} else if (shp.isDefined() && filter == LocationFilter.trip_start_or_end) {
-			Geometry geometry = shp.getGeometry();
-			GeometryFactory f = new GeometryFactory();
-			IntList idx = new IntArrayList();
-
-			for (int i = 0; i < trips.rowCount(); i++) {
-				Row row = trips.row(i);
-				Point start = f.createPoint(new Coordinate(row.getDouble("start_x"), row.getDouble("start_y")));
-				Point end = f.createPoint(new Coordinate(row.getDouble("end_x"), row.getDouble("end_y")));
-				if (geometry.contains(start) || geometry.contains(end)) {
-					idx.add(i);
-				}
-			}
+		// Trip filter with start AND end, or trip filter with start OR end
+		if (shp.isDefined() && (filter == LocationFilter.trip_start_and_end || filter == LocationFilter.trip_start_or_end)) {
+			PreparedGeometry geometry = PreparedGeometryFactory.prepare(shp.getGeometry());
+			int[] idx = filterByLocation(geometry,
+				trips.numberColumn("start_x").asDoubleArray(), trips.numberColumn("start_y").asDoubleArray(),
+				trips.numberColumn("end_x").asDoubleArray(), trips.numberColumn("end_y").asDoubleArray(),
+				filter == LocationFilter.trip_start_and_end);
 
-			trips = trips.where(Selection.with(idx.toIntArray()));
+			trips = trips.where(Selection.with(idx));
 		}
 
 		TripByGroupAnalysis groups = null;
@@ -285,10 +304,12 @@ public class TripAnalysis implements MATSimAppCommand {
 
 		joined.addColumns(dist_group);
 
-		TextColumn purpose = joined.textColumn("end_activity_type");
-
 		// Remove suffix durations like _345
-		purpose.set(Selection.withRange(0, purpose.size()), purpose.replaceAll("_[0-9]{2,}$", ""));
+		joined.replaceColumn("end_activity_type", removeDurationSuffix(joined.stringColumn("end_activity_type")));
+
+		// Durations are parsed once and shared by the following methods
+		joined.addColumns(toSeconds(joined.stringColumn("dep_time"), "dep_time_s"),
+			toSeconds(joined.stringColumn("trav_time"), "trav_time_s"));
 
 		writeModeShare(joined, labels);
 
@@ -369,27 +390,36 @@ public class TripAnalysis implements MATSimAppCommand {
 
 	private void writeTripStats(Table trips) throws IOException {
 
-		// Stats per mode
+		// Stats per mode, aggregated in parallel over the primitive columns
+		Object2IntMap<String> modeIndex = new Object2IntOpenHashMap<>();
+		modeIndex.defaultReturnValue(-1);
+		for (String m : modeOrder) {
+			modeIndex.putIfAbsent(m, modeIndex.size());
+		}
+
+		StringColumn mainMode = trips.stringColumn("main_mode");
+		int[] travTime = trips.intColumn("trav_time_s").asIntArray();
+		long[] traveledDistance = trips.longColumn("traveled_distance").asLongArray();
+		long[] euclideanDistance = trips.longColumn("euclidean_distance").asLongArray();
+
+		ModeStats stats = IntStream.range(0, trips.rowCount()).parallel()
+			.collect(() -> new ModeStats(modeIndex.size()),
+				(s, i) -> s.add(modeIndex.getInt(mainMode.get(i)), travTime[i], traveledDistance[i], euclideanDistance[i]),
+				ModeStats::merge);
+
 		Object2IntMap<String> n = new Object2IntLinkedOpenHashMap<>();
 		Object2LongMap<String> travelTime = new Object2LongOpenHashMap<>();
 		Object2LongMap<String> travelDistance = new Object2LongOpenHashMap<>();
 		Object2LongMap<String> beelineDistance = new Object2LongOpenHashMap<>();
-		Map<String, DoubleList> speeds = new HashMap<>();
-
-		for (Row trip : trips) {
-			String mainMode = trip.getString("main_mode");
-
-			n.mergeInt(mainMode, 1, Integer::sum);
-			int travTime = durationToSeconds(trip.getString("trav_time"));
-			long traveledDistance = trip.getLong("traveled_distance");
-
-			travelTime.mergeLong(mainMode, travTime, Long::sum);
-			travelDistance.mergeLong(mainMode, traveledDistance, Long::sum);
-			beelineDistance.mergeLong(mainMode, trip.getLong("euclidean_distance"), Long::sum);
-
-			double speed = 3.6d * traveledDistance / (double) travTime;
-			if (Double.isFinite(speed) && !Double.isNaN(speed))
-				speeds.computeIfAbsent(mainMode, s -> new DoubleArrayList()).add(speed);
+		Object2DoubleMap<String> avgSpeed = new Object2DoubleOpenHashMap<>();
+
+		for (Object2IntMap.Entry<String> e : modeIndex.object2IntEntrySet()) {
+			int m = e.getIntValue();
+			n.put(e.getKey(), (int) stats.n[m]);
+			travelTime.put(e.getKey(), stats.travelTime[m]);
+			travelDistance.put(e.getKey(), stats.travelDistance[m]);
+			beelineDistance.put(e.getKey(), stats.beelineDistance[m]);
+			avgSpeed.put(e.getKey(), stats.speeds[m] > 0 ? stats.speedSum[m] / stats.speeds[m] : 0);
 		}
 
 		try (CSVPrinter printer = new CSVPrinter(Files.newBufferedWriter(output.getPath("trip_stats.csv")), CSVFormat.DEFAULT)) {
@@ -444,7 +474,7 @@ public class TripAnalysis implements MATSimAppCommand {
 
 			printer.print("Avg. speed per trip [km]");
 			for (String m : modeOrder) {
-				double avg = speeds.get(m).doubleStream().average().orElse(0);
+				double avg = avgSpeed.getDouble(m);
 				printer.print(new BigDecimal(avg).setScale(2, RoundingMode.HALF_UP));
 			}
 
@@ -457,10 +487,12 @@ public class TripAnalysis implements MATSimAppCommand {
 		Object2IntMap<String> tripsPerPerson = new Object2IntLinkedOpenHashMap<>();
 		Map<String, Set<String>> modesPerPerson = new LinkedHashMap<>();
 
-		for (Row trip : trips) {
-			String id = trip.getString("person");
+		TextColumn person = trips.textColumn("person");
+		StringColumn mainMode = trips.stringColumn("main_mode");
+		for (int i = 0; i < trips.rowCount(); i++) {
+			String id = person.get(i);
 			tripsPerPerson.mergeInt(id, 1, Integer::sum);
-			String mode = trip.getString("main_mode");
+			String mode = mainMode.get(i);
 			modesPerPerson.computeIfAbsent(id, s -> new LinkedHashSet<>()).add(mode);
 		}
 
@@ -474,8 +506,7 @@ public class TripAnalysis implements MATSimAppCommand {
 		double totalMobile = tripsPerPerson.size();
 		double avgTripsMobile = tripsPerPerson.values().intStream().average().orElse(0);
 
-		for (Row person : persons) {
-			String id = person.getString("person");
+		for (String id : persons.textColumn("person")) {
 			if (!tripsPerPerson.containsKey(id))
 				tripsPerPerson.put(id, 0);
 		}
@@ -504,31 +535,20 @@ public class TripAnalysis implements MATSimAppCommand {
 
 	private void writeTripPurposes(Table trips) {
 
-		IntList departure = new IntArrayList(trips.rowCount());
-		IntList arrival = new IntArrayList(trips.rowCount());
-
-		for (Row t : trips) {
-			int[] depTime = durationToHour(t.getString("dep_time"));
-			departure.add(depTime[0]);
-
-			int[] travTimes = durationToHour(t.getString("trav_time"));
+		int[] depTime = trips.intColumn("dep_time_s").asIntArray();
+		int[] travTime = trips.intColumn("trav_time_s").asIntArray();
 
-			depTime[2] += travTimes[2];
-			if (depTime[2] >= 60)
-				depTime[1]++;
+		int[] departure = new int[depTime.length];
+		int[] arrival = new int[depTime.length];
 
-			depTime[1] += travTimes[1];
-			if (depTime[1] >= 60)
-				depTime[0]++;
-
-			depTime[0] += travTimes[0];
-
-			arrival.add(depTime[0]);
-		}
+		IntStream.range(0, depTime.length).parallel().forEach(i -> {
+			departure[i] = depTime[i] / 3600;
+			arrival[i] = (depTime[i] + travTime[i]) / 3600;
+		});
 
 		trips.addColumns(
-			IntColumn.create("departure_h", departure.intStream().toArray()),
-			IntColumn.create("arrival_h", arrival.intStream().toArray())
+			IntColumn.create("departure_h", departure),
+			IntColumn.create("arrival_h", arrival)
 		);
 
 		Table tArrival = trips.summarize("trip_id", count).by("end_activity_type", "arrival_h");
@@ -641,10 +661,10 @@ public class TripAnalysis implements MATSimAppCommand {
 
 		Map<String, List<String>> modesPerPerson = new LinkedHashMap<>();
 
-		for (Row trip : trips) {
-			String id = trip.getString("person");
-			String mode = trip.getString("main_mode");
-			modesPerPerson.computeIfAbsent(id, s -> new LinkedList<>()).add(mode);
+		TextColumn person = trips.textColumn("person");
+		StringColumn mainMode = trips.stringColumn("main_mode");
+		for (int i = 0; i < trips.rowCount(); i++) {
+			modesPerPerson.computeIfAbsent(person.get(i), s -> new ArrayList<>()).add(mainMode.get(i));
 		}
 
 		// Store other values explicitly
@@ -717,6 +737,56 @@ public class TripAnalysis implements MATSimAppCommand {
 		aggr.write().csv(output.getPath("mode_share_per_purpose.csv").toFile());
 	}
 
+	/**
+	 * Per mode accumulator for the trip stats, one instance per thread.
+	 */
+	private static final class ModeStats {
+
+		private final long[] n;
+		private final long[] travelTime;
+		private final long[] travelDistance;
+		private final long[] beelineDistance;
+		private final double[] speedSum;
+		private final long[] speeds;
+
+		private ModeStats(int modes) {
+			n = new long[modes];
+			travelTime = new long[modes];
+			travelDistance = new long[modes];
+			beelineDistance = new long[modes];
+			speedSum = new double[modes];
+			speeds = new long[modes];
+		}
+
+		private void add(int m, int travTime, long traveledDistance, long euclideanDistance) {
+			// modes that are not part of the mode order are not reported
+			if (m < 0)
+				return;
+
+			n[m]++;
+			travelTime[m] += travTime;
+			travelDistance[m] += traveledDistance;
+			beelineDistance[m] += euclideanDistance;
+
+			double speed = 3.6d * traveledDistance / (double) travTime;
+			if (Double.isFinite(speed)) {
+				speedSum[m] += speed;
+				speeds[m]++;
+			}
+		}
+
+		private void merge(ModeStats other) {
+			for (int m = 0; m < n.length; m++) {
+				n[m] += other.n[m];
+				travelTime[m] += other.travelTime[m];
+				travelDistance[m] += other.travelDistance[m];
+				beelineDistance[m] += other.beelineDistance[m];
+				speedSum[m] += other.speedSum[m];
+				speeds[m] += other.speeds[m];
+			}
+		}
+	}
+
 	/**
 	 * How shape file filtering should be applied.
 	 */
@@ -0,0 +1,17 @@
+package org.matsim.application.avro;
+
+import org.matsim.core.controler.AbstractModule;
+
+/**
+ * Writes the trips, legs, activities, persons and link statistics of the last iteration additionally as Avro files
+ * into the output directory, e.g. {@code output_trips.avro}.
+ *
+ * @see AvroOutputsWriter
+ */
+public final class AvroOutputsModule extends AbstractModule {
+
+	@Override
+	public void install() {
+		addControlerListenerBinding().to(AvroOutputsWriter.class);
+	}
+}
@@ -0,0 +1,99 @@
+package org.matsim.application.avro;
+
+import com.google.inject.Inject;
+import org.apache.avro.Schema;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.analysis.ActivityWriter;
+import org.matsim.analysis.CalcLinkStats;
+import org.matsim.analysis.LinkStatsControlerListener;
+import org.matsim.analysis.PersonWriter;
+import org.matsim.analysis.TableRecordWriter;
+import org.matsim.analysis.TripsAndLegsWriter;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.events.ShutdownEvent;
+import org.matsim.core.controler.listener.ShutdownListener;
+import org.matsim.core.scoring.ExperiencedPlansService;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Streams the outputs of the last iteration directly into Avro files, without writing and converting CSV.
+ */
+final class AvroOutputsWriter implements ShutdownListener {
+
+	private static final Logger log = LogManager.getLogger(AvroOutputsWriter.class);
+
+	/**
+	 * Types of the columns that are written as strings by the analysis writers.
+	 */
+	static final Map<String, Schema.Type> COLUMN_TYPES = Map.ofEntries(
+		Map.entry("trip_number", Schema.Type.LONG),
+		Map.entry("activity_number", Schema.Type.LONG),
+		Map.entry("traveled_distance", Schema.Type.LONG),
+		Map.entry("euclidean_distance", Schema.Type.LONG),
+		Map.entry("distance", Schema.Type.LONG),
+		Map.entry("start_x", Schema.Type.DOUBLE),
+		Map.entry("start_y", Schema.Type.DOUBLE),
+		Map.entry("end_x", Schema.Type.DOUBLE),
+		Map.entry("end_y", Schema.Type.DOUBLE),
+		Map.entry("start_time", Schema.Type.DOUBLE),
+		Map.entry("end_time", Schema.Type.DOUBLE),
+		Map.entry("maximum_duration", Schema.Type.DOUBLE),
+		Map.entry("coord_x", Schema.Type.DOUBLE),
+		Map.entry("coord_y", Schema.Type.DOUBLE),
+		Map.entry("executed_score", Schema.Type.DOUBLE),
+		Map.entry("first_act_x", Schema.Type.DOUBLE),
+		Map.entry("first_act_y", Schema.Type.DOUBLE)
+	);
+
+	@Inject
+	private OutputDirectoryHierarchy outputDirectoryHierarchy;
+
+	@Inject
+	private ExperiencedPlansService experiencedPlansService;
+
+	@Inject
+	private TripsAndLegsWriter tripsAndLegsWriter;
+
+	@Inject
+	private ActivityWriter activityWriter;
+
+	@Inject
+	private PersonWriter personWriter;
+
+	@Inject
+	private CalcLinkStats linkStats;
+
+	/**
+	 * Only bound if link stats are written at all.
+	 */
+	@Inject(optional = true)
+	private LinkStatsControlerListener linkStatsListener;
+
+	@Override
+	public void notifyShutdown(ShutdownEvent event) {
+		if (event.isUnexpected()) {
+			return;
+		}
+
+		log.info("Writing Avro outputs of the last iteration");
+
+		tripsAndLegsWriter.write(experiencedPlansService.getExperiencedPlans(), factory("trips"), factory("legs"));
+		activityWriter.write(factory("activities"));
+		personWriter.write(factory("persons"));
+
+		// link stats are only complete if they were written in the last iteration, they are reset at the start of the next one
+		if (linkStatsListener != null && linkStatsListener.isLinkStatsWrittenInIteration(event.getIteration())) {
+			linkStats.write(factory("linkstats"));
+		}
+
+		log.info("...done");
+	}
+
+	private TableRecordWriter.Factory factory(String name) {
+		Path file = Path.of(outputDirectoryHierarchy.getOutputFilenameWithOutputPrefix(name + ".avro"));
+		return AvroTableWriter.factory(file, name, COLUMN_TYPES);
+	}
+}
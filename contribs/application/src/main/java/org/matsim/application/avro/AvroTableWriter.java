@@ -0,0 +1,154 @@
+package org.matsim.application.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.matsim.analysis.TableRecordWriter;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams the records of a table into an Avro data file, one Avro record per row. Records are written in compressed
+ * blocks, so the memory use does not depend on the size of the table.
+ * <p>
+ * All columns are nullable. The type of a column is taken from the given column types, or else from the first record:
+ * numbers are written as double, everything else as string. Column names are converted to valid and unique Avro names,
+ * the original name is kept as doc of the field.
+ */
+public final class AvroTableWriter implements TableRecordWriter {
+
+	private final Path file;
+	private final String name;
+	private final String[] header;
+	private final Map<String, Schema.Type> columnTypes;
+
+	private DataFileWriter<GenericRecord> writer;
+	private Schema.Type[] types;
+	private GenericData.Record record;
+
+	/**
+	 * Creates a factory for a table, e.g. to be used with {@link org.matsim.analysis.TripsAndLegsWriter}.
+	 *
+	 * @param name        name of the Avro record
+	 * @param columnTypes types of the columns that can not be inferred from the values, e.g. numbers formatted as strings.
+	 *                    Supported are string, double and long.
+	 */
+	public static TableRecordWriter.Factory factory(Path file, String name, Map<String, Schema.Type> columnTypes) {
+		return header -> new AvroTableWriter(file, name, header, columnTypes);
+	}
+
+	AvroTableWriter(Path file, String name, String[] header, Map<String, Schema.Type> columnTypes) {
+		this.file = file;
+		this.name = name;
+		this.header = header;
+		this.columnTypes = columnTypes;
+	}
+
+	@Override
+	public void writeRecord(List<?> values) throws IOException {
+		if (this.writer == null) {
+			open(values);
+		}
+
+		for (int i = 0; i < this.types.length; i++) {
+			this.record.put(i, convert(i < values.size() ? values.get(i) : null, this.types[i]));
+		}
+		this.writer.append(this.record);
+	}
+
+	private void open(List<?> firstRecord) throws IOException {
+		this.types = new Schema.Type[this.header.length];
+		SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record(toAvroName(this.name)).fields();
+		Set<String> fieldNames = new HashSet<>();
+
+		for (int i = 0; i < this.header.length; i++) {
+			Schema.Type type = this.columnTypes.get(this.header[i]);
+			if (type == null) {
+				type = firstRecord != null && i < firstRecord.size() && firstRecord.get(i) instanceof Number ? Schema.Type.DOUBLE : Schema.Type.STRING;
+			}
+			this.types[i] = type;
+
+			SchemaBuilder.FieldBuilder<Schema> field = fields.name(toAvroName(this.header[i], fieldNames)).doc(this.header[i]);
+			fields = switch (type) {
+				case DOUBLE -> field.type().optional().doubleType();
+				case LONG -> field.type().optional().longType();
+				case STRING -> field.type().optional().stringType();
+				default -> throw new IllegalArgumentException("Unsupported column type " + type + " for column " + this.header[i]);
+			};
+		}
+
+		Schema schema = fields.endRecord();
+		this.record = new GenericData.Record(schema);
+		this.writer = new DataFileWriter<>(new GenericDatumWriter<>(schema));
+		this.writer.setCodec(CodecFactory.deflateCodec(6));
+		this.writer.create(schema, this.file.toFile());
+	}
+
+	private static Object convert(Object value, Schema.Type type) {
+		if (value == null) {
+			return null;
+		}
+
+		if (type == Schema.Type.STRING) {
+			return value.toString();
+		}
+
+		if (value instanceof Number n) {
+			return type == Schema.Type.LONG ? (Object) n.longValue() : (Object) n.doubleValue();
+		}
+
+		// numbers formatted as strings, anything else (e.g. empty values) is missing
+		String s = value.toString();
+		try {
+			return type == Schema.Type.LONG ? (Object) Long.parseLong(s) : (Object) Double.parseDouble(s);
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Replaces all characters that are not allowed in Avro names.
+	 */
+	static String toAvroName(String column) {
+		StringBuilder name = new StringBuilder(column.length() + 1);
+		if (column.isEmpty() || Character.isDigit(column.charAt(0))) {
+			name.append('_');
+		}
+		for (int i = 0; i < column.length(); i++) {
+			char c = column.charAt(i);
+			name.append((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') ? c : '_');
+		}
+		return name.toString();
+	}
+
+	/**
+	 * Like {@link #toAvroName(String)}, but appends a suffix if the name is already used, e.g. because different
+	 * columns only differ in characters that are replaced.
+	 */
+	static String toAvroName(String column, Set<String> usedNames) {
+		String name = toAvroName(column);
+		String unique = name;
+		for (int i = 1; !usedNames.add(unique); i++) {
+			unique = name + "_" + i;
+		}
+		return unique;
+	}
+
+	@Override
+	public void close() throws IOException {
+		// tables without records still get a file with their columns
+		if (this.writer == null) {
+			open(null);
+		}
+		this.writer.close();
+	}
+}
@@ -34,6 +34,7 @@ import java.io.File;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -374,7 +375,8 @@ public class CreateTransitScheduleFromGtfs implements MATSimAppCommand {
 			scenario.getTransitVehicles().addVehicleType(ptVehicleType);
 		}
 
-		// set link speeds and create vehicles according to pt mode
+		// create vehicles according to pt mode, link speeds are set afterwards
+		List<TransitRoute> routesWithStops = new ArrayList<>();
 		for (TransitLine line : scenario.getTransitSchedule().getTransitLines().values()) {
 			VehicleType lineVehicleType;
 			String stopFilter = "";
@@ -461,7 +463,6 @@ public class CreateTransitScheduleFromGtfs implements MATSimAppCommand {
 			for (TransitRoute route : line.getRoutes().values()) {
 				int routeVehId = 0; // simple counter for vehicle id _per_ TransitRoute
 
-				// increase speed if current freespeed is lower.
 				List<TransitRouteStop> routeStops = route.getStops();
 				if (routeStops.size() < 2) {
 					log.warn("TransitRoute with less than 2 stops found: line {}, route {}", line.getId(), route.getId());
@@ -476,47 +477,7 @@ public class CreateTransitScheduleFromGtfs implements MATSimAppCommand {
 					departure.setVehicleId(veh.getId());
 				}
 
-				double lastDepartureOffset = route.getStops().get(0).getDepartureOffset().seconds();
-				// min. time spend at a stop, useful especially for stops whose arrival and departure offset is identical,
-				// so we need to add time for passengers to board and alight
-				double minStopTime = 30.0;
-
-				List<Id<Link>> routeIds = new LinkedList<>();
-				routeIds.add(route.getRoute().getStartLinkId());
-				routeIds.addAll(route.getRoute().getLinkIds());
-				routeIds.add(route.getRoute().getEndLinkId());
-
-				for (int i = 1; i < routeStops.size(); i++) {
-					TransitRouteStop routeStop = routeStops.get(i);
-					// if there is no departure offset set (or infinity), it is the last stop of the line,
-					// so we don't need to care about the stop duration
-					double stopDuration = routeStop.getDepartureOffset().isDefined() ?
-						routeStop.getDepartureOffset().seconds() - routeStop.getArrivalOffset().seconds() : minStopTime;
-					// ensure arrival at next stop early enough to allow for 30s stop duration -> time for passengers to board / alight
-					// if link freespeed had been set such that the pt veh arrives exactly on time, but departure tiome is identical
-					// with arrival time the pt vehicle would have been always delayed
-					// Math.max to avoid negative values of travelTime
-					double travelTime = Math.max(1, routeStop.getArrivalOffset().seconds() - lastDepartureOffset - 1.0 -
-						(stopDuration >= minStopTime ? 0 : (minStopTime - stopDuration)));
-
-
-					Id<Link> stopLink = routeStop.getStopFacility().getLinkId();
-					List<Id<Link>> subRoute = new LinkedList<>();
-					do {
-						Id<Link> linkId = routeIds.removeFirst();
-						subRoute.add(linkId);
-					} while (!subRoute.contains(stopLink));
-
-					List<? extends Link> links = subRoute.stream().map(scenario.getNetwork().getLinks()::get)
-						.toList();
-
-					double length = links.stream().mapToDouble(Link::getLength).sum();
-
-					for (Link link : links) {
-						increaseLinkFreespeedIfLower(link, length / travelTime);
-					}
-					lastDepartureOffset = routeStop.getDepartureOffset().seconds();
-				}
+				routesWithStops.add(route);
 
 				// tag RE, RB, S- and U-Bahn stations for Drt stop filter attribute
 				if (!stopFilter.isEmpty()) {
@@ -529,9 +490,71 @@ public class CreateTransitScheduleFromGtfs implements MATSimAppCommand {
 			toRemove.forEach(line::removeRoute);
 		}
 
+		// The required speeds are calculated per route in parallel, each link gets the highest speed of all its routes
+		Map<Id<Link>, Double> freespeeds = new ConcurrentHashMap<>();
+		routesWithStops.parallelStream()
+			.forEach(route -> calcRequiredFreespeeds(route, scenario.getNetwork(), freespeeds));
+
+		for (Map.Entry<Id<Link>, Double> e : freespeeds.entrySet()) {
+			increaseLinkFreespeedIfLower(scenario.getNetwork().getLinks().get(e.getKey()), e.getValue());
+		}
+
 		return scenario;
 	}
 
+	/**
+	 * Calculates the freespeed needed on the links of the route to reach every stop in time and stores the maximum per link.
+	 */
+	private static void calcRequiredFreespeeds(TransitRoute route, Network network, Map<Id<Link>, Double> freespeeds) {
+
+		List<TransitRouteStop> routeStops = route.getStops();
+
+		double lastDepartureOffset = routeStops.get(0).getDepartureOffset().seconds();
+		// min. time spend at a stop, useful especially for stops whose arrival and departure offset is identical,
+		// so we need to add time for passengers to board and alight
+		double minStopTime = 30.0;
+
+		List<Id<Link>> routeIds = new ArrayList<>();
+		routeIds.add(route.getRoute().getStartLinkId());
+		routeIds.addAll(route.getRoute().getLinkIds());
+		routeIds.add(route.getRoute().getEndLinkId());
+
+		int idx = 0;
+		for (int i = 1; i < routeStops.size(); i++) {
+			TransitRouteStop routeStop = routeStops.get(i);
+			// if there is no departure offset set (or infinity), it is the last stop of the line,
+			// so we don't need to care about the stop duration
+			double stopDuration = routeStop.getDepartureOffset().isDefined() ?
+				routeStop.getDepartureOffset().seconds() - routeStop.getArrivalOffset().seconds() : minStopTime;
+			// ensure arrival at next stop early enough to allow for 30s stop duration -> time for passengers to board / alight
+			// if link freespeed had been set such that the pt veh arrives exactly on time, but departure tiome is identical
+			// with arrival time the pt vehicle would have been always delayed
+			// Math.max to avoid negative values of travelTime
+			double travelTime = Math.max(1, routeStop.getArrivalOffset().seconds() - lastDepartureOffset - 1.0 -
+				(stopDuration >= minStopTime ? 0 : (minStopTime - stopDuration)));
+
+			// links up to and including the link of the stop
+			Id<Link> stopLink = routeStop.getStopFacility().getLinkId();
+			int from = idx;
+			while (!routeIds.get(idx++).equals(stopLink)) {
+				// advance to the stop link
+			}
+
+			List<Id<Link>> subRoute = routeIds.subList(from, idx);
+
+			double length = 0;
+			for (Id<Link> linkId : subRoute) {
+				length += network.getLinks().get(linkId).getLength();
+			}
+
+			double speed = length / travelTime;
+			for (Id<Link> linkId : subRoute) {
+				freespeeds.merge(linkId, speed, Math::max);
+			}
+			lastDepartureOffset = routeStop.getDepartureOffset().seconds();
+		}
+	}
+
 	public enum PseudoNetwork {
 		/**
 		 * Create links between all stops and possibly duplicate stops.
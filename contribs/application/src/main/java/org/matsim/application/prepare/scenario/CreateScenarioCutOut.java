@@ -3,6 +3,8 @@ package org.matsim.application.prepare.scenario;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
@@ -25,6 +27,7 @@ import org.matsim.core.network.io.NetworkChangeEventsWriter;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.population.algorithms.ParallelPersonAlgorithmUtils;
 import org.matsim.core.population.algorithms.PersonAlgorithm;
+import org.matsim.core.population.io.StreamingPopulationReader;
 import org.matsim.application.prepare.population.PersonNetworkLinkCheck;
 import org.matsim.core.population.routes.NetworkRoute;
 import org.matsim.core.router.TripStructureUtils;
@@ -33,12 +36,14 @@ import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
 import org.matsim.core.router.speedy.SpeedyALTFactory;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
+import org.matsim.core.scenario.MutableScenario;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
 import org.matsim.core.trafficmonitoring.TravelTimeCalculator;
 import org.matsim.core.utils.geometry.geotools.MGC;
 import org.matsim.facilities.ActivityFacility;
 import org.matsim.facilities.FacilitiesWriter;
+import org.matsim.utils.objectattributes.attributable.AttributesUtils;
 import picocli.CommandLine;
 
 import java.util.*;
@@ -61,6 +66,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * 		<li>The buffer is not considered for the population cut out</li>
  * </ul>
  * <p>
+ * With {@code --streaming}, the population is not loaded at once. It is read in chunks, which are processed in parallel,
+ * and only the persons of the cut-out are kept in memory.
+ * <p>
  * How the network change events are generated:
  * <ul>
  *     <li>Travel time is computed using the given events</li>
@@ -137,6 +145,12 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 	@CommandLine.Option(names = "--keep-capacities", description = "Keep the capacities of all links, even outside the shp file", defaultValue = "false")
 	private boolean keepCapacities;
 
+	@CommandLine.Option(names = "--streaming", description = "Stream the input population and keep only the persons of the cut-out in memory. Recommended for large scenarios.", defaultValue = "false")
+	private boolean streaming;
+
+	@CommandLine.Option(names = "--streaming-chunk-size", description = "Number of persons that are read before they are processed in parallel, if --streaming is used.", defaultValue = "10000")
+	private int chunkSize;
+
 	@CommandLine.Mixin
 	private CrsOptions crs;
 
@@ -195,6 +209,12 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 	 */
 	private Geometry geomBuffer;
 
+	/**
+	 * Prepared versions of the geometries for the many point-in-polygon tests, which can be used by multiple threads.
+	 */
+	private PreparedGeometry preparedGeom;
+	private PreparedGeometry preparedGeomBuffer;
+
 	private int emptyNetworkWarnings = 0;
 	private int noActCoordsWarnings = 0;
 
@@ -223,7 +243,8 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 		// Prepare required input-data
 		Config config = ConfigUtils.createConfig();
 		config.global().setCoordinateSystem(crs.getInputCRS());
-		config.plans().setInputFile(populationPath);
+		if (!streaming)
+			config.plans().setInputFile(populationPath);
 		config.network().setInputFile(networkPath);
 		config.network().setTimeVariantNetwork(true);
 		if (facilityPath != null) {
@@ -233,6 +254,8 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 
 		geom = shp.getGeometry(crs.getInputCRS());
 		geomBuffer = geom.buffer(buffer);
+		preparedGeom = PreparedGeometryFactory.prepare(geom);
+		preparedGeomBuffer = PreparedGeometryFactory.prepare(geomBuffer);
 
 		for (String mode : modes)
 			mode2modeOnlyNetwork.putIfAbsent(mode, filterNetwork(scenario.getNetwork(), mode));
@@ -254,9 +277,9 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 
 		// Cut out the network: Filter for links inside the shapefile
 		for (Link link : scenario.getNetwork().getLinks().values()) {
-			if (geom.contains(MGC.coord2Point(link.getCoord()))
-				|| geom.contains(MGC.coord2Point(link.getFromNode().getCoord()))
-				|| geom.contains(MGC.coord2Point(link.getToNode().getCoord()))
+			if (preparedGeom.contains(MGC.coord2Point(link.getCoord()))
+				|| preparedGeom.contains(MGC.coord2Point(link.getFromNode().getCoord()))
+				|| preparedGeom.contains(MGC.coord2Point(link.getToNode().getCoord()))
 				|| link.getAllowedModes().stream().anyMatch(keepModes::contains)) {
 				// keep the link
 				linksToKeep.add(link.getId());
@@ -274,13 +297,17 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 		}
 
 		// Cut out the population and mark needed network parts
-		ParallelPersonAlgorithmUtils.run(scenario.getPopulation(), Runtime.getRuntime().availableProcessors(), this);
+		if (streaming) {
+			streamPopulation();
+		} else {
+			ParallelPersonAlgorithmUtils.run(scenario.getPopulation(), Runtime.getRuntime().availableProcessors(), this);
 
-		//Population
-		log.info("Persons in the original population: {}", scenario.getPopulation().getPersons().size());
-		log.info("Persons to delete: {}", personsToDelete.size());
-		for (Id<Person> personId : personsToDelete) {
-			scenario.getPopulation().removePerson(personId);
+			//Population
+			log.info("Persons in the original population: {}", scenario.getPopulation().getPersons().size());
+			log.info("Persons to delete: {}", personsToDelete.size());
+			for (Id<Person> personId : personsToDelete) {
+				scenario.getPopulation().removePerson(personId);
+			}
 		}
 
 		log.info("Persons in the resulting scenario: {}", scenario.getPopulation().getPersons().size());
@@ -341,6 +368,44 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 
 	// Helper-Functions
 
+	/**
+	 * Reads the population with a {@link StreamingPopulationReader} and processes the persons in parallel chunks.
+	 * Only the persons that are kept are added to the population of the scenario, all others are dropped right away.
+	 */
+	private void streamPopulation() {
+		Population cutOut = PopulationUtils.createPopulation(scenario.getConfig());
+
+		// The reader replaces the population of the scenario with its streaming population
+		StreamingPopulationReader reader = new StreamingPopulationReader(scenario);
+		List<Person> chunk = new ArrayList<>(chunkSize);
+		int[] total = {0};
+
+		reader.addAlgorithm(person -> {
+			chunk.add(person);
+			total[0]++;
+			if (chunk.size() >= chunkSize) {
+				processChunk(chunk, cutOut);
+				chunk.clear();
+			}
+		});
+		reader.readFile(populationPath);
+		processChunk(chunk, cutOut);
+
+		AttributesUtils.copyAttributesFromTo(scenario.getPopulation(), cutOut);
+		((MutableScenario) scenario).setPopulation(cutOut);
+
+		log.info("Persons in the original population: {}", total[0]);
+		log.info("Persons to delete: {}", total[0] - cutOut.getPersons().size());
+	}
+
+	private void processChunk(List<Person> chunk, Population cutOut) {
+		List<Person> kept = chunk.parallelStream()
+			.filter(this::processPerson)
+			.toList();
+
+		kept.forEach(cutOut::addPerson);
+	}
+
 	/**
 	 * Filters the network to the given mode.
 	 */
@@ -367,7 +432,7 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 			}
 
 			// Expensive check last
-			if (f.getCoord() != null && geom.contains(MGC.coord2Point(f.getCoord())))
+			if (f.getCoord() != null && preparedGeom.contains(MGC.coord2Point(f.getCoord())))
 				facilitiesToInclude.add(f.getId());
 		}
 
@@ -478,7 +543,7 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 		for (Link link : scenario.getNetwork().getLinks().values()) {
 
 			// Don't generate events for links thar are in the shapefile + buffer
-			if (geomBuffer.contains(MGC.coord2Point(link.getCoord())))
+			if (preparedGeomBuffer.contains(MGC.coord2Point(link.getCoord())))
 				continue;
 
 			// Don't generate events for these fixed modes.
@@ -532,6 +597,16 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 	 */
 	@Override
 	public void run(Person person) {
+		if (!processPerson(person))
+			personsToDelete.add(person.getId());
+	}
+
+	/**
+	 * Checks whether this {@link Person} is relevant and marks the links and facilities it needs.
+	 *
+	 * @return whether the person should be kept
+	 */
+	private boolean processPerson(Person person) {
 		boolean keepPerson = false;
 
 		List<Trip> trips = TripStructureUtils.getTrips(person.getSelectedPlan());
@@ -547,7 +622,7 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 				log.info("Activity coords for agent {} are null. Skipping Trip...", person.getId());
 			}
 
-			if (coord != null && geom.contains(MGC.coord2Point(coord))) {
+			if (coord != null && preparedGeom.contains(MGC.coord2Point(coord))) {
 				keepPerson = true;
 			}
 
@@ -570,7 +645,7 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 					MGC.coord2Coordinate(destinationCoord)
 				});
 
-				if (line.intersects(geom)) {
+				if (preparedGeom.intersects(line)) {
 					keepPerson = true;
 				}
 			}
@@ -615,8 +690,6 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 		if (keepPerson) {
 			linksToInclude.addAll(linkIds);
 			facilitiesToInclude.addAll(facilityIds);
-		} else {
-			personsToDelete.add(person.getId());
 		}
 
 		// Remove all unselected plans because these are not handled
@@ -626,6 +699,8 @@ public class CreateScenarioCutOut implements MATSimAppCommand, PersonAlgorithm {
 				person.removePlan(p);
 			}
 		}
+
+		return keepPerson;
 	}
 
 
@@ -33,4 +33,23 @@ public class CommandRunnerTest {
 				.isDirectoryContaining(p -> p.getFileName().toString().equals("out.xml"))
 				.isDirectoryContaining(p -> p.getFileName().toString().equals("processed.csv"));
 	}
+
+	@Test
+	void concurrentRunner() {
+
+		Path path = Path.of(utils.getOutputDirectory());
+
+		CommandRunner runner = new CommandRunner().setOutput(path);
+		runner.setNumberOfThreads(4);
+		runner.add(TestDependentAnalysis.class);
+		runner.add(TestOtherAnalysis.class, "--option", "1");
+		runner.add(TestOtherDependentAnalysis.class);
+
+		// same input as the sequential run
+		runner.run(Path.of(utils.getClassInputDirectory(), "runner"));
+
+		Assertions.assertThat(path.resolve("analysis"))
+				.isDirectoryContaining(p -> p.getFileName().toString().equals("out.xml"))
+				.isDirectoryContaining(p -> p.getFileName().toString().equals("processed.csv"));
+	}
 }
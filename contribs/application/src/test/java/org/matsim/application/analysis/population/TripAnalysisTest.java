@@ -57,6 +57,13 @@ class TripAnalysisTest {
 		Path.of(utils.getInputDirectory()).toFile().delete();
 	}
 
+	@Test
+	void durationToSeconds() {
+		Assertions.assertThat(TripAnalysis.durationToSeconds("00:00:00")).isEqualTo(0);
+		Assertions.assertThat(TripAnalysis.durationToSeconds("08:15:30")).isEqualTo(8 * 3600 + 15 * 60 + 30);
+		Assertions.assertThat(TripAnalysis.durationToSeconds("123:01:02")).isEqualTo(123 * 3600 + 62);
+	}
+
 	@Test
 	void personFilterTest() throws IOException {
 
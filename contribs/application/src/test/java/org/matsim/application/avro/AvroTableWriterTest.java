@@ -0,0 +1,68 @@
+package org.matsim.application.avro;
+
+import org.apache.avro.Schema;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.analysis.TableRecordWriter;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvroTableWriterTest {
+
+	@RegisterExtension
+	public final MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void writeAndRead() throws IOException {
+		Path file = Path.of(utils.getOutputDirectory(), "table.avro");
+
+		TableRecordWriter.Factory factory = AvroTableWriter.factory(file, "trips", Map.of("trip_number", Schema.Type.LONG));
+		try (TableRecordWriter writer = factory.create(new String[]{"person", "trip_number", "HRS0-1avg"})) {
+			writer.writeRecord(List.of("p1", "1", 2.5));
+			writer.writeRecord(List.of("p2", "", 0.0));
+		}
+
+		List<GenericRecord> records = new ArrayList<>();
+		try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file.toFile(), new GenericDatumReader<>())) {
+			Schema schema = reader.getSchema();
+			assertThat(schema.getField("HRS0_1avg").doc()).isEqualTo("HRS0-1avg");
+
+			reader.forEach(records::add);
+		}
+
+		assertThat(records).hasSize(2);
+		assertThat(records.get(0).get("person")).hasToString("p1");
+		assertThat(records.get(0).get("trip_number")).isEqualTo(1L);
+		assertThat(records.get(0).get("HRS0_1avg")).isEqualTo(2.5);
+		assertThat(records.get(1).get("trip_number")).isNull();
+	}
+
+	@Test
+	void uniqueFieldNames() throws IOException {
+		Path file = Path.of(utils.getOutputDirectory(), "table.avro");
+
+		try (TableRecordWriter writer = AvroTableWriter.factory(file, "links", Map.of()).create(new String[]{"vol-car", "vol_car", "vol car"})) {
+			writer.writeRecord(List.of(1.0, 2.0, 3.0));
+		}
+
+		try (DataFileReader<GenericRecord> reader = new DataFileReader<>(file.toFile(), new GenericDatumReader<>())) {
+			Schema schema = reader.getSchema();
+			assertThat(schema.getField("vol_car").doc()).isEqualTo("vol-car");
+			assertThat(schema.getField("vol_car_1").doc()).isEqualTo("vol_car");
+			assertThat(schema.getField("vol_car_2").doc()).isEqualTo("vol car");
+
+			GenericRecord record = reader.next();
+			assertThat(record.get("vol_car_2")).isEqualTo(3.0);
+		}
+	}
+}
@@ -5,12 +5,17 @@ import org.geotools.api.feature.simple.SimpleFeature;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.testcases.MatsimTestUtils;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -92,6 +97,48 @@ public class ShpOptionsTest {
 
 	}
 
+	@Test
+	void queryMatchesGeometries() {
+
+		Path input = Path.of(utils.getClassInputDirectory()
+				.replace("ShpOptionsTest", "CreateLandUseShpTest")
+				.replace("options", "prepare"))
+			.resolve("andorra-latest-free.shp.zip");
+
+		Assumptions.assumeTrue(Files.exists(input));
+
+		ShpOptions shp = new ShpOptions(input, null, null);
+		ShpOptions.Index index = shp.createIndex(shp.getShapeCrs(), "name");
+		List<SimpleFeature> features = index.getAllFeatures();
+
+		Envelope env = shp.getGeometry().getEnvelopeInternal();
+		GeometryFactory f = new GeometryFactory();
+		List<Coord> coords = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			for (int j = 0; j < 100; j++) {
+				coords.add(new Coord(env.getMinX() + env.getWidth() * i / 100, env.getMinY() + env.getHeight() * j / 100));
+			}
+		}
+
+		List<Object> names = index.queryAll(coords);
+		for (int i = 0; i < coords.size(); i++) {
+			Coord c = coords.get(i);
+			Point p = f.createPoint(new Coordinate(c.getX(), c.getY()));
+			SimpleFeature ft = index.queryFeature(c);
+
+			if (ft == null) {
+				assertThat(features)
+					.noneMatch(other -> ((Geometry) other.getDefaultGeometry()).getEnvelopeInternal().contains(p.getCoordinate())
+						&& ((Geometry) other.getDefaultGeometry()).contains(p));
+			} else {
+				assertThat(((Geometry) ft.getDefaultGeometry()).contains(p)).isTrue();
+			}
+
+			assertThat(names.get(i)).isEqualTo(ft == null ? null : ft.getAttribute("name"));
+			assertThat(index.queryFeature(c.getX(), c.getY())).isSameAs(ft);
+		}
+	}
+
 	@Test
 	void testGetGeometry() {
 
@@ -62,6 +62,32 @@ class CreateScenarioCutOutTest {
 		Assertions.assertSame(PopulationComparison.Result.equal, PopulationComparison.compare(referenceScenario.getPopulation(), outputScenario.getPopulation()), "Population was not cut properly!");
 	}
 
+	/**
+	 * Test the streaming cutout, which must give the same result as the basic cutout.
+	 */
+	@Test
+	void testStreamingCutout() {
+
+		new CreateScenarioCutOut().execute(
+			"--buffer", "100",
+			"--population", utils.getClassInputDirectory() + "plans_without_facilities.xml",
+			"--network", ExamplesUtils.getTestScenarioURL("chessboard") + "network.xml",
+			"--output-network", utils.getOutputDirectory() + "cut_network.xml",
+			"--output-population", utils.getOutputDirectory() + "cut_population.xml",
+			"--input-crs", "EPSG:25832",
+			"--target-crs", "EPSG:25832",
+			"--shp", utils.getClassInputDirectory() + "chessboard-cutout.shp",
+			"--streaming",
+			"--streaming-chunk-size", "7"
+		);
+
+		Scenario referenceScenario = getReferenceScenario(false, false);
+		Scenario outputScenario = getOutputScenario(false, false);
+
+		Assertions.assertTrue(NetworkUtils.compare(referenceScenario.getNetwork(), outputScenario.getNetwork()), "Network was not cut properly!");
+		Assertions.assertSame(PopulationComparison.Result.equal, PopulationComparison.compare(referenceScenario.getPopulation(), outputScenario.getPopulation()), "Population was not cut properly!");
+	}
+
 	/**
 	 * Test the cutout with facilities but without events.
 	 */
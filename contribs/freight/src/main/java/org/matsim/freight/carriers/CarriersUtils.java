@@ -24,9 +24,12 @@ package org.matsim.freight.carriers;
 import com.graphhopper.jsprit.analysis.toolbox.StopWatch;
 import com.graphhopper.jsprit.core.algorithm.VehicleRoutingAlgorithm;
 import com.graphhopper.jsprit.core.algorithm.listener.VehicleRoutingAlgorithmListeners;
+import com.graphhopper.jsprit.core.algorithm.termination.IterationWithoutImprovementTermination;
 import com.graphhopper.jsprit.core.problem.VehicleRoutingProblem;
+import com.graphhopper.jsprit.core.problem.job.Job;
 import com.graphhopper.jsprit.core.problem.job.Shipment;
 import com.graphhopper.jsprit.core.problem.solution.VehicleRoutingProblemSolution;
+import com.graphhopper.jsprit.core.problem.solution.route.VehicleRoute;
 import com.graphhopper.jsprit.core.util.Solutions;
 import java.util.*;
 import java.util.concurrent.*;
@@ -72,7 +75,8 @@ public class CarriersUtils {
 	public enum CarrierSelectionForSolution {
 		solveForAllCarriersAndOverrideExistingPlans, //Overwrite all existing plans of the carriers and create new solutions.
 		solveOnlyForCarrierWithoutPlans, //Create new solutions only for carriers with no plans. Existing plans of other carriers are not changed.
-		solveForAllCarriersAndAddPLans // Add new plans to existing plans of carriers. The new plans are set as selected plans.
+		solveForAllCarriersAndAddPLans, // Add new plans to existing plans of carriers. The new plans are set as selected plans.
+		solveForAllCarriersWarmStartedFromSelectedPlan // Like solveForAllCarriersAndAddPLans, but jsprit starts from the currently selected plan and stops early if it does not improve.
 	}
 
 	public static Carrier createCarrier(Id<Carrier> id) {
@@ -214,18 +218,33 @@ public class CarriersUtils {
 	 * @param carriersSolutionType the type of which carriers should be solved
 	 */
 	public static void runJsprit(Scenario scenario, CarrierSelectionForSolution carriersSolutionType) throws ExecutionException, InterruptedException {
+		final NetworkBasedTransportCosts netBasedCosts = NetworkBasedTransportCosts.Builder.newInstance(
+			scenario.getNetwork(), getOrAddCarrierVehicleTypes(scenario).getVehicleTypes().values()).build();
+		runJsprit(scenario, carriersSolutionType, netBasedCosts);
+	}
+
+	/**
+	 * Same as {@link #runJsprit(Scenario, CarrierSelectionForSolution)}, but uses the given transport costs for all carriers.
+	 * The costs object memorizes the travel times and costs, which are then shared by all carriers. It may be re-used
+	 * for further calls only as long as the travel times it was built with do not change; after the travel times have
+	 * changed (e.g. congested travel times of a new iteration), a new costs object must be built.
+	 *
+	 * @param scenario             the scenario
+	 * @param carriersSolutionType the type of which carriers should be solved
+	 * @param netBasedCosts        the transport costs used by all carriers
+	 */
+	public static void runJsprit(Scenario scenario, CarrierSelectionForSolution carriersSolutionType, NetworkBasedTransportCosts netBasedCosts)
+		throws ExecutionException, InterruptedException {
 
 		new CarriersAnalysis(getCarriers(scenario), scenario.getConfig().controller().getOutputDirectory() + "/analysis/freight").runCarrierAnalysis(
 			CarriersAnalysis.CarrierAnalysisType.carriersPlans_unPlanned);
 		// necessary to create FreightCarriersConfigGroup before submitting to ThreadPoolExecutor
 		ConfigUtils.addOrGetModule(scenario.getConfig(), FreightCarriersConfigGroup.class);
 
-		final NetworkBasedTransportCosts netBasedCosts = NetworkBasedTransportCosts.Builder.newInstance(
-			scenario.getNetwork(), getOrAddCarrierVehicleTypes(scenario).getVehicleTypes().values()).build();
-
 		Carriers carriers = getCarriers(scenario);
 
 		HashMap<Id<Carrier>, Integer> carrierActivityCounterMap = new HashMap<>();
+		Map<Id<Carrier>, CarrierPlan> initialPlans = new HashMap<>();
 
 		// Fill carrierActivityCounterMap -> basis for sorting the carriers by number of activities before solving in parallel
 		// This also selects the carriers for which a new solution should be created
@@ -238,6 +257,12 @@ public class CarriersUtils {
 					}
 				}
 				case solveForAllCarriersAndAddPLans -> carrier.setSelectedPlan(null); // Keep existing plan(s), but make them not selected.
+				case solveForAllCarriersWarmStartedFromSelectedPlan -> {
+					if (carrier.getSelectedPlan() != null) {
+						initialPlans.put(carrier.getId(), carrier.getSelectedPlan());
+					}
+					carrier.setSelectedPlan(null);
+				}
 				default -> throw new IllegalStateException("Unexpected value: " + carriersSolutionType);
 			}
 			carrierActivityCounterMap.put(carrier.getId(), carrierActivityCounterMap.getOrDefault(carrier.getId(), 0) + carrier.getServices().size());
@@ -258,7 +283,7 @@ public class CarriersUtils {
 
 			for (Map.Entry<Id<Carrier>, Integer> entry : sorted) {
 				JspritCarrierTask task = new JspritCarrierTask(entry.getValue(), carriers.getCarriers().get(entry.getKey()), scenario, netBasedCosts,
-					startedVRPCounter, carriers.getCarriers().size());
+					startedVRPCounter, carriers.getCarriers().size(), initialPlans.get(entry.getKey()));
 				log.info("Adding task for carrier {} with priority {}", entry.getKey(), entry.getValue());
 				futures.add(executor.submit(task));
 			}
@@ -812,9 +837,19 @@ public class CarriersUtils {
 		private final NetworkBasedTransportCosts netBasedCosts;
 		private final AtomicInteger startedVRPCounter;
 		private final int taskCount;
+		private final CarrierPlan initialPlan;
 
 		public JspritCarrierTask(int priority, Carrier carrier, Scenario scenario, NetworkBasedTransportCosts netBasedCosts,
 								 AtomicInteger startedVRPCounter, int taskCount) {
+			this(priority, carrier, scenario, netBasedCosts, startedVRPCounter, taskCount, null);
+		}
+
+		/**
+		 * @param initialPlan plan to start the search from, may be null
+		 */
+		public JspritCarrierTask(int priority, Carrier carrier, Scenario scenario, NetworkBasedTransportCosts netBasedCosts,
+								 AtomicInteger startedVRPCounter, int taskCount, CarrierPlan initialPlan) {
+			this.initialPlan = initialPlan;
 			this.priority = priority;
 			this.carrier = carrier;
 			this.scenario = scenario;
@@ -860,6 +895,9 @@ public class CarriersUtils {
 			} catch (Exception e) {
 				throw new RuntimeException(e);
 			}
+			if (initialPlan != null) {
+				addInitialSolution(algorithm, problem, jspritIterations);
+			}
 
 			VehicleRoutingProblemSolution solution = Solutions.bestOf(algorithm.searchSolutions());
 
@@ -879,6 +917,39 @@ public class CarriersUtils {
 			if (!allJobsHandledBySelectedPlan(carrier))
 				log.warn("Not all jobs of carrier {} are handled by the selected plan.", carrier.getId());
 		}
+
+		/**
+		 * Starts the search from the initial plan and stops it when the solution did not improve for a fifth of the iterations.
+		 * If the travel times changed only little since the initial plan was calculated, this saves most of the iterations.
+		 */
+		private void addInitialSolution(VehicleRoutingAlgorithm algorithm, VehicleRoutingProblem problem, int jspritIterations) {
+			if (!carrier.getShipments().isEmpty()) {
+				// MatsimJspritFactory.createRoute only supports services so far
+				log.info("Carrier {} has shipments, solving it without initial solution.", carrier.getId());
+				return;
+			}
+			try {
+				VehicleRoutingProblemSolution initialSolution = MatsimJspritFactory.createSolution(initialPlan, problem);
+				// jobs added since the plan was created are not part of its routes, so ruin-and-recreate needs to insert them
+				Set<Job> unassignedJobs = new HashSet<>(problem.getJobs().values());
+				for (VehicleRoute route : initialSolution.getRoutes()) {
+					route.getTourActivities().getJobs().forEach(unassignedJobs::remove);
+				}
+				if (!unassignedJobs.isEmpty()) {
+					log.info("{} jobs of carrier {} are not part of its selected plan, they are added as unassigned jobs.", unassignedJobs.size(), carrier.getId());
+					initialSolution.getUnassignedJobs().addAll(unassignedJobs);
+				}
+				// The costs of the plan are outdated with the current travel times. The acceptor derives its initial threshold from them,
+				// so they need to be calculated with the objective function of the algorithm.
+				initialSolution.setCost(algorithm.getObjectiveFunction().getCosts(initialSolution));
+				algorithm.addInitialSolution(initialSolution);
+			} catch (IllegalStateException | IllegalArgumentException e) {
+				// e.g. jobs or vehicles of the carrier changed since the plan was created
+				log.warn("Could not use the selected plan of carrier {} as initial solution: {}", carrier.getId(), e.getMessage());
+				return;
+			}
+			algorithm.addTerminationCriterion(new IterationWithoutImprovementTermination(Math.max(1, jspritIterations / 5)));
+		}
 	}
 
 	// we need this class because otherwise there is a runtime error in the PriorityBlockingQueue
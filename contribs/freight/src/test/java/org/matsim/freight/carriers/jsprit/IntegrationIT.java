@@ -130,6 +130,76 @@ public class IntegrationIT {
 		Assertions.assertEquals(scoreWithRunJsprit, scoreRunWithOldStructure, MatsimTestUtils.EPSILON, "The score of both runs are not the same");
 	}
 
+	@Test
+	void testJspritWarmStartedFromSelectedPlan() throws ExecutionException, InterruptedException {
+		Scenario scenario = createWarmStartScenario();
+		NetworkBasedTransportCosts netBasedCosts = NetworkBasedTransportCosts.Builder.newInstance(scenario.getNetwork(),
+			CarriersUtils.getOrAddCarrierVehicleTypes(scenario).getVehicleTypes().values()).build();
+
+		CarriersUtils.runJsprit(scenario, CarriersUtils.CarrierSelectionForSolution.solveForAllCarriersAndOverrideExistingPlans, netBasedCosts);
+		// new costs, as the travel times may have changed between the two solves
+		CarriersUtils.runJsprit(scenario, CarriersUtils.CarrierSelectionForSolution.solveForAllCarriersWarmStartedFromSelectedPlan,
+			NetworkBasedTransportCosts.Builder.newInstance(scenario.getNetwork(),
+				CarriersUtils.getOrAddCarrierVehicleTypes(scenario).getVehicleTypes().values()).build());
+
+		for (Carrier carrier : CarriersUtils.getCarriers(scenario).getCarriers().values()) {
+			Assertions.assertEquals(2, carrier.getPlans().size(), "The number of plans is not as expected");
+			Assertions.assertTrue(CarriersUtils.allJobsHandledBySelectedPlan(carrier), "Not all jobs are handled");
+		}
+	}
+
+	@Test
+	void testJspritWarmStartedFromSelectedPlan_withAddedService() throws ExecutionException, InterruptedException {
+		Scenario scenario = createWarmStartScenario();
+		NetworkBasedTransportCosts netBasedCosts = NetworkBasedTransportCosts.Builder.newInstance(scenario.getNetwork(),
+			CarriersUtils.getOrAddCarrierVehicleTypes(scenario).getVehicleTypes().values()).build();
+
+		CarriersUtils.runJsprit(scenario, CarriersUtils.CarrierSelectionForSolution.solveForAllCarriersAndOverrideExistingPlans, netBasedCosts);
+
+		// the selected plan does not contain this service, so it must be inserted by the warm started search
+		Carrier carrier = CarriersUtils.getCarriers(scenario).getCarriers().get(Id.create("MyCarrier", Carrier.class));
+		CarrierService existing = carrier.getServices().get(Id.create("1", CarrierService.class));
+		CarrierService added = CarrierService.Builder.newInstance(Id.create("added", CarrierService.class), existing.getServiceLinkId(), existing.getCapacityDemand())
+			.setServiceStartingTimeWindow(existing.getServiceStaringTimeWindow())
+			.setServiceDuration(existing.getServiceDuration())
+			.build();
+		CarriersUtils.addService(carrier, added);
+		Assertions.assertFalse(CarriersUtils.allJobsHandledBySelectedPlan(carrier));
+
+		// new costs, as the travel times may have changed between the two solves
+		CarriersUtils.runJsprit(scenario, CarriersUtils.CarrierSelectionForSolution.solveForAllCarriersWarmStartedFromSelectedPlan,
+			NetworkBasedTransportCosts.Builder.newInstance(scenario.getNetwork(),
+				CarriersUtils.getOrAddCarrierVehicleTypes(scenario).getVehicleTypes().values()).build());
+
+		Assertions.assertEquals(2, carrier.getPlans().size(), "The number of plans is not as expected");
+		Assertions.assertTrue(CarriersUtils.allJobsHandledBySelectedPlan(carrier), "The added service is not handled");
+	}
+
+	private Scenario createWarmStartScenario() {
+		final String networkFilename = utils.getClassInputDirectory() + "/merged-network-simplified.xml.gz";
+		final String vehicleTypeFilename = Path.of(utils.getPackageInputDirectory()).getParent().resolve("vehicleTypes_v2.xml").toString();
+		final String carrierFilename = utils.getClassInputDirectory() + "/carrier.xml";
+
+		Config config = ConfigUtils.createConfig();
+		config.global().setRandomSeed(4177);
+
+		FreightCarriersConfigGroup freightCarriersConfigGroup = ConfigUtils.addOrGetModule(config, FreightCarriersConfigGroup.class);
+		freightCarriersConfigGroup.setCarriersFile(carrierFilename);
+		freightCarriersConfigGroup.setCarriersVehicleTypesFile(vehicleTypeFilename);
+		freightCarriersConfigGroup.setTravelTimeSliceWidth(24*3600);
+		freightCarriersConfigGroup.setTimeWindowHandling(FreightCarriersConfigGroup.TimeWindowHandling.enforceBeginnings);
+
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		new MatsimNetworkReader(scenario.getNetwork()).readFile(networkFilename);
+
+		CarriersUtils.loadCarriersAccordingToFreightConfig(scenario);
+
+		for (Carrier carrier : CarriersUtils.getCarriers(scenario).getCarriers().values()) {
+			CarriersUtils.setJspritIterations(carrier, 20);
+		}
+		return scenario;
+	}
+
 	private static double generateCarrierPlans(Network network, Carriers carriers, CarrierVehicleTypes vehicleTypes) {
 		final Builder netBuilder = NetworkBasedTransportCosts.Builder.newInstance(network,
 				vehicleTypes.getVehicleTypes().values());
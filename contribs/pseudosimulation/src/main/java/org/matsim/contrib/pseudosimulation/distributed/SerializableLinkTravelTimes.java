@@ -1,21 +1,37 @@
 package org.matsim.contrib.pseudosimulation.distributed;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 
+import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.trafficmonitoring.TimeBinUtils;
 import org.matsim.vehicles.Vehicle;
 
+/**
+ * Snapshot of link travel times that is sent from the master to the slaves every iteration.
+ * <p>
+ * The times are kept in one flat array (row per link, column per time bin) and serialized as a single block of bytes,
+ * together with the link ids in row order. Lookups go through the JVM-local {@link Id#index()} of the link, so they
+ * neither allocate nor hash.
+ */
 public class SerializableLinkTravelTimes implements Serializable, TravelTime {
+	private static final long serialVersionUID = 2L;
+	/** number of values serialized per block */
+	private static final int CHUNK_SIZE = 8192;
 
-	private final double[][] times;
-	private final Map<String, Integer> indices = new HashMap<>();
+	private transient String[] linkIds;
+	private transient double[] times;
+	private transient int binCount;
+	private transient int[] rowByLinkIndex;
 	private final double travelTimeBinSize;
 	private final int endTime;
 
@@ -23,17 +39,33 @@ public class SerializableLinkTravelTimes implements Serializable, TravelTime {
 			double traveltimeBinSize, int endTime,
 			Collection<? extends Link> links) {
 		this.travelTimeBinSize = traveltimeBinSize;
-		this.endTime = endTime;
-		endTime = endTime <= 0 ? 86400 : endTime;
-		times = new double[links.size()][TimeBinUtils.getTimeBinCount(endTime, traveltimeBinSize)];
+		this.endTime = endTime <= 0 ? 86400 : endTime;
+		binCount = TimeBinUtils.getTimeBinCount(this.endTime, traveltimeBinSize);
+		linkIds = new String[links.size()];
+		times = new double[Math.toIntExact((long) links.size() * binCount)];
 		Iterator<? extends Link> iterator = links.iterator();
-		for (int i = 0; i < times.length; i++) {
+		for (int i = 0; i < linkIds.length; i++) {
 			Link link = iterator.next();
-			indices.put(link.getId().toString(), i);
-			for (int j = 0; j < times[i].length; j++)
-				times[i][j] = linkTravelTimes.getLinkTravelTime(link,
+			linkIds[i] = link.getId().toString();
+			for (int j = 0; j < binCount; j++)
+				times[i * binCount + j] = linkTravelTimes.getLinkTravelTime(link,
 						traveltimeBinSize * j, null, null);
 		}
+		initRowByLinkIndex();
+	}
+
+	private void initRowByLinkIndex() {
+		int maxIndex = -1;
+		int[] linkIndices = new int[linkIds.length];
+		for (int i = 0; i < linkIds.length; i++) {
+			linkIndices[i] = Id.createLinkId(linkIds[i]).index();
+			maxIndex = Math.max(maxIndex, linkIndices[i]);
+		}
+		rowByLinkIndex = new int[maxIndex + 1];
+		Arrays.fill(rowByLinkIndex, -1);
+		for (int i = 0; i < linkIndices.length; i++) {
+			rowByLinkIndex[linkIndices[i]] = i;
+		}
 	}
 
 	@Override
@@ -41,7 +73,7 @@ public class SerializableLinkTravelTimes implements Serializable, TravelTime {
 			Vehicle vehicle) {
 		time = time % 86400;
 		try {
-			return times[indices.get(link.getId().toString())][TimeBinUtils.getTimeBinIndex(time, travelTimeBinSize, endTime)];
+			return times[rowByLinkIndex[link.getId().index()] * binCount + TimeBinUtils.getTimeBinIndex(time, travelTimeBinSize, binCount)];
 		} catch (ArrayIndexOutOfBoundsException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
@@ -49,4 +81,37 @@ public class SerializableLinkTravelTimes implements Serializable, TravelTime {
 		return time;
 	}
 
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(linkIds.length);
+		out.writeInt(binCount);
+		for (String linkId : linkIds) {
+			out.writeUTF(linkId);
+		}
+		// bulk writes of a few values each instead of one call per value
+		ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE * Double.BYTES);
+		for (int from = 0; from < times.length; from += CHUNK_SIZE) {
+			int length = Math.min(CHUNK_SIZE, times.length - from);
+			buffer.clear();
+			buffer.asDoubleBuffer().put(times, from, length);
+			out.write(buffer.array(), 0, length * Double.BYTES);
+		}
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		linkIds = new String[in.readInt()];
+		binCount = in.readInt();
+		for (int i = 0; i < linkIds.length; i++) {
+			linkIds[i] = in.readUTF();
+		}
+		times = new double[Math.toIntExact((long) linkIds.length * binCount)];
+		byte[] bytes = new byte[CHUNK_SIZE * Double.BYTES];
+		for (int from = 0; from < times.length; from += CHUNK_SIZE) {
+			int length = Math.min(CHUNK_SIZE, times.length - from);
+			in.readFully(bytes, 0, length * Double.BYTES);
+			ByteBuffer.wrap(bytes, 0, length * Double.BYTES).asDoubleBuffer().get(times, from, length);
+		}
+		initRowByLinkIndex();
+	}
 }
@@ -0,0 +1,53 @@
+package org.matsim.contrib.pseudosimulation.distributed;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.router.util.TravelTime;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+public class SerializableLinkTravelTimesTest {
+
+	@Test
+	void testSerialization_clampsTimeBins() throws IOException, ClassNotFoundException {
+		Network network = NetworkUtils.createNetwork();
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId("1"), new Coord(0, 0));
+		Node node2 = NetworkUtils.createAndAddNode(network, Id.createNodeId("2"), new Coord(1000, 0));
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.createLinkId("1"), node1, node2, 1000, 10, 1000, 1);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.createLinkId("2"), node2, node1, 1000, 10, 1000, 1);
+
+		// travel time is the start of the time bin, plus 100000 for the second link
+		TravelTime travelTime = (link, time, person, vehicle) -> time + (link == link2 ? 100000 : 0);
+
+		SerializableLinkTravelTimes travelTimes = serializeAndRead(new SerializableLinkTravelTimes(travelTime, 900, 3600, network.getLinks().values()));
+		Assertions.assertEquals(900, travelTimes.getLinkTravelTime(link1, 1000, null, null));
+		Assertions.assertEquals(100900, travelTimes.getLinkTravelTime(link2, 1000, null, null));
+		// times after the end time use the last bin, and must not run into the row of the next link
+		Assertions.assertEquals(3600, travelTimes.getLinkTravelTime(link1, 7500, null, null));
+
+		// an end time of 0 falls back to a full day
+		travelTimes = serializeAndRead(new SerializableLinkTravelTimes(travelTime, 3600, 0, network.getLinks().values()));
+		Assertions.assertEquals(7200, travelTimes.getLinkTravelTime(link1, 7500, null, null));
+		Assertions.assertEquals(82800, travelTimes.getLinkTravelTime(link1, 86399, null, null));
+	}
+
+	private static SerializableLinkTravelTimes serializeAndRead(SerializableLinkTravelTimes travelTimes) throws IOException, ClassNotFoundException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(travelTimes);
+		}
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+			return (SerializableLinkTravelTimes) in.readObject();
+		}
+	}
+}
@@ -52,6 +52,12 @@ public final class RailsimConfigGroup extends ReflectiveConfigGroup {
 	@Comment("Maximum time interval in seconds which is used to update the train position update events.")
 	public double updateInterval = 10.;
 
+	@Parameter
+	@Comment("If true, position updates are scheduled individually for each train, at most 'updateInterval' seconds after its last update," +
+		" instead of updating all active trains every 'updateInterval' seconds. In each time step only trains with due updates are processed," +
+		" which is recommended for large networks with many trains. Position events are then not aligned to the update interval.")
+	public boolean eventDrivenPositionUpdates = false;
+
 	public RailsimConfigGroup() {
 		super(GROUP_NAME);
 	}
@@ -19,11 +19,11 @@
 
 package ch.sbb.matsim.contrib.railsim.qsimengine;
 
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Objects;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import ch.sbb.matsim.contrib.railsim.qsimengine.disposition.DispositionResponse;
@@ -59,7 +59,10 @@ final class RailsimEngine implements Steppable {
 	private static final Logger log = LogManager.getLogger(RailsimEngine.class);
 	private final EventsManager eventsManager;
 	private final RailsimConfigGroup config;
-	private final List<TrainState> activeTrains = new ArrayList<>();
+	/**
+	 * Active trains in order of departure, removal on arrival is constant time.
+	 */
+	private final Set<TrainState> activeTrains = new LinkedHashSet<>();
 	private final Queue<UpdateEvent> updateQueue = new PriorityQueue<>();
 	private final RailResourceManager resources;
 	private final TrainDisposition disposition;
@@ -91,7 +94,8 @@ final class RailsimEngine implements Steppable {
 			update = updateQueue.peek();
 		}
 
-		if (time % config.updateInterval == 0.) {
+		// In event driven mode, position updates are regular update events of each train (see decideNextUpdate)
+		if (!config.eventDrivenPositionUpdates && time % config.updateInterval == 0.) {
 			updateAllPositions(time);
 		}
 	}
@@ -429,15 +433,10 @@ final class RailsimEngine implements Steppable {
 
 		TrainState state = event.state;
 
-		RailLink nextTailLink = null;
-		// Find the next link in the route
-		for (int i = state.routeIdx; i >= 1; i--) {
-			if (state.route.get(i - 1).getLinkId().equals(state.tailLink)) {
-				nextTailLink = state.route.get(i);
-			}
-		}
+		// The next link in the route, detours are only inserted in front of the head, so the tail index stays valid
+		RailLink nextTailLink = state.route.get(state.tailIdx + 1);
 
-		Objects.requireNonNull(nextTailLink, "Could not find next link in route");
+		assert state.route.get(state.tailIdx).getLinkId().equals(state.tailLink) : "Tail index does not match tail link";
 
 		updatePosition(time, event);
 
@@ -446,6 +445,7 @@ final class RailsimEngine implements Steppable {
 		RailLink tailLink = resources.getLink(state.tailLink);
 
 		state.tailLink = nextTailLink.getLinkId();
+		state.tailIdx++;
 		state.tailPosition = 0;
 
 		decideTargetSpeed(event, state);
@@ -649,6 +649,12 @@ final class RailsimEngine implements Steppable {
 		// dist is the minimum of all supplied distances
 		event.plannedTime = state.timestamp + RailsimCalc.calcRequiredTime(state, dist);
 
+		// Position updates are scheduled per train, instead of updating all trains every update interval
+		if (config.eventDrivenPositionUpdates && event.plannedTime > state.timestamp + config.updateInterval) {
+			event.type = UpdateEvent.Type.POSITION;
+			event.plannedTime = state.timestamp + config.updateInterval;
+		}
+
 		// There could be old reservations events that need to be checked first
 		if (event.isAwaitingReservation() && event.checkReservation < state.timestamp) {
 			event.checkReservation = state.timestamp;
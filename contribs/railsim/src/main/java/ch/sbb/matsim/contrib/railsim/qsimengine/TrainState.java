@@ -66,6 +66,11 @@ final class TrainState implements TrainPosition {
 	 */
 	int routeIdx;
 
+	/**
+	 * Index of the {@code tailLink} in the list of route links.
+	 */
+	int tailIdx;
+
 	/**
 	 * Time of this state.
 	 */
@@ -57,8 +57,11 @@ public class RailsimEngineTest {
 	}
 
 	private RailsimTestUtils.Holder getTestEngine(String network, @Nullable Consumer<Link> f) {
+		return getTestEngine(network, f, new RailsimConfigGroup());
+	}
+
+	private RailsimTestUtils.Holder getTestEngine(String network, @Nullable Consumer<Link> f, RailsimConfigGroup config) {
 		Network net = NetworkUtils.readNetwork(new File(utils.getPackageInputDirectory(), network).toString());
-		RailsimConfigGroup config = new RailsimConfigGroup();
 
 		collector.clear();
 
@@ -104,6 +107,24 @@ public class RailsimEngineTest {
 
 	}
 
+	@Test
+	void testSimpleEventDriven() {
+
+		RailsimConfigGroup config = new RailsimConfigGroup();
+		config.eventDrivenPositionUpdates = true;
+
+		RailsimTestUtils.Holder test = getTestEngine("networkMicroBi.xml", null, config);
+		RailsimTestUtils.createDeparture(test, TestVehicle.Regio, "train", 0, "l1-2", "l5-6");
+
+		test.doSimStepUntil(400);
+		test.debugFiles(collector, utils.getOutputDirectory() + "/simpleEventDriven");
+
+		RailsimTestUtils.assertThat(collector)
+			.hasSizeGreaterThan(5)
+			.hasTrainState("train", 144, 0, 44)
+			.hasTrainState("train", 234, 2000, 0);
+	}
+
 	@Test
 	void testCongested() {
 
@@ -212,6 +212,7 @@ public final class SimWrapper {
 			SimWrapperConfigGroup.ContextParams ctx = configGroup.get(runner.getName());
 
 			runner.setSampleSize(configGroup.getSampleSize());
+			runner.setNumberOfThreads(configGroup.getNumberOfThreads());
 
 			if (configPath != null)
 				runner.setConfigPath(configPath);
@@ -37,6 +37,10 @@ public class SimWrapperConfigGroup extends ReflectiveConfigGroup {
 	@Comment("Sample size of the run, which may be required by certain analysis functions.")
 	private Double sampleSize = 1.0d;
 
+	@Parameter
+	@Comment("Number of analysis commands that may run in parallel. Each command reads its own input, so memory usage grows with this number.")
+	private int numberOfThreads = 1;
+
 	public SimWrapperConfigGroup() {
 		super(NAME);
 		get("");
@@ -137,6 +141,14 @@ public class SimWrapperConfigGroup extends ReflectiveConfigGroup {
 		this.sampleSize = sampleSize;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	/**
 	 * Mode how default dashboards are loaded.
 	 */
@@ -62,7 +62,7 @@ public class AssignmentRequestInserter implements UnplannedRequestInserter {
 		this.params = params;
 
 		assignmentProblem = new VehicleAssignmentProblem<>(network, travelTime, travelDisutility, router,
-				params.getNearestRequestsLimit(), params.getNearestVehiclesLimit());
+				params.getNearestRequestsLimit(), params.getNearestVehiclesLimit(), params.getSolver());
 
 		assignmentCostProvider = new TaxiToRequestAssignmentCostProvider(params);
 	}
@@ -21,6 +21,7 @@ package org.matsim.contrib.taxi.optimizer.assignment;
 
 import org.matsim.contrib.taxi.optimizer.AbstractTaxiOptimizerParams;
 import org.matsim.contrib.taxi.optimizer.assignment.TaxiToRequestAssignmentCostProvider.Mode;
+import org.matsim.contrib.taxi.optimizer.assignment.VehicleAssignmentProblem.Solver;
 import org.matsim.core.config.Config;
 
 import jakarta.validation.constraints.NotNull;
@@ -36,6 +37,15 @@ public final class AssignmentTaxiOptimizerParams extends AbstractTaxiOptimizerPa
 	@NotNull
 	private Mode mode = Mode.ARRIVAL_TIME;
 
+	@Parameter
+	@Comment("Specifies the algorithm used to solve the assignment problem."
+			+ " HUNGARIAN solves the dense vehicles x requests cost matrix (optimal, O(n^3))."
+			+ " SPARSE solves the problem restricted to the kNN vehicle-request pairs"
+			+ " (see 'nearestRequestsLimit' and 'nearestVehiclesLimit'); scales to thousands of vehicles and requests."
+			+ " The default value is HUNGARIAN.")
+	@NotNull
+	private Solver solver = Solver.HUNGARIAN;
+
 	@Parameter
 	@Comment("Vehicle planning horizon in the case of oversupply."
 			+ " Only vehicles available within the time horizon are considered in the assignment procedure."
@@ -120,6 +130,14 @@ public final class AssignmentTaxiOptimizerParams extends AbstractTaxiOptimizerPa
 		this.mode = mode;
 	}
 
+	public @NotNull Solver getSolver() {
+		return solver;
+	}
+
+	public void setSolver(@NotNull Solver solver) {
+		this.solver = solver;
+	}
+
 	@Positive
 	public double getVehPlanningHorizonOversupply() {
 		return vehPlanningHorizonOversupply;
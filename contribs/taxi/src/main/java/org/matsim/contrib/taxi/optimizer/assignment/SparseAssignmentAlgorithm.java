@@ -0,0 +1,260 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.taxi.optimizer.assignment;
+
+import java.util.Arrays;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Successive shortest augmenting path algorithm (Jonker-Volgenant style, with Dijkstra over a binary heap) for the
+ * sparse assignment problem. In contrast to {@link HungarianAlgorithm}, the costs are not given as a dense matrix,
+ * but as a list of candidate edges per worker (compressed sparse row format), so memory and time scale with the
+ * number of candidate pairs instead of workers&times;jobs.
+ * <p>
+ * Each worker has a private "unassigned" option with the given cost, which makes the problem always feasible. A worker
+ * is left unassigned (-1) if this is cheaper in the minimum cost assignment, or if it has no candidate jobs at all.
+ */
+public class SparseAssignmentAlgorithm {
+	private final int workers, jobs;
+	private final int[] edgeStartByWorker;
+	private final int[] jobByEdge;
+	private final double[] costByEdge;
+	private final double[] unassignedCostByWorker;
+
+	// jobs [0, jobs) are real jobs, jobs [jobs, jobs + workers) are the private "unassigned" options of workers
+	private final double[] labelByWorker, labelByJob;
+	private final int[] matchJobByWorker, matchWorkerByJob;
+
+	// shortest path search (reset only for the touched jobs after each augmentation)
+	private final double[] pathCostByJob;
+	private final int[] parentWorkerByJob;
+	private final boolean[] finalizedJobs;
+	private int[] touchedJobs;
+	private int touchedJobCount;
+	private int[] touchedWorkers;
+	private int touchedWorkerCount;
+
+	private int[] heapJobs = new int[16];
+	private double[] heapCosts = new double[16];
+	private int heapSize;
+
+	/**
+	 * @param jobs                   number of jobs
+	 * @param edgeStartByWorker      candidate edges of worker w are in the range [edgeStartByWorker[w],
+	 *                               edgeStartByWorker[w+1]); length: workers + 1
+	 * @param jobByEdge              job index of each edge
+	 * @param costByEdge             cost of assigning the worker to the job of each edge
+	 * @param unassignedCostByWorker cost of not assigning a worker
+	 */
+	public SparseAssignmentAlgorithm(int jobs, int[] edgeStartByWorker, int[] jobByEdge, double[] costByEdge,
+			double[] unassignedCostByWorker) {
+		this.workers = edgeStartByWorker.length - 1;
+		this.jobs = jobs;
+		Preconditions.checkArgument(unassignedCostByWorker.length == workers, "Irregular unassigned costs");
+		Preconditions.checkArgument(jobByEdge.length == costByEdge.length, "Irregular edges");
+		this.edgeStartByWorker = edgeStartByWorker;
+		this.jobByEdge = jobByEdge;
+		this.costByEdge = costByEdge;
+		this.unassignedCostByWorker = unassignedCostByWorker;
+
+		int allJobs = jobs + workers;
+		labelByWorker = new double[workers];
+		labelByJob = new double[allJobs];
+		matchJobByWorker = new int[workers];
+		Arrays.fill(matchJobByWorker, -1);
+		matchWorkerByJob = new int[allJobs];
+		Arrays.fill(matchWorkerByJob, -1);
+
+		pathCostByJob = new double[allJobs];
+		Arrays.fill(pathCostByJob, Double.POSITIVE_INFINITY);
+		parentWorkerByJob = new int[allJobs];
+		finalizedJobs = new boolean[allJobs];
+		touchedJobs = new int[16];
+		touchedWorkers = new int[16];
+	}
+
+	/**
+	 * Execute the algorithm.
+	 *
+	 * @return the minimum cost matching of workers to jobs. A matching value of -1 indicates that the corresponding
+	 * worker is unassigned.
+	 */
+	public int[] execute() {
+		for (int w = 0; w < workers; w++) {
+			if (edgeStartByWorker[w] < edgeStartByWorker[w + 1]) {
+				augment(w);
+			}
+		}
+
+		int[] result = new int[workers];
+		for (int w = 0; w < workers; w++) {
+			int j = matchJobByWorker[w];
+			result[w] = j < jobs ? j : -1;
+		}
+		return result;
+	}
+
+	private void augment(int startWorker) {
+		int sink = -1;
+		double minPathCost = 0;
+		int worker = startWorker;
+		addTouchedWorker(startWorker);
+
+		while (sink == -1) {
+			relaxEdges(worker, minPathCost);
+
+			int job;
+			do {
+				job = heapJobs[0];
+				minPathCost = heapCosts[0];
+				pollHeap();
+			} while (finalizedJobs[job] || minPathCost > pathCostByJob[job]); // skip outdated heap entries
+			finalizedJobs[job] = true;
+
+			if (matchWorkerByJob[job] == -1) {
+				sink = job;
+			} else {
+				worker = matchWorkerByJob[job];
+				addTouchedWorker(worker);
+			}
+		}
+
+		// update labels (keeps all reduced costs non-negative)
+		labelByWorker[startWorker] += minPathCost;
+		for (int i = 1; i < touchedWorkerCount; i++) {
+			int w = touchedWorkers[i];
+			labelByWorker[w] += minPathCost - pathCostByJob[matchJobByWorker[w]];
+		}
+		for (int i = 0; i < touchedJobCount; i++) {
+			int j = touchedJobs[i];
+			if (finalizedJobs[j]) {
+				labelByJob[j] -= minPathCost - pathCostByJob[j];
+			}
+		}
+
+		// augment along the path
+		int j = sink;
+		while (true) {
+			int w = parentWorkerByJob[j];
+			int prevJob = matchJobByWorker[w];
+			matchWorkerByJob[j] = w;
+			matchJobByWorker[w] = j;
+			if (w == startWorker) {
+				break;
+			}
+			j = prevJob;
+		}
+
+		// reset the search state
+		for (int i = 0; i < touchedJobCount; i++) {
+			int t = touchedJobs[i];
+			pathCostByJob[t] = Double.POSITIVE_INFINITY;
+			finalizedJobs[t] = false;
+		}
+		touchedJobCount = 0;
+		touchedWorkerCount = 0;
+		heapSize = 0;
+	}
+
+	private void relaxEdges(int w, double minPathCost) {
+		double workerLabel = labelByWorker[w];
+		for (int e = edgeStartByWorker[w]; e < edgeStartByWorker[w + 1]; e++) {
+			relaxEdge(w, jobByEdge[e], minPathCost + costByEdge[e] - workerLabel);
+		}
+		relaxEdge(w, jobs + w, minPathCost + unassignedCostByWorker[w] - workerLabel);
+	}
+
+	private void relaxEdge(int w, int j, double pathCostWithoutJobLabel) {
+		if (finalizedJobs[j]) {
+			return;
+		}
+		double pathCost = pathCostWithoutJobLabel - labelByJob[j];
+		if (pathCost < pathCostByJob[j]) {
+			if (pathCostByJob[j] == Double.POSITIVE_INFINITY) {
+				addTouchedJob(j);
+			}
+			pathCostByJob[j] = pathCost;
+			parentWorkerByJob[j] = w;
+			addToHeap(j, pathCost);
+		}
+	}
+
+	private void addTouchedJob(int j) {
+		if (touchedJobCount == touchedJobs.length) {
+			touchedJobs = Arrays.copyOf(touchedJobs, 2 * touchedJobCount);
+		}
+		touchedJobs[touchedJobCount++] = j;
+	}
+
+	private void addTouchedWorker(int w) {
+		if (touchedWorkerCount == touchedWorkers.length) {
+			touchedWorkers = Arrays.copyOf(touchedWorkers, 2 * touchedWorkerCount);
+		}
+		touchedWorkers[touchedWorkerCount++] = w;
+	}
+
+	// binary min-heap with lazy deletion of outdated entries
+	private void addToHeap(int job, double cost) {
+		if (heapSize == heapJobs.length) {
+			heapJobs = Arrays.copyOf(heapJobs, 2 * heapSize);
+			heapCosts = Arrays.copyOf(heapCosts, 2 * heapSize);
+		}
+		int i = heapSize++;
+		while (i > 0) {
+			int parent = (i - 1) >> 1;
+			if (heapCosts[parent] <= cost) {
+				break;
+			}
+			heapJobs[i] = heapJobs[parent];
+			heapCosts[i] = heapCosts[parent];
+			i = parent;
+		}
+		heapJobs[i] = job;
+		heapCosts[i] = cost;
+	}
+
+	private void pollHeap() {
+		heapSize--;
+		if (heapSize == 0) {
+			return;
+		}
+		int job = heapJobs[heapSize];
+		double cost = heapCosts[heapSize];
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= heapSize) {
+				break;
+			}
+			if (child + 1 < heapSize && heapCosts[child + 1] < heapCosts[child]) {
+				child++;
+			}
+			if (heapCosts[child] >= cost) {
+				break;
+			}
+			heapJobs[i] = heapJobs[child];
+			heapCosts[i] = heapCosts[child];
+			i = child;
+		}
+		heapJobs[i] = job;
+		heapCosts[i] = cost;
+	}
+}
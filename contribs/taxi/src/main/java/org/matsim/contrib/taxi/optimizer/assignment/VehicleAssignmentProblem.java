@@ -20,7 +20,9 @@
 package org.matsim.contrib.taxi.optimizer.assignment;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
 import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.network.Link;
@@ -48,10 +50,28 @@ public class VehicleAssignmentProblem<D> {
 		double calc(VehicleData.Entry departure, DestEntry<D> dest, PathData pathData);
 	}
 
+	public enum Solver {
+		// dense vehicles x destinations cost matrix, optimal assignment in O(n^3)
+		HUNGARIAN,
+
+		// sparse candidate graph (only kNN pairs with a path), optimal assignment within this graph; scales to large
+		// fleets. Pairs outside the kNN neighbourhood are never assigned (instead of being assigned with 'nullPathCost')
+		SPARSE
+	}
+
+	private interface PathDataConsumer {
+		void accept(int v, int d, PathData pathData);
+	}
+
+	private interface PathDataProvider {
+		PathData get(int v, int d);
+	}
+
 	private final TravelTime travelTime;
 	private final LeastCostPathCalculator router;
 
 	private final OneToManyPathSearch pathSearch;
+	private final Solver solver;
 
 	private final StraightLineKnnFinder<VehicleData.Entry, DestEntry<D>> destinationFinder;
 	private final StraightLineKnnFinder<DestEntry<D>, VehicleData.Entry> vehicleFinder;
@@ -67,8 +87,15 @@ public class VehicleAssignmentProblem<D> {
 
 	public VehicleAssignmentProblem(Network network, TravelTime travelTime, TravelDisutility travelDisutility,
 			LeastCostPathCalculator router, int nearestDestinationLimit, int nearestVehicleLimit) {
+		this(network, travelTime, travelDisutility, router, nearestDestinationLimit, nearestVehicleLimit,
+				Solver.HUNGARIAN);
+	}
+
+	public VehicleAssignmentProblem(Network network, TravelTime travelTime, TravelDisutility travelDisutility,
+			LeastCostPathCalculator router, int nearestDestinationLimit, int nearestVehicleLimit, Solver solver) {
 		this.travelTime = travelTime;
 		this.router = router;
+		this.solver = solver;
 
 		IdMap<Node, Node> nodeMap = new IdMap<>(Node.class);
 		nodeMap.putAll(network.getNodes());
@@ -92,10 +119,53 @@ public class VehicleAssignmentProblem<D> {
 		this.dData = dData;
 		this.assignmentCost = assignmentCost;
 
+		return switch (solver) {
+			case HUNGARIAN -> findDenseAssignments();
+			case SPARSE -> findSparseAssignments();
+		};
+	}
+
+	private List<Dispatch<D>> findDenseAssignments() {
 		PathData[][] pathDataMatrix = createPathDataMatrix();
 		double[][] costMatrix = createCostMatrix(pathDataMatrix);
 		int[] assignments = new HungarianAlgorithm(costMatrix).execute();
-		return createDispatches(assignments, pathDataMatrix, travelTime);
+		return createDispatches(assignments, (v, d) -> pathDataMatrix[v][d]);
+	}
+
+	private List<Dispatch<D>> findSparseAssignments() {
+		CandidateGraph graph = createCandidateGraph();
+
+		// cost functions are stateless, so costs can be calculated concurrently (unlike paths)
+		double[] costByEdge = new double[graph.pathByEdge.length];
+		IntStream.range(0, vData.getSize()).parallel().forEach(v -> {
+			VehicleData.Entry departure = vData.getEntry(v);
+			for (int e = graph.edgeStartByVehicle[v]; e < graph.edgeStartByVehicle[v + 1]; e++) {
+				costByEdge[e] = assignmentCost.calc(departure, dData.getEntry(graph.destByEdge[e]), graph.pathByEdge[e]);
+			}
+		});
+
+		double[] unassignedCostByVehicle = new double[vData.getSize()];
+		Arrays.fill(unassignedCostByVehicle,
+				calcUnassignedCost(costByEdge, Math.min(vData.getSize(), dData.getSize())));
+
+		int[] assignments = new SparseAssignmentAlgorithm(dData.getSize(), graph.edgeStartByVehicle, graph.destByEdge,
+				costByEdge, unassignedCostByVehicle).execute();
+		return createDispatches(assignments, graph::getPathData);
+	}
+
+	/**
+	 * Like the dummy rows/columns of the rectangular {@link HungarianAlgorithm}, being unassigned costs the same for all
+	 * vehicles, so that the choice between vehicles depends only on their assignment costs. The cost is higher than
+	 * any cost difference between two matchings that differ by one assignment, so that as many vehicles as possible
+	 * are assigned.
+	 */
+	static double calcUnassignedCost(double[] costByEdge, int maxAssignmentCount) {
+		if (costByEdge.length == 0) {
+			return 0;
+		}
+		double minCost = Arrays.stream(costByEdge).min().getAsDouble();
+		double maxCost = Arrays.stream(costByEdge).max().getAsDouble();
+		return maxCost + maxAssignmentCount * (maxCost - minCost) + 1;
 	}
 
 	// private static int calcPathsForVehiclesCount = 0;
@@ -103,17 +173,29 @@ public class VehicleAssignmentProblem<D> {
 
 	private PathData[][] createPathDataMatrix() {
 		PathData[][] pathDataMatrix = new PathData[vData.getSize()][dData.getSize()];
+		calcPaths((v, d, pathData) -> pathDataMatrix[v][d] = pathData);
+		return pathDataMatrix;
+	}
+
+	private CandidateGraph createCandidateGraph() {
+		CandidateGraph.Builder builder = new CandidateGraph.Builder(vData.getSize());
+		calcPaths((v, d, pathData) -> {
+			if (pathData != null) {
+				builder.add(v, d, pathData);
+			}
+		});
+		return builder.build();
+	}
 
+	private void calcPaths(PathDataConsumer consumer) {
 		if (dData.getSize() > vData.getSize()) {
-			calcPathsForVehicles(pathDataMatrix);
+			calcPathsForVehicles(consumer);
 		} else {
-			calcPathsForDestinations(pathDataMatrix);
+			calcPathsForDestinations(consumer);
 		}
-
-		return pathDataMatrix;
 	}
 
-	private void calcPathsForVehicles(PathData[][] pathDataMatrix) {
+	private void calcPathsForVehicles(PathDataConsumer consumer) {
 		for (int v = 0; v < vData.getSize(); v++) {
 			VehicleData.Entry departure = vData.getEntry(v);
 
@@ -125,13 +207,13 @@ public class VehicleAssignmentProblem<D> {
 
 			for (int i = 0; i < filteredDests.size(); i++) {
 				int d = filteredDests.get(i).idx;
-				pathDataMatrix[v][d] = paths[i];
+				consumer.accept(v, d, paths[i]);
 			}
 		}
 	}
 
 	// TODO does not support adv reqs
-	private void calcPathsForDestinations(PathData[][] pathDataMatrix) {
+	private void calcPathsForDestinations(PathDataConsumer consumer) {
 		for (int d = 0; d < dData.getSize(); d++) {
 			DestEntry<D> dest = dData.getEntry(d);
 
@@ -143,7 +225,7 @@ public class VehicleAssignmentProblem<D> {
 
 			for (int i = 0; i < filteredVehs.size(); i++) {
 				int v = filteredVehs.get(i).idx;
-				pathDataMatrix[v][d] = paths[i];
+				consumer.accept(v, d, paths[i]);
 			}
 		}
 	}
@@ -152,17 +234,18 @@ public class VehicleAssignmentProblem<D> {
 
 		double[][] costMatrix = new double[vData.getSize()][dData.getSize()];
 
-		for (int v = 0; v < vData.getSize(); v++) {
+		// cost functions are stateless, so rows can be filled concurrently
+		IntStream.range(0, vData.getSize()).parallel().forEach(v -> {
 			VehicleData.Entry departure = vData.getEntry(v);
 			for (int r = 0; r < dData.getSize(); r++) {
 				costMatrix[v][r] = assignmentCost.calc(departure, dData.getEntry(r), pathDataMatrix[v][r]);
 			}
-		}
+		});
 
 		return costMatrix;
 	}
 
-	private List<Dispatch<D>> createDispatches(int[] assignments, PathData[][] pathDataMatrix, TravelTime travelTime) {
+	private List<Dispatch<D>> createDispatches(int[] assignments, PathDataProvider pathDataProvider) {
 		List<Dispatch<D>> dispatches = new ArrayList<>(Math.min(vData.getSize(), dData.getSize()));
 		for (int v = 0; v < assignments.length; v++) {
 			int d = assignments[v];
@@ -173,7 +256,7 @@ public class VehicleAssignmentProblem<D> {
 
 			VehicleData.Entry departure = vData.getEntry(v);
 			DestEntry<D> dest = dData.getEntry(d);
-			PathData pathData = pathDataMatrix[v][d];
+			PathData pathData = pathDataProvider.get(v, d);
 
 			// TODO if null is frequent we may be more efficient by increasing the neighbourhood
 			VrpPathWithTravelData vrpPath = pathData == null ?
@@ -185,4 +268,74 @@ public class VehicleAssignmentProblem<D> {
 
 		return dispatches;
 	}
+
+	/**
+	 * Vehicle-to-destination pairs (with paths) in compressed sparse row format.
+	 */
+	private static class CandidateGraph {
+		private final int[] edgeStartByVehicle;
+		private final int[] destByEdge;
+		private final PathData[] pathByEdge;
+
+		private CandidateGraph(int[] edgeStartByVehicle, int[] destByEdge, PathData[] pathByEdge) {
+			this.edgeStartByVehicle = edgeStartByVehicle;
+			this.destByEdge = destByEdge;
+			this.pathByEdge = pathByEdge;
+		}
+
+		private PathData getPathData(int v, int d) {
+			for (int e = edgeStartByVehicle[v]; e < edgeStartByVehicle[v + 1]; e++) {
+				if (destByEdge[e] == d) {
+					return pathByEdge[e];
+				}
+			}
+			return null;
+		}
+
+		private static class Builder {
+			private final int vehicleCount;
+			private int size = 0;
+			private int[] vehicles = new int[16];
+			private int[] dests = new int[16];
+			private PathData[] paths = new PathData[16];
+
+			private Builder(int vehicleCount) {
+				this.vehicleCount = vehicleCount;
+			}
+
+			private void add(int v, int d, PathData pathData) {
+				if (size == vehicles.length) {
+					int newLength = 2 * size;
+					vehicles = Arrays.copyOf(vehicles, newLength);
+					dests = Arrays.copyOf(dests, newLength);
+					paths = Arrays.copyOf(paths, newLength);
+				}
+				vehicles[size] = v;
+				dests[size] = d;
+				paths[size] = pathData;
+				size++;
+			}
+
+			// counting sort by vehicle (edges may have been added per destination)
+			private CandidateGraph build() {
+				int[] edgeStartByVehicle = new int[vehicleCount + 1];
+				for (int i = 0; i < size; i++) {
+					edgeStartByVehicle[vehicles[i] + 1]++;
+				}
+				for (int v = 0; v < vehicleCount; v++) {
+					edgeStartByVehicle[v + 1] += edgeStartByVehicle[v];
+				}
+
+				int[] nextEdgeByVehicle = Arrays.copyOf(edgeStartByVehicle, vehicleCount);
+				int[] destByEdge = new int[size];
+				PathData[] pathByEdge = new PathData[size];
+				for (int i = 0; i < size; i++) {
+					int e = nextEdgeByVehicle[vehicles[i]]++;
+					destByEdge[e] = dests[i];
+					pathByEdge[e] = paths[i];
+				}
+				return new CandidateGraph(edgeStartByVehicle, destByEdge, pathByEdge);
+			}
+		}
+	}
 }
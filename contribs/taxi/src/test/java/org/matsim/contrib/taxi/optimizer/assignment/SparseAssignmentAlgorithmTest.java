@@ -0,0 +1,113 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.taxi.optimizer.assignment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class SparseAssignmentAlgorithmTest {
+	private static final double UNASSIGNED_COST = 1e6;
+
+	@Test
+	void noCandidates_unassigned() {
+		int[] assignments = new SparseAssignmentAlgorithm(2, new int[] { 0, 0, 0 }, new int[0], new double[0],
+				new double[] { 0, 0 }).execute();
+		assertThat(assignments).containsExactly(-1, -1);
+	}
+
+	@Test
+	void cheaperToStayUnassigned() {
+		// worker 0: job 0 (10); worker 1: job 0 (1), job 1 (50) -> staying unassigned (20) is cheaper for worker 1
+		int[] assignments = new SparseAssignmentAlgorithm(2, new int[] { 0, 1, 3 }, new int[] { 0, 0, 1 },
+				new double[] { 10, 1, 50 }, new double[] { 100, 20 }).execute();
+		assertThat(assignments).containsExactly(0, -1);
+	}
+
+	@Test
+	void denseProblems_sameCostAsHungarian() {
+		Random random = new Random(123);
+		for (int i = 0; i < 100; i++) {
+			int workers = 1 + random.nextInt(20);
+			int jobs = 1 + random.nextInt(20);
+			double[][] costMatrix = new double[workers][jobs];
+			for (double[] row : costMatrix) {
+				Arrays.setAll(row, j -> random.nextInt(1000));
+			}
+
+			int[] edgeStartByWorker = new int[workers + 1];
+			int[] jobByEdge = new int[workers * jobs];
+			double[] costByEdge = new double[workers * jobs];
+			for (int w = 0; w < workers; w++) {
+				edgeStartByWorker[w + 1] = edgeStartByWorker[w] + jobs;
+				for (int j = 0; j < jobs; j++) {
+					jobByEdge[w * jobs + j] = j;
+					costByEdge[w * jobs + j] = costMatrix[w][j];
+				}
+			}
+			double[] unassignedCostByWorker = new double[workers];
+			Arrays.fill(unassignedCostByWorker, UNASSIGNED_COST);
+
+			int[] sparseAssignments = new SparseAssignmentAlgorithm(jobs, edgeStartByWorker, jobByEdge, costByEdge,
+					unassignedCostByWorker).execute();
+			int[] hungarianAssignments = new HungarianAlgorithm(costMatrix).execute();
+
+			assertThat(Arrays.stream(sparseAssignments).filter(j -> j != -1).distinct().count()).isEqualTo(
+					Math.min(workers, jobs));
+			assertThat(totalCost(sparseAssignments, costMatrix)).isCloseTo(
+					totalCost(hungarianAssignments, costMatrix), within(1e-9));
+		}
+	}
+
+	@Test
+	void pickupTimeCosts_earlierAvailableVehicleWins() {
+		// vehicle 0 is available at 0 and needs 100 s to the request (pickup at 100), vehicle 1 is available at 60 and
+		// needs 50 s (pickup at 110); the pickup time depends on the vehicle, but being unassigned must not
+		double[] costByEdge = { 0 + 100, 60 + 50 };
+		double unassignedCost = VehicleAssignmentProblem.calcUnassignedCost(costByEdge, 1);
+		int[] assignments = new SparseAssignmentAlgorithm(1, new int[] { 0, 1, 2 }, new int[] { 0, 0 }, costByEdge,
+				new double[] { unassignedCost, unassignedCost }).execute();
+		assertThat(assignments).containsExactly(0, -1);
+	}
+
+	@Test
+	void constantUnassignedCost_maximumAssignment() {
+		// worker 0: job 0 (1), job 1 (1000); worker 1: job 0 (1000) -> both must be assigned, like with Hungarian
+		double[] costByEdge = { 1, 1000, 1000 };
+		double unassignedCost = VehicleAssignmentProblem.calcUnassignedCost(costByEdge, 2);
+		int[] assignments = new SparseAssignmentAlgorithm(2, new int[] { 0, 2, 3 }, new int[] { 0, 1, 0 }, costByEdge,
+				new double[] { unassignedCost, unassignedCost }).execute();
+		assertThat(assignments).containsExactly(1, 0);
+	}
+
+	private static double totalCost(int[] assignments, double[][] costMatrix) {
+		double cost = 0;
+		for (int w = 0; w < assignments.length; w++) {
+			int j = assignments[w];
+			if (j != -1 && j < costMatrix[w].length) {
+				cost += costMatrix[w][j];
+			}
+		}
+		return cost;
+	}
+}
@@ -1,8 +1,6 @@
 package org.matsim.analysis;
 
 import jakarta.inject.Inject;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Id;
@@ -14,9 +12,7 @@ import org.matsim.core.controler.Controler;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.router.TripStructureUtils;
 import org.matsim.core.scoring.ExperiencedPlansService;
-import org.matsim.core.utils.io.IOUtils;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,28 +34,29 @@ public class ActivityWriter {
 	void writeCsv(int iteration) {
 		log.info("Writing all Activities to " + Controler.DefaultFiles.activitiescsv);
 
+		write(TableRecordWriter.csv(outputDirectoryHierarchy.getIterationFilename(iteration, Controler.DefaultFiles.activitiescsv),
+			config.global().getDefaultDelimiter().charAt(0)));
+
+		log.info("...done");
+	}
+
+	/**
+	 * Writes the activities of all experienced plans to the writer created by the given factory.
+	 */
+	public void write(TableRecordWriter.Factory factory) {
 		List<String> attributes = prepareAttributes();
 		String[] header = prepareHeader(attributes);
 
-		try{
-			BufferedWriter bufferedWriter = IOUtils.getBufferedWriter(outputDirectoryHierarchy.getIterationFilename(iteration, Controler.DefaultFiles.activitiescsv));
-			CSVPrinter csvPrinter = new CSVPrinter(bufferedWriter, CSVFormat.Builder.create()
-																					.setDelimiter(config.global().getDefaultDelimiter().charAt(0))
-																					.setHeader(header).build());
-
+		try (TableRecordWriter writer = factory.create(header)) {
 			for (Map.Entry<Id<Person>, Plan> e : experiencedPlansService.getExperiencedPlans().entrySet()) {
-				writeActivitiesPerPerson(e.getKey(), e.getValue(), attributes, csvPrinter);
+				writeActivitiesPerPerson(e.getKey(), e.getValue(), attributes, writer);
 			}
-
-			csvPrinter.close();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
-
-		log.info("...done");
 	}
 
-	private static void writeActivitiesPerPerson(Id<Person> personId, Plan plan, List<String> attributes, CSVPrinter csvPrinter) throws IOException {
+	private static void writeActivitiesPerPerson(Id<Person> personId, Plan plan, List<String> attributes, TableRecordWriter writer) throws IOException {
 		int i = 0;
 		for (Activity act : TripStructureUtils.getActivities(plan, TripStructureUtils.StageActivityHandling.ExcludeStageActivities)) {
 
@@ -90,7 +87,7 @@ public class ActivityWriter {
 				line.add(result);
 			}
 
-			csvPrinter.printRecord(line);
+			writer.writeRecord(line);
 		}
 	}
 
@@ -23,9 +23,9 @@ package org.matsim.analysis;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Id;
-import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.groups.LinkStatsConfigGroup;
 import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.utils.io.IOUtils;
 import org.matsim.core.utils.misc.StringUtils;
@@ -33,45 +33,77 @@ import org.matsim.core.utils.misc.StringUtils;
 import jakarta.inject.Inject;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.util.Map;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Calculates the average link volumes and travel times over any number of iterations.
  *
+ * The statistics of all links are stored in flat primitive arrays indexed by the link id index, which are re-used when
+ * the data is reset, so no objects per link need to be created for every averaging period.
+ * <p>
+ * Optionally, the hourly volumes and travel times of the last iterations are kept in a ring buffer. The statistics
+ * are then always the rolling averages over these iterations and never need to be reset, so they can be used by
+ * other consumers in every iteration.
+ *
  * @author mrieser
  */
 public class CalcLinkStats {
 
 	private final static Logger log = LogManager.getLogger(CalcLinkStats.class);
 
-	private static class LinkData {
-		public final double[][] volumes;
-		public final double[][] ttimes;
-
-		public LinkData(final double[][] linksVolumes, final double[][] linksTTimes) {
-			this.volumes = linksVolumes.clone();
-			this.ttimes = linksTTimes.clone();
-		}
-	}
-
 	private double volScaleFactor = 1.0;
 
 	private int count = 0;
-	private final IdMap<Link, LinkData> linkData;
 	private final int nofHours;
 	private final Network network;
 
+	/** number of iterations in the ring buffer, 0 if the statistics are not rolling */
+	private final int rollingIterations;
+	/** [slot][link index][hour], the hourly volumes and travel times of the last iterations */
+	private double[] ringVolumes = new double[0];
+	private double[] ringTTimes = new double[0];
+	private int ringNext = 0;
+	private int ringFilled = 0;
+	/** travel times of a single link, re-used for all links */
+	private final double[] linkTTimes;
+
+	/** links with statistics, by link id index */
+	private Link[] links = new Link[0];
+	/** [link index][stat][hour], with the daily values at hour {@link #nofHours} */
+	private double[] volumes = new double[0];
+	/** [link index][stat][hour] */
+	private double[] ttimes = new double[0];
+
 	private static final int MIN = 0;
 	private static final int MAX = 1;
 	private static final int SUM = 2;
 	private static final int NOF_STATS = 3;
 
+	static final int BINARY_HEADER_V1 = 0x4c532f31;
+
 	@Inject
+	CalcLinkStats(final Network network, final LinkStatsConfigGroup config) {
+		this(network, config.isRollingAverageLinkStats() ? Math.max(1, config.getAverageLinkStatsOverIterations()) : 0);
+	}
+
 	public CalcLinkStats(final Network network) {
+		this(network, 0);
+	}
+
+	/**
+	 * @param rollingIterations number of iterations the rolling averages are calculated over, 0 to average over all
+	 *                          iterations since the last {@link #reset()}
+	 */
+	public CalcLinkStats(final Network network, final int rollingIterations) {
 		this.network = network;
-		this.linkData = new IdMap<>(Link.class);
 		this.nofHours = 24;
+		this.rollingIterations = rollingIterations;
+		this.linkTTimes = new double[this.nofHours];
 		reset();
 	}
 
@@ -86,153 +118,234 @@ public class CalcLinkStats {
 		this.volScaleFactor = vol_scale_factor;
 	}
 
+	private int vol(final int linkIdx, final int stat, final int hour) {
+		return (linkIdx * NOF_STATS + stat) * (this.nofHours + 1) + hour;
+	}
+
+	private int tt(final int linkIdx, final int stat, final int hour) {
+		return (linkIdx * NOF_STATS + stat) * this.nofHours + hour;
+	}
+
+	/**
+	 * @return the index of the link in the data arrays, or -1 if there is no data for this link.
+	 */
+	private int getLinkIndex(final Id<Link> linkId) {
+		int idx = linkId.index();
+		return idx < this.links.length && this.links[idx] != null ? idx : -1;
+	}
+
+	private int ring(final int slot, final int linkIdx) {
+		return (slot * this.links.length + linkIdx) * this.nofHours;
+	}
+
 	public void addData(final VolumesAnalyzer analyzer, final TravelTime ttimes) {
-		this.count++;
 		// TODO verify ttimes has hourly timeBin-Settings
+		if (this.rollingIterations > 0) {
+			addRollingData(analyzer, ttimes);
+			return;
+		}
+
+		this.count++;
 
 		// go through all links
-		for (Id<Link> linkId : this.linkData.keySet()) {
+		for (int idx = 0; idx < this.links.length; idx++) {
 
-			// retrieve link from link ID
-			Link link = this.network.getLinks().get(linkId);
+			Link link = this.links[idx];
+			if (link == null) {
+				continue;
+			}
 
 			// get the volumes for the link ID from the analyzier
-			double[] volumes = analyzer.getVolumesPerHourForLink(linkId);
+			double[] volumes = analyzer.getVolumesPerHourForLink(link.getId());
 
-			// get the destination container for the data from link data (could have gotten this through iterator right away)
-			LinkData data = this.linkData.get(linkId);
+			// get travel times for all hours
+			for (int hour = 0; hour < this.nofHours; hour++) {
+				this.linkTTimes[hour] = ttimes.getLinkTravelTime(link, hour*3600, null, null);
+			}
 
-			// prepare the sum variables (for volumes);
-			long sumVolumes = 0; // daily (0-24) sum
+			addLinkData(idx, volumes, this.linkTTimes, 0);
+		}
+	}
 
-			// go through all hours:
+	/**
+	 * Stores the data of the iteration in the ring buffer, replacing the oldest iteration, and recalculates the
+	 * statistics over all iterations in the ring buffer.
+	 */
+	private void addRollingData(final VolumesAnalyzer analyzer, final TravelTime ttimes) {
+		int slot = this.ringNext;
+		this.ringNext = (this.ringNext + 1) % this.rollingIterations;
+		this.ringFilled = Math.min(this.ringFilled + 1, this.rollingIterations);
+
+		for (int idx = 0; idx < this.links.length; idx++) {
+			Link link = this.links[idx];
+			if (link == null) {
+				continue;
+			}
+			double[] volumes = analyzer.getVolumesPerHourForLink(link.getId());
+			int offset = ring(slot, idx);
 			for (int hour = 0; hour < this.nofHours; hour++) {
+				this.ringVolumes[offset + hour] = volumes[hour];
+				this.ringTTimes[offset + hour] = ttimes.getLinkTravelTime(link, hour*3600, null, null);
+			}
+		}
 
-				// get travel time for hour
-				double ttime = ttimes.getLinkTravelTime(link, hour*3600, null, null);
-
-				// add for daily sum:
-				sumVolumes += volumes[hour];
-
-				// the following has something to do with the fact that we are doing this for multiple iterations.  So there are variations.
-				// this collects min and max.  There is, however, no good control over how many iterations this is collected.
-				if (this.count == 1) {
-					data.volumes[MIN][hour] = volumes[hour];
-					data.volumes[MAX][hour] = volumes[hour];
-					data.ttimes[MIN][hour] = ttime;
-					data.ttimes[MAX][hour] = ttime;
-				} else {
-					if (volumes[hour] < data.volumes[MIN][hour]) data.volumes[MIN][hour] = volumes[hour];
-					if (volumes[hour] > data.volumes[MAX][hour]) data.volumes[MAX][hour] = volumes[hour];
-					if (ttime < data.ttimes[MIN][hour]) data.ttimes[MIN][hour] = ttime;
-					if (ttime > data.ttimes[MAX][hour]) data.ttimes[MAX][hour] = ttime;
+		// starting with the oldest iteration
+		this.count = 0;
+		Arrays.fill(this.volumes, 0);
+		Arrays.fill(this.ttimes, 0);
+		for (int i = this.ringFilled - 1; i >= 0; i--) {
+			int s = (slot - i + this.rollingIterations) % this.rollingIterations;
+			this.count++;
+			for (int idx = 0; idx < this.links.length; idx++) {
+				if (this.links[idx] != null) {
+					addLinkData(idx, this.ringVolumes, this.ringTTimes, ring(s, idx));
 				}
-
-				// this is the regular summing up for each hour
-				data.volumes[SUM][hour] += volumes[hour];
-				data.ttimes[SUM][hour] += volumes[hour] * ttime;
 			}
-			// dataVolumes[.][nofHours] are daily (0-24) values
+		}
+	}
+
+	/**
+	 * Adds the hourly volumes and travel times of a link, starting at the given offset, to the statistics of the
+	 * current {@link #count}.
+	 */
+	private void addLinkData(final int idx, final double[] volumes, final double[] ttimes, final int offset) {
+		double[] vols = this.volumes;
+		double[] tts = this.ttimes;
+
+		// prepare the sum variables (for volumes);
+		long sumVolumes = 0; // daily (0-24) sum
+
+		// go through all hours:
+		for (int hour = 0; hour < this.nofHours; hour++) {
+
+			double volume = volumes[offset + hour];
+			double ttime = ttimes[offset + hour];
+
+			// add for daily sum:
+			sumVolumes += volume;
+
+			int min = vol(idx, MIN, hour);
+			int max = vol(idx, MAX, hour);
+			int ttMin = tt(idx, MIN, hour);
+			int ttMax = tt(idx, MAX, hour);
+
+			// the following has something to do with the fact that we are doing this for multiple iterations.  So there are variations.
+			// this collects min and max.  There is, however, no good control over how many iterations this is collected.
 			if (this.count == 1) {
-				data.volumes[MIN][this.nofHours] = sumVolumes;
-				data.volumes[SUM][this.nofHours] = sumVolumes;
-				data.volumes[MAX][this.nofHours] = sumVolumes;
+				vols[min] = volume;
+				vols[max] = volume;
+				tts[ttMin] = ttime;
+				tts[ttMax] = ttime;
 			} else {
-				if (sumVolumes < data.volumes[MIN][this.nofHours]) data.volumes[MIN][this.nofHours] = sumVolumes;
-				data.volumes[SUM][this.nofHours] += sumVolumes;
-				if (sumVolumes > data.volumes[MAX][this.nofHours]) data.volumes[MAX][this.nofHours] = sumVolumes;
+				if (volume < vols[min]) vols[min] = volume;
+				if (volume > vols[max]) vols[max] = volume;
+				if (ttime < tts[ttMin]) tts[ttMin] = ttime;
+				if (ttime > tts[ttMax]) tts[ttMax] = ttime;
 			}
+
+			// this is the regular summing up for each hour
+			vols[vol(idx, SUM, hour)] += volume;
+			tts[tt(idx, SUM, hour)] += volume * ttime;
+		}
+		// volumes[.][nofHours] are daily (0-24) values
+		int min = vol(idx, MIN, this.nofHours);
+		int sum = vol(idx, SUM, this.nofHours);
+		int max = vol(idx, MAX, this.nofHours);
+		if (this.count == 1) {
+			vols[min] = sumVolumes;
+			vols[sum] = sumVolumes;
+			vols[max] = sumVolumes;
+		} else {
+			if (sumVolumes < vols[min]) vols[min] = sumVolumes;
+			vols[sum] += sumVolumes;
+			if (sumVolumes > vols[max]) vols[max] = sumVolumes;
 		}
 	}
 
 	public void reset() {
-		this.linkData.clear();
 		this.count = 0;
 		log.info( " resetting `count' to zero.  This info is here since we want to check when this" +
 				" is happening during normal simulation runs.  kai, jan'11") ;
 
-		// initialize our data-table
+		// initialize our data-table, the arrays are only re-allocated if the number of links changed
+		int size = Id.getNumberOfIds(Link.class);
+		if (this.links.length != size) {
+			this.links = new Link[size];
+			this.volumes = new double[size * NOF_STATS * (this.nofHours + 1)];
+			this.ttimes = new double[size * NOF_STATS * this.nofHours];
+			this.ringVolumes = new double[this.rollingIterations * size * this.nofHours];
+			this.ringTTimes = new double[this.rollingIterations * size * this.nofHours];
+		} else {
+			Arrays.fill(this.links, null);
+			Arrays.fill(this.volumes, 0);
+			Arrays.fill(this.ttimes, 0);
+		}
+		// the ring buffer only contains data of complete iterations, so it does not need to be cleared
+		this.ringNext = 0;
+		this.ringFilled = 0;
+
 		for (Link link : this.network.getLinks().values()) {
-			LinkData data = new LinkData(new double[NOF_STATS][this.nofHours + 1], new double[NOF_STATS][this.nofHours]);
-			this.linkData.put(link.getId(), data);
+			this.links[link.getId().index()] = link;
 		}
 
 	}
 
 	public void writeFile(final String filename) {
-		try (BufferedWriter out = IOUtils.getBufferedWriter(filename)) {
-
-			// write header
-			out.write("LINK\tORIG_ID\tFROM\tTO\tLENGTH\tFREESPEED\tCAPACITY");
-			for (int i = 0; i < this.nofHours; i++) {
-				out.write("\tHRS" + i + "-" + (i+1) + "min");
-				out.write("\tHRS" + i + "-" + (i+1) + "avg");
-				out.write("\tHRS" + i + "-" + (i+1) + "max");
-			}
-			out.write("\tHRS0-" + this.nofHours + "min");
-			out.write("\tHRS0-" + this.nofHours + "avg");
-			out.write("\tHRS0-" + this.nofHours + "max");
-			for (int i = 0; i < this.nofHours; i++) {
-				out.write("\tTRAVELTIME" + i + "-" + (i+1) + "min");
-				out.write("\tTRAVELTIME" + i + "-" + (i+1) + "avg");
-				out.write("\tTRAVELTIME" + i + "-" + (i+1) + "max");
-			}
-			out.write("\n");
-
-			// write data
-			for (Map.Entry<Id<Link>, LinkData> entry : this.linkData.entrySet()) {
-				Id<Link> linkId = entry.getKey();
-				LinkData data = entry.getValue();
-				Link link = this.network.getLinks().get(linkId);
-
-				out.write(linkId.toString());
-				out.write("\t"); // origId, no longer supported
-				out.write("\t" + link.getFromNode().getId().toString());
-				out.write("\t" + link.getToNode().getId().toString());
-				out.write("\t" + Double.toString(link.getLength()));
-				out.write("\t" + Double.toString(link.getFreespeed()));
-				out.write("\t" + Double.toString(link.getCapacity()));
-
-				// HRS0-1, HRS1-2, ... HRS23-24
-//				int[] sum = {0, 0, 0};
-				for (int i = 0; i < this.nofHours; i++) {
-					out.write("\t" + Double.toString(data.volumes[MIN][i]));
-//					sum[MIN] = sum[MIN] + data.volumes[MIN][i];
-					out.write("\t" + Double.toString((data.volumes[SUM][i]) / this.count));
-//					sum[SUM] = sum[SUM] + data.volumes[SUM][i];
-					out.write("\t" + Double.toString(data.volumes[MAX][i]));
-//					sum[MAX] = sum[MAX] + data.volumes[MAX][i];
+		write(header -> new TabSeparatedWriter(IOUtils.getBufferedWriter(filename), header));
+	}
+
+	/**
+	 * Writes the statistics of all links to the writer created by the given factory. Apart from the ids, all values
+	 * are passed as {@link Double}.
+	 */
+	public void write(final TableRecordWriter.Factory factory) {
+		List<String> header = new ArrayList<>(List.of("LINK", "ORIG_ID", "FROM", "TO", "LENGTH", "FREESPEED", "CAPACITY"));
+		for (int i = 0; i < this.nofHours; i++) {
+			header.add("HRS" + i + "-" + (i+1) + "min");
+			header.add("HRS" + i + "-" + (i+1) + "avg");
+			header.add("HRS" + i + "-" + (i+1) + "max");
+		}
+		header.add("HRS0-" + this.nofHours + "min");
+		header.add("HRS0-" + this.nofHours + "avg");
+		header.add("HRS0-" + this.nofHours + "max");
+		for (int i = 0; i < this.nofHours; i++) {
+			header.add("TRAVELTIME" + i + "-" + (i+1) + "min");
+			header.add("TRAVELTIME" + i + "-" + (i+1) + "avg");
+			header.add("TRAVELTIME" + i + "-" + (i+1) + "max");
+		}
+
+		try (TableRecordWriter out = factory.create(header.toArray(String[]::new))) {
+			List<Object> record = new ArrayList<>(header.size());
+			for (int idx = 0; idx < this.links.length; idx++) {
+				Link link = this.links[idx];
+				if (link == null) {
+					continue;
 				}
 
-				// HRS0-nofHours
-				out.write("\t" + Double.toString(data.volumes[MIN][this.nofHours]));
-				out.write("\t" + Double.toString((data.volumes[SUM][this.nofHours]) / this.count));
-				out.write("\t" + Double.toString(data.volumes[MAX][this.nofHours]));
+				record.clear();
+				record.add(link.getId().toString());
+				record.add(""); // origId, no longer supported
+				record.add(link.getFromNode().getId().toString());
+				record.add(link.getToNode().getId().toString());
+				record.add(link.getLength());
+				record.add(link.getFreespeed());
+				record.add(link.getCapacity());
+
+				// HRS0-1, HRS1-2, ... HRS23-24, HRS0-nofHours
+				for (int i = 0; i <= this.nofHours; i++) {
+					record.add(this.volumes[vol(idx, MIN, i)]);
+					record.add(this.volumes[vol(idx, SUM, i)] / this.count);
+					record.add(this.volumes[vol(idx, MAX, i)]);
+				}
 
 				// TRAVELTIME0-1, TRAVELTIME1-2, ... TRAVELTIME23-24
 				for (int i = 0; i < this.nofHours; i++) {
-					String ttimesMin = Double.toString(data.ttimes[MIN][i]);
-					out.write("\t" + ttimesMin);
-					if (data.volumes[SUM][i] == 0) {
-						// nobody traveled along the link in this hour, so we cannot calculate an average
-						// use the value available or the minimum instead (min and max should be the same, =freespeed)
-						double ttsum = data.ttimes[SUM][i];
-						if (ttsum != 0.0) {
-							out.write("\t" + Double.toString(ttsum));
-						} else {
-							out.write("\t" + ttimesMin);
-						}
-					} else {
-						double ttsum = data.ttimes[SUM][i];
-						if (ttsum == 0) {
-							out.write("\t" + ttimesMin);
-						} else {
-							out.write("\t" + Double.toString(ttsum / data.volumes[SUM][i]));
-						}
-					}
-					out.write("\t" + Double.toString(data.ttimes[MAX][i]));
+					record.add(this.ttimes[tt(idx, MIN, i)]);
+					record.add(getAvgTravelTime(idx, i));
+					record.add(this.ttimes[tt(idx, MAX, i)]);
 				}
-				out.write("\n");
+
+				out.writeRecord(record);
 			}
 
 		} catch (IOException e) {
@@ -240,6 +353,83 @@ public class CalcLinkStats {
 		}
 	}
 
+	private double getAvgTravelTime(final int idx, final int hour) {
+		double ttsum = this.ttimes[tt(idx, SUM, hour)];
+		if (ttsum == 0.0) {
+			// nobody traveled along the link in this hour (min and max should be the same, =freespeed)
+			return this.ttimes[tt(idx, MIN, hour)];
+		}
+		if (this.volumes[vol(idx, SUM, hour)] == 0) {
+			// we cannot calculate an average, so use the value available
+			return ttsum;
+		}
+		return ttsum / this.volumes[vol(idx, SUM, hour)];
+	}
+
+	/**
+	 * Writes the average hourly volumes and travel times of all links in a compact binary format: a header, the number
+	 * of hours and the number of links, followed by the id, the average volumes and the average travel times of each
+	 * link as floats.
+	 */
+	public void writeBinary(final String filename) {
+		int linkCount = 0;
+		for (Link link : this.links) {
+			if (link != null) {
+				linkCount++;
+			}
+		}
+
+		try (DataOutputStream out = new DataOutputStream(IOUtils.getOutputStream(IOUtils.getFileUrl(filename), false))) {
+			out.writeInt(BINARY_HEADER_V1);
+			out.writeInt(this.nofHours);
+			out.writeInt(linkCount);
+			for (int idx = 0; idx < this.links.length; idx++) {
+				Link link = this.links[idx];
+				if (link == null) {
+					continue;
+				}
+				out.writeUTF(link.getId().toString());
+				for (int i = 0; i < this.nofHours; i++) {
+					out.writeFloat(this.count == 0 ? 0 : (float) (this.volumes[vol(idx, SUM, i)] / this.count));
+				}
+				for (int i = 0; i < this.nofHours; i++) {
+					out.writeFloat((float) getAvgTravelTime(idx, i));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The linkstats file format, tab separated without any quoting.
+	 */
+	private static final class TabSeparatedWriter implements TableRecordWriter {
+
+		private final BufferedWriter out;
+
+		TabSeparatedWriter(BufferedWriter out, String[] header) throws IOException {
+			this.out = out;
+			writeRecord(Arrays.asList(header));
+		}
+
+		@Override
+		public void writeRecord(List<?> record) throws IOException {
+			for (int i = 0; i < record.size(); i++) {
+				if (i > 0) {
+					this.out.write('\t');
+				}
+				this.out.write(String.valueOf(record.get(i)));
+			}
+			this.out.write('\n');
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.out.close();
+		}
+	}
+
 	public void readFile(final String filename) {
 		// start with a clean, empty data structure
 		reset();
@@ -261,64 +451,64 @@ public class CalcLinkStats {
 				String[] parts = StringUtils.explode(line, '\t');
 				if (parts.length == 154) {
 					Id<Link> linkId = Id.create(parts[0], Link.class);
-					LinkData data = this.linkData.get(linkId);
-					if (data == null) {
+					int idx = getLinkIndex(linkId);
+					if (idx < 0) {
 						System.err.println("CalcLinkStats.readFile(); unknown link: " + linkId.toString());
 					} else {
 						int baseTTimes;
 						for (int i = 0; i < this.nofHours; i++) {
-							data.volumes[MIN][i] = Double.parseDouble(parts[7 + i*3]);
-							data.volumes[MIN][i] *= this.volScaleFactor;
-							data.volumes[SUM][i] = Double.parseDouble(parts[8 + i*3]);
-							data.volumes[SUM][i] *= this.volScaleFactor;
-							data.volumes[MAX][i] = Double.parseDouble(parts[9 + i*3]);
-							data.volumes[MAX][i] *= this.volScaleFactor;
+							this.volumes[vol(idx, MIN, i)] = Double.parseDouble(parts[7 + i*3]);
+							this.volumes[vol(idx, MIN, i)] *= this.volScaleFactor;
+							this.volumes[vol(idx, SUM, i)] = Double.parseDouble(parts[8 + i*3]);
+							this.volumes[vol(idx, SUM, i)] *= this.volScaleFactor;
+							this.volumes[vol(idx, MAX, i)] = Double.parseDouble(parts[9 + i*3]);
+							this.volumes[vol(idx, MAX, i)] *= this.volScaleFactor;
 							baseTTimes = 7 + (this.nofHours+1)*3;
-							data.ttimes[MIN][i] = Double.parseDouble(parts[baseTTimes + i*3]);
-							if (data.volumes[SUM][i] == 0) {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
+							this.ttimes[tt(idx, MIN, i)] = Double.parseDouble(parts[baseTTimes + i*3]);
+							if (this.volumes[vol(idx, SUM, i)] == 0) {
+								this.ttimes[tt(idx, SUM, i)] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
 							} else {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * data.volumes[SUM][i];
+								this.ttimes[tt(idx, SUM, i)] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * this.volumes[vol(idx, SUM, i)];
 							}
-							data.ttimes[MAX][i] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
+							this.ttimes[tt(idx, MAX, i)] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
 						}
-						data.volumes[MIN][this.nofHours] = Double.parseDouble(parts[7 + this.nofHours*3]);
-						data.volumes[MIN][this.nofHours] *= this.volScaleFactor;
-						data.volumes[SUM][this.nofHours] = Double.parseDouble(parts[8 + this.nofHours*3]);
-						data.volumes[SUM][this.nofHours] *= this.volScaleFactor;
-						data.volumes[MAX][this.nofHours] = Double.parseDouble(parts[9 + this.nofHours*3]);
-						data.volumes[MAX][this.nofHours] *= this.volScaleFactor;
+						this.volumes[vol(idx, MIN, this.nofHours)] = Double.parseDouble(parts[7 + this.nofHours*3]);
+						this.volumes[vol(idx, MIN, this.nofHours)] *= this.volScaleFactor;
+						this.volumes[vol(idx, SUM, this.nofHours)] = Double.parseDouble(parts[8 + this.nofHours*3]);
+						this.volumes[vol(idx, SUM, this.nofHours)] *= this.volScaleFactor;
+						this.volumes[vol(idx, MAX, this.nofHours)] = Double.parseDouble(parts[9 + this.nofHours*3]);
+						this.volumes[vol(idx, MAX, this.nofHours)] *= this.volScaleFactor;
 					}
 				}
 				else if (parts.length == 153) {
 					String linkId = parts[0];
-					LinkData data = this.linkData.get(Id.create(linkId, Link.class));
-					if (data == null) {
+					int idx = getLinkIndex(Id.create(linkId, Link.class));
+					if (idx < 0) {
 						System.err.println("CalcLinkStats.readFile(); unknown link: " + linkId);
 					} else {
 						int baseTTimes;
 						for (int i = 0; i < this.nofHours; i++) {
-							data.volumes[MIN][i] = Double.parseDouble(parts[6 + i*3]);
-							data.volumes[MIN][i] *= this.volScaleFactor;
-							data.volumes[SUM][i] = Integer.parseInt(parts[7 + i*3]);
-							data.volumes[SUM][i] *= this.volScaleFactor;
-							data.volumes[MAX][i] = Double.parseDouble(parts[8 + i*3]);
-							data.volumes[MAX][i] *= this.volScaleFactor;
+							this.volumes[vol(idx, MIN, i)] = Double.parseDouble(parts[6 + i*3]);
+							this.volumes[vol(idx, MIN, i)] *= this.volScaleFactor;
+							this.volumes[vol(idx, SUM, i)] = Integer.parseInt(parts[7 + i*3]);
+							this.volumes[vol(idx, SUM, i)] *= this.volScaleFactor;
+							this.volumes[vol(idx, MAX, i)] = Double.parseDouble(parts[8 + i*3]);
+							this.volumes[vol(idx, MAX, i)] *= this.volScaleFactor;
 							baseTTimes = 6 + (this.nofHours+1)*3;
-							data.ttimes[MIN][i] = Double.parseDouble(parts[baseTTimes + i*3]);
-							if (data.volumes[SUM][i] == 0) {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
+							this.ttimes[tt(idx, MIN, i)] = Double.parseDouble(parts[baseTTimes + i*3]);
+							if (this.volumes[vol(idx, SUM, i)] == 0) {
+								this.ttimes[tt(idx, SUM, i)] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
 							} else {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * data.volumes[SUM][i];
+								this.ttimes[tt(idx, SUM, i)] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * this.volumes[vol(idx, SUM, i)];
 							}
-							data.ttimes[MAX][i] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
+							this.ttimes[tt(idx, MAX, i)] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
 						}
-						data.volumes[MIN][this.nofHours] = Double.parseDouble(parts[6 + this.nofHours*3]);
-						data.volumes[MIN][this.nofHours] *= this.volScaleFactor;
-						data.volumes[SUM][this.nofHours] = Double.parseDouble(parts[7 + this.nofHours*3]);
-						data.volumes[SUM][this.nofHours] *= this.volScaleFactor;
-						data.volumes[MAX][this.nofHours] = Double.parseDouble(parts[8 + this.nofHours*3]);
-						data.volumes[MAX][this.nofHours] *= this.volScaleFactor;
+						this.volumes[vol(idx, MIN, this.nofHours)] = Double.parseDouble(parts[6 + this.nofHours*3]);
+						this.volumes[vol(idx, MIN, this.nofHours)] *= this.volScaleFactor;
+						this.volumes[vol(idx, SUM, this.nofHours)] = Double.parseDouble(parts[7 + this.nofHours*3]);
+						this.volumes[vol(idx, SUM, this.nofHours)] *= this.volScaleFactor;
+						this.volumes[vol(idx, MAX, this.nofHours)] = Double.parseDouble(parts[8 + this.nofHours*3]);
+						this.volumes[vol(idx, MAX, this.nofHours)] *= this.volScaleFactor;
 					}
 				}
 				else {
@@ -338,8 +528,8 @@ public class CalcLinkStats {
 	 * @return if no data is available, an array with length 0 is returned.
 	 */
 	public double[] getAvgLinkVolumes(final Id<Link> linkId) {
-		LinkData data = this.linkData.get(linkId);
-		if (data == null) {
+		int idx = getLinkIndex(linkId);
+		if (idx < 0) {
 			return new double[0];
 		}
 		if (this.count == 0) {
@@ -347,7 +537,7 @@ public class CalcLinkStats {
 		}
 		double[] volumes = new double[this.nofHours];
 		for (int i = 0; i < this.nofHours; i++) {
-			volumes[i] = (data.volumes[SUM][i]) / (this.count);
+			volumes[i] = (this.volumes[vol(idx, SUM, i)]) / (this.count);
 		}
 		return volumes;
 	}
@@ -361,8 +551,8 @@ public class CalcLinkStats {
 	 */
 	@Deprecated
 	protected double[] getAvgTravelTimes(final Id<Link> linkId) {
-		LinkData data = this.linkData.get(linkId);
-		if (data == null) {
+		int idx = getLinkIndex(linkId);
+		if (idx < 0) {
 			return new double[0];
 		}
 		if (this.count == 0) {
@@ -375,9 +565,9 @@ public class CalcLinkStats {
 		double[] avgTTimes = new double[this.nofHours];
 
 		for (int i = 0; i < this.nofHours; i++) {
-			volumes[i] = (data.volumes[SUM][i]) / (this.count);
-			ttimesMin[i] = (data.ttimes[MIN][i]) / (this.count);
-			ttimesSum[i] = (data.ttimes[SUM][i]) / (this.count);
+			volumes[i] = (this.volumes[vol(idx, SUM, i)]) / (this.count);
+			ttimesMin[i] = (this.ttimes[tt(idx, MIN, i)]) / (this.count);
+			ttimesSum[i] = (this.ttimes[tt(idx, SUM, i)]) / (this.count);
 
 			if (volumes[i] == 0.) {
 				avgTTimes[i] = ttimesMin[i];
@@ -46,7 +46,7 @@ import java.util.*;
 /**
  * @author mrieser
  */
-final class LinkStatsControlerListener implements IterationEndsListener, IterationStartsListener, ShutdownListener {
+public final class LinkStatsControlerListener implements IterationEndsListener, IterationStartsListener, ShutdownListener {
 
 	@Inject
 	private LinkStatsConfigGroup linkStatsConfigGroup;
@@ -66,6 +66,7 @@ final class LinkStatsControlerListener implements IterationEndsListener, Iterati
 
 	private int iterationsUsed = 0;
 	private boolean doReset = false;
+	private int lastWrittenIteration = -1;
 
 	@Override
 	public void notifyIterationEnds(IterationEndsEvent event) {
@@ -78,7 +79,12 @@ final class LinkStatsControlerListener implements IterationEndsListener, Iterati
 
 		if (createLinkStatsInIteration(iteration)) {
 			linkStats.writeFile(this.controlerIO.getIterationFilename(iteration, Controler.DefaultFiles.linkstats));
-			this.doReset = true;
+			if (this.linkStatsConfigGroup.isWriteLinkStatsBinary()) {
+				linkStats.writeBinary(this.controlerIO.getIterationFilename(iteration, "linkstats.bin"));
+			}
+			// rolling link stats drop the old iterations themselves
+			this.doReset = !this.linkStatsConfigGroup.isRollingAverageLinkStats();
+			this.lastWrittenIteration = iteration;
 		}
 	}
 
@@ -91,10 +97,21 @@ final class LinkStatsControlerListener implements IterationEndsListener, Iterati
 		}
 	}
 
+	/**
+	 * Whether the link stats were written at the end of the given iteration, i.e. {@link CalcLinkStats} contains the
+	 * complete averages for it until the start of the next iteration.
+	 */
+	public boolean isLinkStatsWrittenInIteration(final int iteration) {
+		return this.lastWrittenIteration == iteration;
+	}
+
 	/*package*/ boolean useVolumesOfIteration(final int iteration, final int firstIteration) {
 		if (this.linkStatsConfigGroup.getWriteLinkStatsInterval() < 1) {
 			return false;
 		}
+		if (this.linkStatsConfigGroup.isRollingAverageLinkStats()) {
+			return true;
+		}
 		int iterationMod = iteration % this.linkStatsConfigGroup.getWriteLinkStatsInterval();
 		int effectiveIteration = iteration - firstIteration;
 		int averaging = Math.min(this.linkStatsConfigGroup.getAverageLinkStatsOverIterations(), this.linkStatsConfigGroup.getWriteLinkStatsInterval());
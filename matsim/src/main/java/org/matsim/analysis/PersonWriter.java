@@ -1,8 +1,6 @@
 package org.matsim.analysis;
 
 import jakarta.inject.Inject;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Scenario;
@@ -11,9 +9,7 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.config.Config;
 import org.matsim.core.controler.Controler;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
-import org.matsim.core.utils.io.IOUtils;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -35,26 +31,29 @@ public class PersonWriter {
 	void writeCsv() {
 		log.info("Writing all Persons to " + Controler.DefaultFiles.personscsv);
 
+		write(TableRecordWriter.csv(outputDirectoryHierarchy.getOutputFilename(Controler.DefaultFiles.personscsv),
+			config.global().getDefaultDelimiter().charAt(0)));
+
+		log.info("...done");
+	}
+
+	/**
+	 * Writes all persons to the writer created by the given factory.
+	 */
+	public void write(TableRecordWriter.Factory factory) {
 		List<String> attributes = prepareAttributes();
 		String[] header = prepareHeader(attributes);
 
-		try {
-			BufferedWriter bufferedWriter = IOUtils.getBufferedWriter(outputDirectoryHierarchy.getOutputFilename(Controler.DefaultFiles.personscsv));
-			CSVPrinter csvPrinter = new CSVPrinter(bufferedWriter, CSVFormat.Builder.create()
-																					.setDelimiter(config.global().getDefaultDelimiter().charAt(0))
-																					.setHeader(header).build());
+		try (TableRecordWriter writer = factory.create(header)) {
 			for (Person p : scenario.getPopulation().getPersons().values()) {
-				writePerson(p, attributes, csvPrinter);
+				writePerson(p, attributes, writer);
 			}
-
-			csvPrinter.close();
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
-		log.info("...done");
 	}
 
-	private void writePerson(Person p, List<String> attributes, CSVPrinter csvPrinter) throws IOException {
+	private void writePerson(Person p, List<String> attributes, TableRecordWriter writer) throws IOException {
 		if (p.getSelectedPlan() == null) {
 			log.error("Found person without a selected plan: " + p.getId().toString() + " will not be added to output_persons.csv");
 			return;
@@ -81,7 +80,7 @@ public class PersonWriter {
 			String result = value != null ? String.valueOf(value) : "";
 			line.add(result);
 		}
-		csvPrinter.printRecord(line);
+		writer.writeRecord(line);
 	}
 
 	private String[] prepareHeader(List<String> attributes) {
@@ -0,0 +1,76 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.analysis;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.matsim.core.utils.io.IOUtils;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Receives the records of a tabular output one by one. The analysis writers produce their records through this
+ * interface, so the same records can be streamed to other formats than CSV without writing and parsing CSV first.
+ *
+ * @see TripsAndLegsWriter
+ * @see ActivityWriter
+ * @see PersonWriter
+ * @see CalcLinkStats
+ */
+public interface TableRecordWriter extends Closeable {
+
+	/**
+	 * Writes one record, with one value per column of the header the writer was created with.
+	 */
+	void writeRecord(List<?> record) throws IOException;
+
+	/**
+	 * Creates the writer for a table once its columns are known.
+	 */
+	@FunctionalInterface
+	interface Factory {
+		TableRecordWriter create(String[] header) throws IOException;
+	}
+
+	/**
+	 * Factory for CSV files with a header line.
+	 */
+	static Factory csv(String filename, char delimiter) {
+		return header -> {
+			CSVPrinter printer = new CSVPrinter(IOUtils.getBufferedWriter(filename),
+				CSVFormat.Builder.create().setDelimiter(delimiter).setHeader(header).build());
+
+			return new TableRecordWriter() {
+				@Override
+				public void writeRecord(List<?> record) throws IOException {
+					printer.printRecord(record);
+				}
+
+				@Override
+				public void close() throws IOException {
+					printer.close();
+				}
+			};
+		};
+	}
+}
@@ -22,8 +22,6 @@
 package org.matsim.analysis;
 
 import jakarta.inject.Inject;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVPrinter;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.logging.log4j.LogManager;
@@ -95,25 +93,34 @@ public class TripsAndLegsWriter {
 	}
 
 	public void write(IdMap<Person, Plan> experiencedPlans, String tripsFilename, String legsFilename) {
-		try (CSVPrinter tripsCSVprinter = new CSVPrinter(IOUtils.getBufferedWriter(tripsFilename),
-			CSVFormat.Builder.create().setDelimiter(getDefaultDelimiter()).setHeader(TRIPSHEADER).build());
-			 CSVPrinter legsCSVprinter = new CSVPrinter(IOUtils.getBufferedWriter(legsFilename),
-				 CSVFormat.Builder.create().setDelimiter(getDefaultDelimiter()).setHeader(LEGSHEADER).build())
+		write(experiencedPlans, TableRecordWriter.csv(tripsFilename, getDefaultDelimiter()), TableRecordWriter.csv(legsFilename, getDefaultDelimiter()));
+	}
+
+	/**
+	 * Writes trips and legs to the writers created by the given factories, e.g. to use another format than CSV.
+	 */
+	public void write(IdMap<Person, Plan> experiencedPlans, TableRecordWriter.Factory tripsWriter, TableRecordWriter.Factory legsWriter) {
+		try (TableRecordWriter trips = tripsWriter.create(TRIPSHEADER);
+			 TableRecordWriter legs = legsWriter.create(LEGSHEADER)
 		) {
 			for (Map.Entry<Id<Person>, Plan> entry : experiencedPlans.entrySet()) {
-				Tuple<Iterable<?>, Iterable<?>> tripsAndLegRecords = getPlanCSVRecords(entry.getValue(), entry.getKey());
-				tripsCSVprinter.printRecords(tripsAndLegRecords.getFirst());
-				legsCSVprinter.printRecords(tripsAndLegRecords.getSecond());
+				Tuple<List<List<String>>, List<List<String>>> tripsAndLegRecords = getPlanCSVRecords(entry.getValue(), entry.getKey());
+				for (List<String> tripRecord : tripsAndLegRecords.getFirst()) {
+					trips.writeRecord(tripRecord);
+				}
+				for (List<String> legRecord : tripsAndLegRecords.getSecond()) {
+					legs.writeRecord(legRecord);
+				}
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
-	private Tuple<Iterable<?>, Iterable<?>> getPlanCSVRecords(Plan experiencedPlan, Id<Person> personId) {
+	private Tuple<List<List<String>>, List<List<String>>> getPlanCSVRecords(Plan experiencedPlan, Id<Person> personId) {
 		List<List<String>> tripRecords = new ArrayList<>();
 		List<List<String>> legRecords = new ArrayList<>();
-		Tuple<Iterable<?>, Iterable<?>> record = new Tuple<>(tripRecords, legRecords);
+		Tuple<List<List<String>>, List<List<String>>> record = new Tuple<>(tripRecords, legRecords);
 		List<TripStructureUtils.Trip> trips = TripStructureUtils.getTrips(experiencedPlan);
 
 		for (int i = 0; i < trips.size(); i++) {
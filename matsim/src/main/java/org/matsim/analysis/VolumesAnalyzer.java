@@ -33,9 +33,10 @@ import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.vehicles.Vehicle;
 
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import jakarta.inject.Inject;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -55,7 +56,8 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	// for multi-modal support
 	private final boolean observeModes;
 	private final IdMap<Vehicle, String> enRouteModes;
-	private final IdMap<Link, Map<String, int[]>> linksPerMode;
+	private final Object2IntMap<String> modeIndex;
+	private final IdMap<Link, int[][]> linksPerMode; // per link and mode index
 
 	@Inject
 	VolumesAnalyzer(Network network, EventsManager eventsManager) {
@@ -76,9 +78,12 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 		this.observeModes = observeModes;
 		if (this.observeModes) {
 			this.enRouteModes = new IdMap<>(Vehicle.class);
+			this.modeIndex = new Object2IntOpenHashMap<>();
+			this.modeIndex.defaultReturnValue(-1);
 			this.linksPerMode = new IdMap<>(Link.class);
 		} else {
 			this.enRouteModes = null;
+			this.modeIndex = null;
 			this.linksPerMode = null;
 		}
 	}
@@ -101,16 +106,21 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 		volumes[timeslot]++;
 
 		if (this.observeModes) {
-			Map<String, int[]> modeVolumes = this.linksPerMode.get(event.getLinkId());
-			if (modeVolumes == null) {
-				modeVolumes = new HashMap<>();
+			String mode = this.enRouteModes.get(event.getVehicleId());
+			int m = this.modeIndex.getInt(mode);
+			if (m < 0) {
+				m = this.modeIndex.size();
+				this.modeIndex.put(mode, m);
+			}
+			int[][] modeVolumes = this.linksPerMode.get(event.getLinkId());
+			if (modeVolumes == null || modeVolumes.length <= m) {
+				modeVolumes = modeVolumes == null ? new int[m + 1][] : Arrays.copyOf(modeVolumes, m + 1);
 				this.linksPerMode.put(event.getLinkId(), modeVolumes);
 			}
-			String mode = this.enRouteModes.get(event.getVehicleId());
-			volumes = modeVolumes.get(mode);
+			volumes = modeVolumes[m];
 			if (volumes == null) {
 				volumes = new int[this.maxSlotIndex + 1]; // initialized to 0 by default, according to JVM specs
-				modeVolumes.put(mode, volumes);
+				modeVolumes[m] = volumes;
 			}
 			volumes[timeslot]++;
 		}
@@ -140,8 +150,9 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	 */
 	public int[] getVolumesForLink(final Id<Link> linkId, String mode) {
 		if (observeModes) {
-			Map<String, int[]> modeVolumes = this.linksPerMode.get(linkId);
-			if (modeVolumes != null) return modeVolumes.get(mode);
+			int m = this.modeIndex.getInt(mode);
+			int[][] modeVolumes = this.linksPerMode.get(linkId);
+			if (m >= 0 && modeVolumes != null && m < modeVolumes.length) return modeVolumes[m];
 		}
 		return null;
 	}
@@ -224,12 +235,12 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	public Set<String> getModes() {
 		Set<String> modes = new TreeSet<>();
 
-		for (Map<String, int[]> map : this.linksPerMode.values()) {
-			try {
-				modes.addAll(map.keySet());
-			} catch (NullPointerException ex) {
-				// Fails on initialized entries, which can happen during tests
-				// will just be ignored here
+		if (observeModes) {
+			for (String mode : this.modeIndex.keySet()) {
+				// vehicles without a known mode can not be listed
+				if (mode != null) {
+					modes.add(mode);
+				}
 			}
 		}
 
@@ -248,6 +259,7 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 		this.links.clear();
 		if (observeModes) {
 			this.linksPerMode.clear();
+			this.modeIndex.clear();
 			this.enRouteModes.clear();
 		}
 	}
@@ -12,6 +12,7 @@ import org.matsim.application.options.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
  * Automatically runs commands by using the {@link CommandSpec} and various Options classes.
@@ -31,6 +32,7 @@ public final class CommandRunner {
 	private String defaultCrs = null;
 	private Double defaultSampleSize = null;
 	private String configPath = null;
+	private int numberOfThreads = 1;
 
 
 	/**
@@ -88,19 +90,82 @@ public final class CommandRunner {
 				start.add(clazz);
 		}
 
+		if (numberOfThreads > 1) {
+			runConcurrently(graph, input);
+			return;
+		}
+
 		BreadthFirstIterator<Class<? extends MATSimAppCommand>, DefaultEdge> it = new BreadthFirstIterator<>(graph, start);
 		while (it.hasNext()) {
 			Class<? extends MATSimAppCommand> clazz = it.next();
-			try {
-				// Collect garbage between commands, because they might use quite some memory
-				System.gc();
-				runCommand(clazz, input);
-
-			} catch (ReflectiveOperationException ex) {
-				log.error("Command {} could not be crated.", clazz, ex);
-			} catch (RuntimeException e) {
-				log.error("Command {} threw an error.", clazz, e);
+			// Collect garbage between commands, because they might use quite some memory
+			System.gc();
+			runAndLog(clazz, input);
+		}
+	}
+
+	/**
+	 * Run all commands of the graph, using up to {@link #numberOfThreads} threads. A command is started as soon as
+	 * all commands it depends on are finished, so independent commands run in parallel.
+	 */
+	private void runConcurrently(Graph<Class<? extends MATSimAppCommand>, DefaultEdge> graph, Path input) {
+
+		Map<Class<? extends MATSimAppCommand>, Integer> remainingDependencies = new HashMap<>();
+		for (Class<? extends MATSimAppCommand> clazz : graph.vertexSet()) {
+			remainingDependencies.put(clazz, graph.inDegreeOf(clazz));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		CompletionService<Class<? extends MATSimAppCommand>> completion = new ExecutorCompletionService<>(executor);
+
+		try {
+			int running = 0;
+			for (Map.Entry<Class<? extends MATSimAppCommand>, Integer> e : remainingDependencies.entrySet()) {
+				if (e.getValue() == 0) {
+					submit(completion, e.getKey(), input);
+					running++;
+				}
 			}
+
+			while (running > 0) {
+				// Errors are logged by the command itself, dependent commands are still executed like in the sequential case
+				Class<? extends MATSimAppCommand> finished = completion.take().get();
+				running--;
+
+				for (DefaultEdge edge : graph.outgoingEdgesOf(finished)) {
+					Class<? extends MATSimAppCommand> next = graph.getEdgeTarget(edge);
+					if (remainingDependencies.merge(next, -1, Integer::sum) == 0) {
+						submit(completion, next, input);
+						running++;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			throw new RuntimeException(e);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void submit(CompletionService<Class<? extends MATSimAppCommand>> completion, Class<? extends MATSimAppCommand> clazz, Path input) {
+		completion.submit(() -> runAndLog(clazz, input), clazz);
+	}
+
+	/**
+	 * Run a command and log errors and the elapsed time, without passing on any exceptions.
+	 */
+	private void runAndLog(Class<? extends MATSimAppCommand> clazz, Path input) {
+		long t = System.currentTimeMillis();
+		try {
+			runCommand(clazz, input);
+			log.info("Command {} finished after {} s", clazz, (System.currentTimeMillis() - t) / 1000.0);
+		} catch (ReflectiveOperationException ex) {
+			log.error("Command {} could not be crated.", clazz, ex);
+		} catch (RuntimeException e) {
+			log.error("Command {} threw an error after {} s.", clazz, (System.currentTimeMillis() - t) / 1000.0, e);
 		}
 	}
 
@@ -363,6 +428,15 @@ public final class CommandRunner {
 		this.configPath = configPath;
 	}
 
+	/**
+	 * Set the number of commands that may run at the same time. Commands are only started after all commands they
+	 * depend on are finished. Default is 1, i.e. all commands run one after another.
+	 * Note that each command reads its own input files, so the required memory grows with the number of threads.
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	/**
 	 * Set the default sample size that is passed as input to commands.
 	 */
@@ -17,7 +17,11 @@ import org.geotools.data.shapefile.ShapefileDataStoreFactory;
 import org.geotools.geometry.jts.JTS;
 import org.geotools.geopkg.GeoPkgDataStoreFactory;
 import org.geotools.referencing.CRS;
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.algorithm.locate.PointOnGeometryLocator;
 import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.locationtech.jts.index.strtree.AbstractNode;
 import org.locationtech.jts.index.strtree.Boundable;
 import org.locationtech.jts.index.strtree.ItemBoundable;
@@ -25,7 +29,6 @@ import org.locationtech.jts.index.strtree.STRtree;
 import org.locationtech.jts.util.Assert;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.core.utils.geometry.CoordinateTransformation;
-import org.matsim.core.utils.geometry.geotools.MGC;
 import org.matsim.core.utils.geometry.transformations.IdentityTransformation;
 import org.matsim.core.utils.geometry.transformations.TransformationFactory;
 import org.matsim.core.utils.gis.GeoFileReader;
@@ -415,7 +418,7 @@ public final class ShpOptions {
 
 				Geometry geom = (Geometry) ft.getDefaultGeometry();
 				Envelope env = geom.getEnvelopeInternal();
-				index.insert(env, ft);
+				index.insert(env, new PreparedFeature(ft, geom));
 			}
 
 			index.build();
@@ -450,23 +453,55 @@ public final class ShpOptions {
 		 * Query the index and return the whole feature.
 		 */
 		@Nullable
-		@SuppressWarnings("unchecked")
 		public SimpleFeature queryFeature(Coord coord) {
 			// Because we can not easily transform the feature geometry with MATSim we have to do it the other way around...
-			Coordinate p = MGC.coord2Coordinate(ct.transform(coord));
+			Coord c = ct.transform(coord);
+			return queryFeatureInShpCrs(c.getX(), c.getY());
+		}
 
-			List<SimpleFeature> result = index.query(new Envelope(p));
-			for (SimpleFeature ft : result) {
-				Geometry geom = (Geometry) ft.getDefaultGeometry();
+		/**
+		 * Query the index with a coordinate given in the query crs and return specified attribute.
+		 * This avoids creating intermediate objects when the query crs is the same as the one of the shape file.
+		 *
+		 * @return null when no features was found that contains the point
+		 */
+		@Nullable
+		@SuppressWarnings("unchecked")
+		public <T> T query(double x, double y) {
+			SimpleFeature ft = queryFeature(x, y);
+			if (ft != null)
+				return (T) ft.getAttribute(attr);
 
-				// Catch Exception for invalid, too complex geometries
-				try {
-					if (geom.contains(MGC.coordinate2Point(p)))
-						return ft;
-				} catch (TopologyException e) {
-					if (geom.convexHull().contains(MGC.coordinate2Point(p)))
-						return ft;
-				}
+			return null;
+		}
+
+		/**
+		 * Query the index with a coordinate given in the query crs and return the whole feature.
+		 */
+		@Nullable
+		public SimpleFeature queryFeature(double x, double y) {
+			if (ct instanceof IdentityTransformation)
+				return queryFeatureInShpCrs(x, y);
+
+			return queryFeature(new Coord(x, y));
+		}
+
+		/**
+		 * Query the attribute for all given coordinates, using all available processors.
+		 *
+		 * @return list with the results in the same order as the coordinates, containing null for coordinates without feature
+		 */
+		public <T> List<T> queryAll(List<? extends Coord> coords) {
+			return coords.parallelStream().<T>map(this::query).toList();
+		}
+
+		@Nullable
+		@SuppressWarnings("unchecked")
+		private SimpleFeature queryFeatureInShpCrs(double x, double y) {
+			List<PreparedFeature> result = index.query(new Envelope(x, x, y, y));
+			for (PreparedFeature ft : result) {
+				if (ft.contains(x, y))
+					return ft.feature;
 			}
 
 			return null;
@@ -496,7 +531,7 @@ public final class ShpOptions {
 				if (childBoundable instanceof AbstractNode) {
 					itemsTree(list, (AbstractNode) childBoundable);
 				} else if (childBoundable instanceof ItemBoundable) {
-					list.add((SimpleFeature) ((ItemBoundable) childBoundable).getItem());
+					list.add(((PreparedFeature) ((ItemBoundable) childBoundable).getItem()).feature);
 				} else {
 					Assert.shouldNeverReachHere();
 				}
@@ -519,4 +554,106 @@ public final class ShpOptions {
 
 	}
 
+
+	/**
+	 * Feature together with structures for fast point in polygon tests, which can be used by multiple threads.
+	 * For large polygons, a grid over the envelope remembers which cells are completely inside or outside, so that only
+	 * points in cells crossing the boundary need an exact test. The cells are classified lazily when first queried.
+	 */
+	private static final class PreparedFeature {
+
+		private static final byte UNKNOWN = 0;
+		private static final byte INSIDE = 1;
+		private static final byte OUTSIDE = 2;
+		private static final byte BOUNDARY = 3;
+
+		/**
+		 * Minimum number of points of a geometry to use the grid.
+		 */
+		private static final int GRID_MIN_POINTS = 256;
+		private static final int GRID_MAX_CELLS = 64;
+
+		private final SimpleFeature feature;
+		private final Geometry geom;
+		private final PreparedGeometry prepared;
+		@Nullable
+		private final PointOnGeometryLocator locator;
+
+		private final double minX;
+		private final double minY;
+		private final double cellWidth;
+		private final double cellHeight;
+		private final int cellsX;
+		private final int cellsY;
+		@Nullable
+		private final byte[] cells;
+
+		PreparedFeature(SimpleFeature feature, Geometry geom) {
+			this.feature = feature;
+			this.geom = geom;
+			this.prepared = PreparedGeometryFactory.prepare(geom);
+			this.locator = geom instanceof Polygonal ? new IndexedPointInAreaLocator(geom) : null;
+
+			Envelope env = geom.getEnvelopeInternal();
+			this.minX = env.getMinX();
+			this.minY = env.getMinY();
+			if (this.locator != null && geom.getNumPoints() >= GRID_MIN_POINTS && env.getWidth() > 0 && env.getHeight() > 0) {
+				int n = Math.min(GRID_MAX_CELLS, Math.max(2, (int) Math.sqrt(geom.getNumPoints()) / 4));
+				this.cellsX = n;
+				this.cellsY = n;
+				this.cellWidth = env.getWidth() / n;
+				this.cellHeight = env.getHeight() / n;
+				this.cells = new byte[n * n];
+			} else {
+				this.cellsX = this.cellsY = 0;
+				this.cellWidth = this.cellHeight = 0;
+				this.cells = null;
+			}
+		}
+
+		/**
+		 * Same as {@link Geometry#contains(Geometry)} for a point with the given coordinates.
+		 */
+		boolean contains(double x, double y) {
+			// Catch Exception for invalid, too complex geometries
+			try {
+				if (cells != null) {
+					int cx = Math.max(0, Math.min(cellsX - 1, (int) ((x - minX) / cellWidth)));
+					int cy = Math.max(0, Math.min(cellsY - 1, (int) ((y - minY) / cellHeight)));
+					byte state = getCell(cx, cy);
+					if (state == INSIDE)
+						return true;
+					if (state == OUTSIDE)
+						return false;
+				}
+
+				if (locator != null)
+					return locator.locate(new Coordinate(x, y)) == Location.INTERIOR;
+
+				return prepared.contains(geom.getFactory().createPoint(new Coordinate(x, y)));
+			} catch (TopologyException e) {
+				return geom.convexHull().contains(geom.getFactory().createPoint(new Coordinate(x, y)));
+			}
+		}
+
+		private byte getCell(int cx, int cy) {
+			int idx = cy * cellsX + cx;
+			byte state = cells[idx];
+			if (state == UNKNOWN) {
+				// Several threads may classify the same cell, but they all come to the same result
+				double x0 = minX + cx * cellWidth;
+				double y0 = minY + cy * cellHeight;
+				Geometry cell = geom.getFactory().toGeometry(new Envelope(x0, x0 + cellWidth, y0, y0 + cellHeight));
+				if (prepared.containsProperly(cell))
+					state = INSIDE;
+				else if (!prepared.intersects(cell))
+					state = OUTSIDE;
+				else
+					state = BOUNDARY;
+
+				cells[idx] = state;
+			}
+			return state;
+		}
+	}
 }
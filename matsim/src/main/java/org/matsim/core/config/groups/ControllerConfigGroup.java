@@ -64,6 +64,13 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 	private static final String FIRST_ITERATION = "firstIteration";
 	private static final String LAST_ITERATION = "lastIteration";
 	private static final String ROUTINGALGORITHM_TYPE = "routingAlgorithmType";
+	private static final String LANDMARKS_TIME_SLICE_SIZE = "landmarksTimeSliceSize";
+	private static final String SHARED_ORIGIN_TREES_TIME_BIN_SIZE = "sharedOriginTreesTimeBinSize";
+	private static final String SHARED_ORIGIN_TREES_COUNT = "sharedOriginTreesCount";
+	private static final String ROUTE_CACHE_SIZE = "routeCacheSize";
+	private static final String ROUTE_CACHE_TIME_BIN_SIZE = "routeCacheTimeBinSize";
+	private static final String ROUTE_CACHE_REGION_SIZE = "routeCacheRegionSize";
+	private static final String ROUTE_CACHE_CHANGE_THRESHOLD = "routeCacheChangeThreshold";
 	private static final String RUNID = "runId";
 	private static final String LINKTOLINK_ROUTING_ENABLED = "enableLinkToLinkRouting";
 	/*package*/ static final String EVENTS_FILE_FORMAT = "eventsFileFormat";
@@ -90,6 +97,13 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 	private int firstIteration = 0;
 	private int lastIteration = 1000;
 	private RoutingAlgorithmType routingAlgorithmType = RoutingAlgorithmType.SpeedyALT;
+	private double landmarksTimeSliceSize = 0;
+	private double sharedOriginTreesTimeBinSize = 0;
+	private int sharedOriginTreesCount = 4;
+	private long routeCacheSize = 0;
+	private double routeCacheTimeBinSize = 3600;
+	private double routeCacheRegionSize = 2000;
+	private double routeCacheChangeThreshold = 0.1;
 	private EventTypeToCreateScoringFunctions eventTypeToCreateScoringFunctions = EventTypeToCreateScoringFunctions.IterationStarts;
 
 	private boolean linkToLinkRoutingEnabled = false;
@@ -121,6 +135,23 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 	public final Map<String, String> getComments() {
 		Map<String,String> map = super.getComments();
 		map.put(ROUTINGALGORITHM_TYPE, "The type of routing (least cost path) algorithm used, may have the values: " + Arrays.toString(RoutingAlgorithmType.values()));
+		map.put(LANDMARKS_TIME_SLICE_SIZE, "Default=0 (disabled). Only used with " + RoutingAlgorithmType.SpeedyALT + ". If positive, the landmark data is recalculated "
+				+ "in every iteration from the travel times of the last iteration, with one set of landmarks per time slice of this size [seconds], "
+				+ "which speeds up routing in congested periods. Memory usage of the landmark data grows with the number of time slices. "
+				+ "Requires the travel disutility not to depend on the person, i.e. routingRandomness must be 0.");
+		map.put(SHARED_ORIGIN_TREES_TIME_BIN_SIZE, "Default=0 (disabled). Only used with " + RoutingAlgorithmType.SpeedyALT + ". If positive, network routes "
+				+ "starting at the same node within the same time bin of this size [seconds] are taken from one shared least cost path tree, "
+				+ "calculated for a departure at the start of the bin. Requires routingRandomness to be 0.");
+		map.put(SHARED_ORIGIN_TREES_COUNT, "Default=4. Maximum number of shared least cost path trees kept by each router (i.e. per thread). "
+				+ "Each tree requires memory in the order of the network size.");
+		map.put(ROUTE_CACHE_SIZE, "Default=0 (disabled). Only used with " + RoutingAlgorithmType.SpeedyALT + ". If positive, network routes are cached "
+				+ "per mode, origin, destination and departure time bin across iterations, keeping at most this many routes per mode. "
+				+ "Requires routingRandomness to be 0.");
+		map.put(ROUTE_CACHE_TIME_BIN_SIZE, "Default=3600. Size of the departure time bins of the route cache [seconds].");
+		map.put(ROUTE_CACHE_REGION_SIZE, "Default=2000. Size of the square regions [network units] for which changes of the travel times are tracked. "
+				+ "Cached routes are dropped if the travel times within their bounding box changed.");
+		map.put(ROUTE_CACHE_CHANGE_THRESHOLD, "Default=0.1. Relative change of a link travel time in a time bin from which on cached routes "
+				+ "through its region are dropped.");
 		map.put(RUNID, "An identifier for the current run which is used as prefix for output files and mentioned in output xml files etc.");
 		map.put(EVENTS_FILE_FORMAT, "Default="+EventsFileFormat.xml+"; Specifies the file format for writing events. Currently supported: " + Arrays.toString(EventsFileFormat.values()) + IOUtils.NATIVE_NEWLINE+ "\t\t" +
 				"Multiple values can be specified separated by commas (',').");
@@ -150,7 +181,8 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 				"Depending on the chosen mobsim, you'll have to add additional config modules to configure the corresponding mobsim." + IOUtils.NATIVE_NEWLINE + "\t\t" +
 				"For 'qsim', add a module 'qsim' to the config.");
 
-		map.put(SNAPSHOT_FORMAT, "Comma-separated list of visualizer output file formats. `transims' and `otfvis'.");
+		map.put(SNAPSHOT_FORMAT, "Comma-separated list of visualizer output file formats. `transims', `otfvis', `positionevents' and `trajectories'. " +
+				"The latter only stores link enter and leave times per vehicle, positions can be reconstructed for any time.");
 		map.put(WRITE_SNAPSHOTS_INTERVAL, "iterationNumber % " + WRITE_SNAPSHOTS_INTERVAL + " == 0 defines in which iterations snapshots are written " +
 				"to a file. `0' disables snapshots writing completely");
 		map.put(DUMP_DATA_AT_END, "true if at the end of a run, plans, network, config etc should be dumped to a file");
@@ -200,6 +232,76 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 		this.routingAlgorithmType = type;
 	}
 
+	@StringGetter( LANDMARKS_TIME_SLICE_SIZE )
+	public double getLandmarksTimeSliceSize() {
+		return this.landmarksTimeSliceSize;
+	}
+
+	@StringSetter( LANDMARKS_TIME_SLICE_SIZE )
+	public void setLandmarksTimeSliceSize(final double landmarksTimeSliceSize) {
+		this.landmarksTimeSliceSize = landmarksTimeSliceSize;
+	}
+
+	@StringGetter( SHARED_ORIGIN_TREES_TIME_BIN_SIZE )
+	public double getSharedOriginTreesTimeBinSize() {
+		return this.sharedOriginTreesTimeBinSize;
+	}
+
+	@StringSetter( SHARED_ORIGIN_TREES_TIME_BIN_SIZE )
+	public void setSharedOriginTreesTimeBinSize(final double sharedOriginTreesTimeBinSize) {
+		this.sharedOriginTreesTimeBinSize = sharedOriginTreesTimeBinSize;
+	}
+
+	@StringGetter( SHARED_ORIGIN_TREES_COUNT )
+	public int getSharedOriginTreesCount() {
+		return this.sharedOriginTreesCount;
+	}
+
+	@StringSetter( SHARED_ORIGIN_TREES_COUNT )
+	public void setSharedOriginTreesCount(final int sharedOriginTreesCount) {
+		this.sharedOriginTreesCount = sharedOriginTreesCount;
+	}
+
+	@StringGetter( ROUTE_CACHE_SIZE )
+	public long getRouteCacheSize() {
+		return this.routeCacheSize;
+	}
+
+	@StringSetter( ROUTE_CACHE_SIZE )
+	public void setRouteCacheSize(final long routeCacheSize) {
+		this.routeCacheSize = routeCacheSize;
+	}
+
+	@StringGetter( ROUTE_CACHE_TIME_BIN_SIZE )
+	public double getRouteCacheTimeBinSize() {
+		return this.routeCacheTimeBinSize;
+	}
+
+	@StringSetter( ROUTE_CACHE_TIME_BIN_SIZE )
+	public void setRouteCacheTimeBinSize(final double routeCacheTimeBinSize) {
+		this.routeCacheTimeBinSize = routeCacheTimeBinSize;
+	}
+
+	@StringGetter( ROUTE_CACHE_REGION_SIZE )
+	public double getRouteCacheRegionSize() {
+		return this.routeCacheRegionSize;
+	}
+
+	@StringSetter( ROUTE_CACHE_REGION_SIZE )
+	public void setRouteCacheRegionSize(final double routeCacheRegionSize) {
+		this.routeCacheRegionSize = routeCacheRegionSize;
+	}
+
+	@StringGetter( ROUTE_CACHE_CHANGE_THRESHOLD )
+	public double getRouteCacheChangeThreshold() {
+		return this.routeCacheChangeThreshold;
+	}
+
+	@StringSetter( ROUTE_CACHE_CHANGE_THRESHOLD )
+	public void setRouteCacheChangeThreshold(final double routeCacheChangeThreshold) {
+		this.routeCacheChangeThreshold = routeCacheChangeThreshold;
+	}
+
 	@StringGetter( COMPRESSION_TYPE )
 	public CompressionType getCompressionType() {
 		return this.compressionType;
@@ -310,7 +412,7 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 		this.eventsFileFormats = Collections.unmodifiableSet(EnumSet.copyOf(eventsFileFormats));
 	}
 	// ---
-	public enum SnapshotFormat { transims, googleearth, otfvis, positionevents }
+	public enum SnapshotFormat { transims, googleearth, otfvis, positionevents, trajectories }
 	private Set<SnapshotFormat> snapshotFormat = Collections.emptySet();
 
 	@StringSetter( SNAPSHOT_FORMAT )
@@ -491,6 +593,17 @@ public final class ControllerConfigGroup extends ReflectiveConfigGroup {
 			log.warn( "this is not recommended, as it might result in a directory containing output from several model runs" );
 			log.warn( "prefer the options "+OverwriteFileSetting.deleteDirectoryIfExists+" or "+OverwriteFileSetting.failIfDirectoryExists );
 		}
+		if ( config.controller().getLandmarksTimeSliceSize() > 0 && config.routing().getRoutingRandomness() != 0 ) {
+			throw new RuntimeException( LANDMARKS_TIME_SLICE_SIZE + " requires the routingRandomness to be 0, as the time dependent "
+					+ "landmarks are calculated without a person." );
+		}
+		if ( config.controller().getSharedOriginTreesTimeBinSize() > 0 && config.routing().getRoutingRandomness() != 0 ) {
+			throw new RuntimeException( SHARED_ORIGIN_TREES_TIME_BIN_SIZE + " requires the routingRandomness to be 0, as the shared trees "
+					+ "are calculated without a person." );
+		}
+		if ( config.controller().getRouteCacheSize() > 0 && config.routing().getRoutingRandomness() != 0 ) {
+			throw new RuntimeException( ROUTE_CACHE_SIZE + " requires the routingRandomness to be 0, as the routes are cached without a person." );
+		}
 		if(config.controller().getMemoryObserverInterval() < 0) {
 			log.warn("Memory observer interval is negative. Simulation will most likely crash.");
 		}
@@ -32,9 +32,13 @@ public final class LinkStatsConfigGroup extends ReflectiveConfigGroup {
 
 	private static final String WRITELINKSTATSINTERVAL = "writeLinkStatsInterval";
 	private static final String AVERAGELINKSTATSOVERITERATIONS = "averageLinkStatsOverIterations";
+	private static final String ROLLINGAVERAGELINKSTATS = "rollingAverageLinkStats";
+	private static final String WRITELINKSTATSBINARY = "writeLinkStatsBinary";
 
 	private int writeLinkStatsInterval = 50;
 	private int averageLinkStatsOverIterations = 5;
+	private boolean rollingAverageLinkStats = false;
+	private boolean writeLinkStatsBinary = false;
 
 	public LinkStatsConfigGroup() {
 		super(GROUP_NAME);
@@ -46,6 +50,10 @@ public final class LinkStatsConfigGroup extends ReflectiveConfigGroup {
 		comments.put(WRITELINKSTATSINTERVAL, "Specifies how often the link stats should be calculated and written. Use 0 to disable the generation of link stats.");
 		comments.put(AVERAGELINKSTATSOVERITERATIONS, "Specifies over how many iterations the link volumes should be averaged that are used for the " +
 				"link statistics. Use 1 or 0 to only use the link volumes of a single iteration. This values cannot be larger than the value specified for " + WRITELINKSTATSINTERVAL);
+		comments.put(ROLLINGAVERAGELINKSTATS, "If true, the link volumes of the last " + AVERAGELINKSTATSOVERITERATIONS + " iterations are kept in a ring buffer, " +
+				"so the averaged link statistics are available in every iteration and not only in the iterations they are written in. Requires memory for the hourly " +
+				"volumes and travel times of all links for each of these iterations.");
+		comments.put(WRITELINKSTATSBINARY, "If true, the average hourly link volumes and travel times are additionally written in a compact binary file.");
 		return comments;
 	}
 
@@ -68,4 +76,24 @@ public final class LinkStatsConfigGroup extends ReflectiveConfigGroup {
 	public void setAverageLinkStatsOverIterations(int averageLinkStatsOverIterations) {
 		this.averageLinkStatsOverIterations = averageLinkStatsOverIterations;
 	}
+
+	@StringGetter( ROLLINGAVERAGELINKSTATS )
+	public boolean isRollingAverageLinkStats() {
+		return this.rollingAverageLinkStats;
+	}
+
+	@StringSetter( ROLLINGAVERAGELINKSTATS )
+	public void setRollingAverageLinkStats(boolean rollingAverageLinkStats) {
+		this.rollingAverageLinkStats = rollingAverageLinkStats;
+	}
+
+	@StringGetter( WRITELINKSTATSBINARY )
+	public boolean isWriteLinkStatsBinary() {
+		return this.writeLinkStatsBinary;
+	}
+
+	@StringSetter( WRITELINKSTATSBINARY )
+	public void setWriteLinkStatsBinary(boolean writeLinkStatsBinary) {
+		this.writeLinkStatsBinary = writeLinkStatsBinary;
+	}
 }
@@ -44,6 +44,7 @@ import org.matsim.core.population.algorithms.PersonPrepareForSim;
 import org.matsim.core.population.routes.NetworkRoute;
 import org.matsim.core.router.MainModeIdentifier;
 import org.matsim.core.router.PlanRouter;
+import org.matsim.core.router.SingleModeNetworksCache;
 import org.matsim.core.router.TripRouter;
 import org.matsim.core.router.TripStructureUtils;
 import org.matsim.core.router.TripStructureUtils.Trip;
@@ -88,6 +89,13 @@ public final class PrepareForSimImpl implements PrepareForSim, PrepareForMobsim
 	@Inject
 	private Set<PersonPrepareForSimAlgorithm> prepareForSimAlgorithms;
 
+	/**
+	 * Can be null if instantiated via constructor, which should only happen in tests.
+	 */
+	@Nullable
+	@Inject
+	private SingleModeNetworksCache singleModeNetworksCache;
+
 	/**
 	 * backwardCompatibilityMainModeIdentifier should be a separate MainModeidentifier, neither the routing mode identifier from TripStructureUtils,
 	 * nor the AnalysisMainModeidentifier used for analysis (ModeStats etc.).
@@ -121,7 +129,11 @@ public final class PrepareForSimImpl implements PrepareForSim, PrepareForMobsim
 		 * be probably adapted in a way that other main modes are possible as well. cdobler, oct'15.
 		 */
 		final Network carOnlyNetwork;
-		if (NetworkUtils.isMultimodal(network)) {
+		if (NetworkUtils.isMultimodal(network) && singleModeNetworksCache != null) {
+			// share the filtered network (and its spatial index) with the car routing module, which would filter it again otherwise
+			log.info("Network seems to be multimodal. Use cached car-only network which is handed over to PersonPrepareForSim.");
+			carOnlyNetwork = singleModeNetworksCache.getOrCreateSingleModeNetwork(TransportMode.car);
+		} else if (NetworkUtils.isMultimodal(network)) {
 			log.info("Network seems to be multimodal. Create car-only network which is handed over to PersonPrepareForSim.");
 			TransportModeNetworkFilter filter = new TransportModeNetworkFilter(network);
 			carOnlyNetwork = NetworkUtils.createNetwork(scenario.getConfig().network());
@@ -166,7 +178,7 @@ public final class PrepareForSimImpl implements PrepareForSim, PrepareForMobsim
 
 		// get links for facilities
 		// using car only network to get the links for facilities. Amit July'18
-		XY2LinksForFacilities.run(carOnlyNetwork, this.activityFacilities);
+		XY2LinksForFacilities.run(carOnlyNetwork, this.activityFacilities, globalConfigGroup.getNumberOfThreads());
 
 		// yyyy from a behavioral perspective, the vehicle must be somehow linked to
 		// the person (maybe via the household).    kai, feb'18
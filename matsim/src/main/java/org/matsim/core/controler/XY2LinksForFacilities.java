@@ -29,6 +29,11 @@ import org.matsim.facilities.ActivityFacilities;
 import org.matsim.facilities.ActivityFacility;
 import org.matsim.facilities.ActivityFacilityImpl;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+
 /**
  * Created by amit on 13.07.18.
  */
@@ -38,10 +43,19 @@ public class XY2LinksForFacilities {
     public static final Logger LOGGER = LogManager.getLogger(XY2LinksForFacilities.class);
 
     public static void run(Network network, ActivityFacilities facilities){
+        run(network, facilities, 1);
+    }
+
+    /**
+     * Assigns the nearest link to all facilities without a link. The nearest links are looked up in parallel using
+     * the given number of threads; the spatial index of the network is built once before and then shared by all threads.
+     */
+    public static void run(Network network, ActivityFacilities facilities, int numberOfThreads){
 
         int coordNullWarn = 0;
         int linkNullWarn = 0;
 
+        List<ActivityFacility> facilitiesWithoutLink = new ArrayList<>();
         for (ActivityFacility activityFacility : facilities.getFacilities().values()) {
 
             if (activityFacility.getCoord()==null && activityFacility.getLinkId()== null) {
@@ -52,12 +66,7 @@ public class XY2LinksForFacilities {
                     LOGGER.warn(Gbl.ONLYONCE);
                     linkNullWarn++;
                 }
-                Link link = NetworkUtils.getNearestLink(network, activityFacility.getCoord());
-                if (link==null) {
-                    LOGGER.warn("No nearest link is found for coord "+activityFacility.getCoord());
-                } else{
-                    ((ActivityFacilityImpl)activityFacility).setLinkId(link.getId());
-                }
+                facilitiesWithoutLink.add(activityFacility);
 
             } else if (activityFacility.getCoord()==null){
                 if (coordNullWarn==0) {
@@ -67,5 +76,33 @@ public class XY2LinksForFacilities {
                 }
             }
         }
+
+        if (facilitiesWithoutLink.isEmpty()) {
+            return;
+        }
+        if (numberOfThreads <= 1 || facilitiesWithoutLink.size() == 1) {
+            facilitiesWithoutLink.forEach(facility -> assignNearestLink(network, facility));
+            return;
+        }
+
+        // build the spatial index here, so the threads do not wait for each other to build it lazily
+        NetworkUtils.getNearestNode(network, facilitiesWithoutLink.get(0).getCoord());
+        ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+        try {
+            pool.submit(() -> facilitiesWithoutLink.parallelStream().forEach(facility -> assignNearestLink(network, facility))).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static void assignNearestLink(Network network, ActivityFacility activityFacility) {
+        Link link = NetworkUtils.getNearestLink(network, activityFacility.getCoord());
+        if (link==null) {
+            LOGGER.warn("No nearest link is found for coord "+activityFacility.getCoord());
+        } else{
+            ((ActivityFacilityImpl)activityFacility).setLinkId(link.getId());
+        }
     }
 }
@@ -23,9 +23,11 @@ package org.matsim.core.events;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.events.Event;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.config.Config;
 import org.matsim.core.controler.Injector;
+import org.matsim.core.events.handler.EventHandler;
 import org.matsim.utils.eventsfilecomparison.*;
 
 import java.io.File;
@@ -59,6 +61,33 @@ public final class EventsUtils {
 		new MatsimEventsReader(events).readFile(filename);
 	}
 
+	/**
+	 * Reads the events file once and passes the events to all given handlers concurrently, each handler in its own
+	 * thread. Every handler sees the events in file order, but there is no ordering between different handlers.
+	 * <p>
+	 * {@code queueSize} is the number of event batches buffered between reading the file and distributing the events
+	 * to the handlers. The queues of the single handlers are not bounded, so a handler that is much slower than the
+	 * others may buffer a large part of the events file in memory.
+	 */
+	public static void readEventsParallel(String filename, int queueSize, EventHandler... handlers) {
+		ParallelEventsManager events = new ParallelEventsManager(false, queueSize);
+		for (EventHandler handler : handlers) {
+			events.addHandler(handler);
+		}
+		events.initProcessing();
+		BatchingEventsFeeder feeder = new BatchingEventsFeeder(events);
+		new MatsimEventsReader(feeder).readFile(filename);
+		feeder.flush();
+		events.finishProcessing();
+	}
+
+	/**
+	 * @see #readEventsParallel(String, int, EventHandler...)
+	 */
+	public static void readEventsParallel(String filename, EventHandler... handlers) {
+		readEventsParallel(filename, 16, handlers);
+	}
+
 
 	/**
 	 * The SimStepParallelEventsManagerImpl can handle events from multiple threads.
@@ -134,4 +163,66 @@ public final class EventsUtils {
 		return EventsFileComparator.compare(filename1, filename2);
 	}
 
+	/**
+	 * Collects the events of a single producer (e.g. an events reader) into batches, so they are not handed over to
+	 * the {@link ParallelEventsManager} one by one.
+	 */
+	private static final class BatchingEventsFeeder implements EventsManager {
+		private static final int BATCH_SIZE = 4096;
+
+		private final EventsManager delegate;
+		private EventArray batch = new EventArray(BATCH_SIZE);
+
+		private BatchingEventsFeeder(EventsManager delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void processEvent(Event event) {
+			batch.add(event);
+			if (batch.size() == BATCH_SIZE) {
+				flush();
+			}
+		}
+
+		private void flush() {
+			if (batch.size() > 0) {
+				delegate.processEvents(batch);
+				batch = new EventArray(BATCH_SIZE);
+			}
+		}
+
+		@Override
+		public void addHandler(EventHandler handler) {
+			delegate.addHandler(handler);
+		}
+
+		@Override
+		public void removeHandler(EventHandler handler) {
+			delegate.removeHandler(handler);
+		}
+
+		@Override
+		public void resetHandlers(int iteration) {
+			delegate.resetHandlers(iteration);
+		}
+
+		@Override
+		public void initProcessing() {
+			delegate.initProcessing();
+		}
+
+		@Override
+		public void afterSimStep(double time) {
+			flush();
+			delegate.afterSimStep(time);
+		}
+
+		@Override
+		public void finishProcessing() {
+			flush();
+			delegate.finishProcessing();
+		}
+	}
+
 }
@@ -20,8 +20,12 @@
 package org.matsim.core.mobsim.hermes;
 
 import org.matsim.api.core.v01.Id;
-import org.matsim.core.events.EventArray;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.network.Link;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
+import org.matsim.vehicles.Vehicle;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -60,6 +64,87 @@ class Agent {
 		}
 	}
 
+	/**
+	 * Events of an agent in the order in which they are issued. Link enter and leave events, which make up most of
+	 * them, are stored as packed primitive records (link and vehicle index) and are only turned into {@link Event}
+	 * objects when they are issued. All other events are stored as objects and only get their time set.
+	 */
+	public static class EventBuffer {
+		// <1> link enter | <1> link leave | 31 bit vehicle index | 31 bit link index; 0 means: see events[index]
+		private static final long LINK_ENTER = 1L << 63;
+		private static final long LINK_LEAVE = 1L << 62;
+		private static final long INDEX_MASK = 0x7FFFFFFFL;
+
+		Event[] events;
+		long[] packed;
+		int size;
+
+		public EventBuffer() {
+			this.events = new Event[32];
+			this.packed = new long[32];
+		}
+
+		public void add(Event event) {
+			ensureCapacity();
+			events[size] = event;
+			packed[size++] = 0;
+		}
+
+		public void addLinkEnter(Id<Vehicle> vehicleId, Id<Link> linkId) {
+			ensureCapacity();
+			packed[size++] = LINK_ENTER | pack(vehicleId, linkId);
+		}
+
+		public void addLinkLeave(Id<Vehicle> vehicleId, Id<Link> linkId) {
+			ensureCapacity();
+			packed[size++] = LINK_LEAVE | pack(vehicleId, linkId);
+		}
+
+		private static long pack(Id<Vehicle> vehicleId, Id<Link> linkId) {
+			return ((long)vehicleId.index() << 31) | linkId.index();
+		}
+
+		private void ensureCapacity() {
+			if (size == events.length) {
+				events = Arrays.copyOf(events, events.length * 2);
+				packed = Arrays.copyOf(packed, packed.length * 2);
+			}
+		}
+
+		public int size() {
+			return size;
+		}
+
+		/**
+		 * @return the stored event object, or null for link events, which are only created by {@link #issue}
+		 */
+		public Event get(int index) {
+			return events[index];
+		}
+
+		/**
+		 * @return the event at the given index with its time set to the given time
+		 */
+		public Event issue(int index, double time) {
+			long record = packed[index];
+			if (record == 0) {
+				events[index].setTime(time);
+				return events[index];
+			}
+			Id<Vehicle> vehicleId = Id.get((int)((record >>> 31) & INDEX_MASK), Vehicle.class);
+			Id<Link> linkId = Id.get((int)(record & INDEX_MASK), Link.class);
+			return (record & LINK_ENTER) != 0 ?
+					new LinkEnterEvent(time, vehicleId, linkId) :
+					new LinkLeaveEvent(time, vehicleId, linkId);
+		}
+
+		public void clear() {
+			Arrays.fill(events, 0, size, null);
+			Arrays.fill(packed, 0, size, 0);
+			size = 0;
+		}
+	}
+
     // Types of plan headers.
     // agent sleeps for some time.
     public static final int SleepForType   =  0;
@@ -97,7 +182,7 @@ class Agent {
     // <0110> StopDepartType  | 4 bits unused | 16 bit event id  | 8 bits unused   | 16 bit route id | 16 station id
     protected final PlanArray plan; // TODO - use a byte buffer instead of a long[]...
 
-    protected final EventArray events;
+    protected final EventBuffer events;
 
     // Current position in plan. Using this index in the plan will yield what
     // the agent is doing currently. Note that we trigger the corresponding
@@ -123,7 +208,7 @@ class Agent {
 
     private final static List<Agent> NO_PASSENGERS = Collections.emptyList();
 
-    public Agent(int id, int capacity, PlanArray plan, EventArray events) {
+    public Agent(int id, int capacity, PlanArray plan, EventBuffer events) {
         this.id = id;
         this.plan = plan;
         this.events = events;
@@ -159,7 +244,7 @@ class Agent {
         return this.plan;
     }
 
-    public EventArray events() {
+    public EventBuffer events() {
         return this.events;
     }
 
@@ -333,6 +418,13 @@ class Agent {
     public void reset() {
         plan.clear();
         events.clear();
+        resetState();
+    }
+
+    /**
+     * Resets the simulation state of the agent, but keeps its imported plan and events.
+     */
+    public void resetState() {
         planIndex = 0;
         eventsIndex = 0;
         linkFinishTime = 0;
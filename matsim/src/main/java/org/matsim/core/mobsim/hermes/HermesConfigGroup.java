@@ -64,6 +64,10 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
 
     private static final String DETPTDESC = "treats PT as deterministic. PT vehicles will run with a steady speed. Should be used with separate network layers for PT and other network modes.";
     private boolean deterministicPt = false;
+    private static final String INCREMENTAL_IMPORT = "incrementalImport";
+    private static final String INCREMENTAL_IMPORT_DESC = "if true, only agents whose selected plan object changed since the last iteration are re-imported. "
+            + "Requires that plans are never modified in place between iterations (replanning strategies work on copies).";
+    private boolean incrementalImport = false;
     public static final boolean DEBUG_REALMS = false;
     public static final boolean DEBUG_EVENTS = false;
     public static final boolean CONCURRENT_EVENT_PROCESSING = true;
@@ -113,6 +117,16 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
         this.deterministicPt = deterministicPt;
     }
 
+    @StringGetter(INCREMENTAL_IMPORT)
+    public boolean isIncrementalImport() {
+        return incrementalImport;
+    }
+
+    @StringSetter(INCREMENTAL_IMPORT)
+    public void setIncrementalImport(boolean incrementalImport) {
+        this.incrementalImport = incrementalImport;
+    }
+
     @StringGetter(STUCKTIMEPARAM)
     public int getStuckTime() {
         return stuckTime;
@@ -159,6 +173,7 @@ public final class HermesConfigGroup extends ReflectiveConfigGroup {
         comments.put(END_TIME, "Simulation End Time");
         comments.put(STUCKTIMEPARAM, STUCKTIMEPARAMDESC);
         comments.put(DETPT, DETPTDESC);
+        comments.put(INCREMENTAL_IMPORT, INCREMENTAL_IMPORT_DESC);
         return comments;
     }
 
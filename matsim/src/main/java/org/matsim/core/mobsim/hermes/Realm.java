@@ -361,14 +361,14 @@ class Realm {
 
     public void setEventTime(Agent agent, int agentId, int time, boolean lastEvent) {
         if (agentId != 0) {
-            EventArray agentEvents = agent.events();
+            Agent.EventBuffer agentEvents = agent.events();
             Event event = agentEvents.get(agentId);
 
             for (; agent.eventsIndex <= agentId; agent.eventsIndex++) {
-                agentEvents.get(agent.eventsIndex).setTime(time);
+                Event issued = agentEvents.issue(agent.eventsIndex, time);
                 if (HermesConfigGroup.DEBUG_REALMS)
-                    log(secs, String.format("agent %d setEventTime (eventsIndex=%d) %s", agent.id, agent.eventsIndex, agentEvents.get(agent.eventsIndex).toString()));
-                sortedEvents.add(agentEvents.get(agent.eventsIndex));
+                    log(secs, String.format("agent %d setEventTime (eventsIndex=%d) %s", agent.id, agent.eventsIndex, issued.toString()));
+                sortedEvents.add(issued);
             }
 
             // Fix delay for PT events.
@@ -30,7 +30,7 @@ import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.population.*;
 import org.matsim.core.api.experimental.events.*;
-import org.matsim.core.events.EventArray;
+import org.matsim.core.mobsim.hermes.Agent.EventBuffer;
 import org.matsim.core.mobsim.hermes.Agent.PlanArray;
 import org.matsim.core.population.routes.GenericRouteImpl;
 import org.matsim.core.population.routes.NetworkRoute;
@@ -47,6 +47,8 @@ import org.matsim.vehicles.VehicleType;
 import org.matsim.vehicles.VehicleUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 
 class ScenarioImporter {
 
@@ -91,10 +93,15 @@ class ScenarioImporter {
 	protected final EventsManager eventsManager;
 	private final int numberOfThreads;
 	private final List<List<Event>> deterministicPtEvents;
+	// if true, person agents are only re-imported if their selected plan changed.
+	private final boolean incrementalImport;
+	// selected plan that each person agent was imported from: importedPlans[hermes_id] -> plan
+	private Plan[] importedPlans;
 
 	private ScenarioImporter(Scenario scenario, EventsManager eventsManager) {
 		numberOfThreads = Math.min(scenario.getConfig().global().getNumberOfThreads(), Runtime.getRuntime().availableProcessors());
 		this.deterministicPt = scenario.getConfig().hermes().isDeterministicPt();
+		this.incrementalImport = scenario.getConfig().hermes().isIncrementalImport();
 		if (deterministicPt) {
 			deterministicPtEvents = new ArrayList<>(scenario.getConfig().hermes().getEndTime());
 			for (int i = 0; i < scenario.getConfig().hermes().getEndTime(); i++) {
@@ -175,7 +182,12 @@ class ScenarioImporter {
 				// reset agent plans and events
 				for (Agent hermes_agent : hermesAgents) {
 					if (hermes_agent != null) {
-						hermes_agent.reset();
+						if (incrementalImport && hermes_agent.id() < agentPersons) {
+							// person plans and events are re-imported in generatePersonPlans, if necessary
+							hermes_agent.resetState();
+						} else {
+							hermes_agent.reset();
+						}
 					}
 				}
 				// reset agent_stops
@@ -314,7 +326,7 @@ class ScenarioImporter {
 	private void processPlanActivity(
 			Id<Person> id,
 			PlanArray flatplan,
-			EventArray events,
+			EventBuffer events,
 			Activity act) {
 		int time = 0;
 		int eventid = 0;
@@ -360,7 +372,7 @@ class ScenarioImporter {
 	private void processPlanNetworkRoute(
 			Person person,
 			PlanArray flatplan,
-			EventArray events,
+			EventBuffer events,
 			Leg leg,
 			NetworkRoute netroute,
 			Agent agent) {
@@ -386,16 +398,16 @@ class ScenarioImporter {
 		events.add(new PersonEntersVehicleEvent(0, id, vid));
 		events.add(new VehicleEntersTrafficEvent(0, id, startLId, vid, leg.getMode(), 1));
 		if (netroute.getLinkIds().size() > 1 || !startLId.equals(endLId)) {
-			events.add(new LinkLeaveEvent(0, vid, startLId));
+			events.addLinkLeave(vid, startLId);
 		}
 		for (Id<org.matsim.api.core.v01.network.Link> linkid : netroute.getLinkIds()) {
 			int linkId = linkid.index();
-			events.add(new LinkEnterEvent(0, vid, linkid));
+			events.addLinkEnter(vid, linkid);
 			flatplan.add(Agent.prepareLinkEntry(events.size() - 1, linkId, velocity, pcuCategory));
-			events.add(new LinkLeaveEvent(0, vid, linkid));
+			events.addLinkLeave(vid, linkid);
 		}
 		if (netroute.getLinkIds().size() > 1 || !startLId.equals(endLId)) {
-			events.add(new LinkEnterEvent(0, vid, endLId));
+			events.addLinkEnter(vid, endLId);
 			flatplan.add(Agent.prepareLinkEntry(events.size() - 1, egressId, velocity, pcuCategory));
 		}
 		events.add(new VehicleLeavesTrafficEvent(0, id, endLId, vid, leg.getMode(), 1));
@@ -410,7 +422,7 @@ class ScenarioImporter {
 	private void processPlanTransitRoute(
 			Id<Person> id,
 			PlanArray flatplan,
-			EventArray events,
+			EventBuffer events,
 			TransitPassengerRoute troute) {
 		Id<TransitStopFacility> access = troute.getAccessStopId();
 		Id<TransitStopFacility> egress = troute.getEgressStopId();
@@ -435,7 +447,7 @@ class ScenarioImporter {
 	private void processPlanElement(
 			Person person,
 			PlanArray flatplan,
-			EventArray events,
+			EventBuffer events,
 			PlanElement element,
 			Agent agent) {
 		var id = person.getId();
@@ -473,7 +485,7 @@ class ScenarioImporter {
 		}
 	}
 
-	private void processTeleport(Id<Person> id, PlanArray flatplan, EventArray events, Leg element, Route route, String mode) {
+	private void processTeleport(Id<Person> id, PlanArray flatplan, EventBuffer events, Leg element, Route route, String mode) {
 		double routeTravelTime = route.getTravelTime().orElse(0.0);
 		double legTravelTime = element.getTravelTime().orElse(0.0);
 		int time = Math.max(0, (int) Math.round(Math.max(routeTravelTime, legTravelTime)) - 2);
@@ -486,7 +498,7 @@ class ScenarioImporter {
 			int agentId,
 			int capacity,
 			PlanArray flatplan,
-			EventArray events) {
+			EventBuffer events) {
 
 		if (events.size() >= HermesConfigGroup.MAX_EVENTS_AGENT) {
 			throw new RuntimeException("exceeded maximum number of agent events");
@@ -516,7 +528,7 @@ class ScenarioImporter {
 	private static class TransitRouteContext {
 		final Agent agent;
 		final PlanArray flatplan;
-		final EventArray flatevents;
+		final EventBuffer flatevents;
 		final TransitLine tl;
 		final TransitRoute tr;
 		final int routeNo;
@@ -705,7 +717,7 @@ class ScenarioImporter {
 
 		TransitRouteContext context = new TransitRouteContext(agent, tl, tr, routeNo, depart, this.scenario.getNetwork());
 		PlanArray flatplan = agent.plan;
-		EventArray flatevents = agent.events;
+		EventBuffer flatevents = agent.events;
 
 		VehicleType vt = v.getType();
 		NetworkRoute nr = tr.getRoute();
@@ -744,7 +756,7 @@ class ScenarioImporter {
 
 	private void generateNondeterministicVehicleOnLink(TransitRouteContext c, Id<Link> linkId, boolean generateLinkEnterEvent, boolean generateLinkLeaveEvent, int velocity, int pcuCategory) {
 		if (generateLinkEnterEvent) {
-			c.flatevents.add(new LinkEnterEvent(0, c.vehId, linkId));
+			c.flatevents.addLinkEnter(c.vehId, linkId);
 			c.flatplan.add(Agent.prepareLinkEntry(c.flatevents.size() - 1, linkId.index(), velocity, pcuCategory));
 		}
 
@@ -777,7 +789,7 @@ class ScenarioImporter {
 		}
 
 		if (generateLinkLeaveEvent) {
-			c.flatevents.add(new LinkLeaveEvent(0, c.vehId, linkId));
+			c.flatevents.addLinkLeave(c.vehId, linkId);
 		}
 	}
 
@@ -790,7 +802,7 @@ class ScenarioImporter {
 		int routeNo = this.routeNumbers.get(tl.getId()).get(tr.getId());
 		TransitRouteContext context = new TransitRouteContext(agent, tl, tr, routeNo, depart, this.scenario.getNetwork());
 		PlanArray flatplan = agent.plan;
-		EventArray flatevents = agent.events;
+		EventBuffer flatevents = agent.events;
 		Vehicle v = this.scenario.getTransitVehicles().getVehicles().get(depart.getVehicleId());
 		VehicleType vt = v.getType();
 		NetworkRoute nr = tr.getRoute();
@@ -848,16 +860,43 @@ class ScenarioImporter {
 
 	}
 
-	private void generatePersonPlans() {
+	private void generatePersonPlans() throws Exception {
 		Population population = scenario.getPopulation();
-		population.getPersons().values().parallelStream().forEach((person) -> {
-			int hermes_id = hermes_id(person.getId().index(), false);
-			PlanArray plan = hermesAgents[hermes_id].plan();
-			EventArray events = hermesAgents[hermes_id].events();
-			for (PlanElement element : person.getSelectedPlan().getPlanElements()) {
-				processPlanElement(person, plan, events, element, hermesAgents[hermes_id]);
+		boolean[] imported = new boolean[agentPersons];
+		AtomicInteger reimported = new AtomicInteger();
+		// the global number of threads may be 0
+		ForkJoinPool pool = new ForkJoinPool(Math.max(1, numberOfThreads));
+		try {
+			pool.submit(() -> population.getPersons().values().parallelStream().forEach((person) -> {
+				int hermes_id = hermes_id(person.getId().index(), false);
+				Agent agent = hermesAgents[hermes_id];
+				Plan selectedPlan = person.getSelectedPlan();
+				imported[hermes_id] = true;
+				if (incrementalImport && importedPlans[hermes_id] == selectedPlan) {
+					return;
+				}
+				agent.reset();
+				for (PlanElement element : selectedPlan.getPlanElements()) {
+					processPlanElement(person, agent.plan(), agent.events(), element, agent);
+				}
+				importedPlans[hermes_id] = selectedPlan;
+				reimported.incrementAndGet();
+			})).get();
+		} finally {
+			pool.shutdown();
+		}
+
+		// drop agents of persons that were removed from the population
+		for (int hermes_id = 0; hermes_id < agentPersons; hermes_id++) {
+			if (!imported[hermes_id] && importedPlans[hermes_id] != null) {
+				hermesAgents[hermes_id].reset();
+				importedPlans[hermes_id] = null;
 			}
-		});
+		}
+
+		if (incrementalImport) {
+			log.info(String.format("Hermes re-imported %d of %d persons", reimported.get(), population.getPersons().size()));
+		}
 	}
 
 	private void generateAgents() {
@@ -866,12 +905,13 @@ class ScenarioImporter {
 		agentPersons = Id.getNumberOfIds(Person.class);
 		int nagents = agentPersons + Id.getNumberOfIds(Vehicle.class);
 		hermesAgents = new Agent[nagents];
+		importedPlans = new Plan[agentPersons];
 
 		// Generate persons
 		for (Person person : population.getPersons().values()) {
 			int hermes_id = hermes_id(person.getId().index(), false);
 			assert hermesAgents[hermes_id] == null;
-			generateAgent(hermes_id, 0, new PlanArray(), new EventArray());
+			generateAgent(hermes_id, 0, new PlanArray(), new EventBuffer());
 		}
 
 		// Generate vehicles
@@ -880,7 +920,7 @@ class ScenarioImporter {
 			int capacity = vc.getSeats() + vc.getStandingRoom();
 			int hermes_id = hermes_id(vehicle.getId().index(), true);
 			assert hermesAgents[hermes_id] == null;
-			generateAgent(hermes_id, capacity, new PlanArray(), new EventArray());
+			generateAgent(hermes_id, capacity, new PlanArray(), new EventBuffer());
 		}
 	}
 
@@ -900,7 +940,7 @@ class ScenarioImporter {
 		}
 	}
 
-	private void generatePlans() {
+	private void generatePlans() throws Exception {
 		generatePersonPlans();
 		generateTransitVehiclePlans();
 	}
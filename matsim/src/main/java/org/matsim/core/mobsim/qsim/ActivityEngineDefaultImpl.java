@@ -19,8 +19,9 @@
 
 package org.matsim.core.mobsim.qsim;
 
-import java.util.Iterator;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.PriorityBlockingQueue;
 
 import jakarta.inject.Inject;
@@ -65,6 +66,8 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 		}
 		private final MobsimAgent agent;
 		private final double activityEndTime;
+		// set when the entry is replaced by rescheduleActivityEnd; cancelled entries are dropped when they are polled
+		private volatile boolean cancelled = false;
 	}
 
 	private InternalInterface internalInterface;
@@ -90,6 +93,12 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 		return cmp;
 	});
 
+	/**
+	 * The current (not cancelled) entry of each agent in the activityEndsList. This avoids a linear search through the
+	 * queue when an activity end is rescheduled.
+	 */
+	private final Map<Id<Person>, AgentEntry> entriesByAgent = new ConcurrentHashMap<>();
+
 	// See handleActivity for the reason for this.
 	private boolean beforeFirstSimStep = true;
 
@@ -101,9 +110,14 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 	@Override
 	public void doSimStep(double time) {
 		beforeFirstSimStep = false;
-		while (activityEndsList.peek() != null) {
-			if (activityEndsList.peek().activityEndTime <= time) {
-				MobsimAgent agent = activityEndsList.poll().agent;
+		AgentEntry entry;
+		while ((entry = activityEndsList.peek()) != null) {
+			if (entry.cancelled) {
+				activityEndsList.poll();
+			} else if (entry.activityEndTime <= time) {
+				activityEndsList.poll();
+				MobsimAgent agent = entry.agent;
+				entriesByAgent.remove(agent.getId(), entry);
 				unregisterAgentAtActivityLocation(agent);
 				agent.endActivityAndComputeNextState(time);
 				internalInterface.arrangeNextAgentState(agent);
@@ -117,13 +131,14 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 	public void afterSim() {
 		double now = this.internalInterface.getMobsim().getSimTimer().getTimeOfDay();
 		for (AgentEntry entry : activityEndsList) {
-			if (entry.activityEndTime != Double.POSITIVE_INFINITY) {
+			if (!entry.cancelled && entry.activityEndTime != Double.POSITIVE_INFINITY) {
 				// since we are at an activity, it is not plausible to assume that the agents know mode or destination
 				// link id.  Thus generating the event with ``null'' in the corresponding entries.  kai, mar'12
 				eventsManager.processEvent(new PersonStuckEvent(now, entry.agent.getId(), null, null));
 			}
 		}
 		activityEndsList.clear();
+		entriesByAgent.clear();
 	}
 
 	@Override
@@ -155,8 +170,7 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 			internalInterface.arrangeNextAgentState(agent) ;
 		} else {
 			// The agent commences an activity on this link.
-			final AgentEntry agentEntry = new AgentEntry(agent, agent.getActivityEndTime());
-			activityEndsList.add(agentEntry);
+			addEntry(agent, agent.getActivityEndTime());
 			internalInterface.registerAdditionalAgentOnLink(agent);
 		}
 		// Why beforeFirstSimStep matters:
@@ -197,7 +211,7 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 				// agent was de-activated and still should be de-activated - nothing to do here
 			} else {
 				// re-activate the agent
-				activityEndsList.add(new AgentEntry(agent, newActivityEndTime));
+				addEntry(agent, newActivityEndTime);
 				internalInterface.registerAdditionalAgentOnLink(agent);
 				((org.matsim.core.mobsim.qsim.AgentCounter) internalInterface.getMobsim().getAgentCounter()).incLiving();
 			}
@@ -212,20 +226,26 @@ class ActivityEngineDefaultImpl implements ActivityEngine {
 			/*
 			 *  The activity is just rescheduled during the day, so we keep the agent active. cdobler, oct'11
 			 */
-			activityEndsList.add(new AgentEntry(agent, newActivityEndTime));
+			addEntry(agent, newActivityEndTime);
 		}
 	}
 
+	private void addEntry(MobsimAgent agent, double activityEndTime) {
+		AgentEntry entry = new AgentEntry(agent, activityEndTime);
+		entriesByAgent.put(agent.getId(), entry);
+		activityEndsList.add(entry);
+	}
+
+	/**
+	 * Only marks the entry as cancelled, it is dropped from the queue when it reaches the head. This keeps
+	 * rescheduling at O(log n) instead of a linear search and removal.
+	 */
 	private AgentEntry removeAgentFromQueue(MobsimAgent agent) {
-		Iterator<AgentEntry> iterator = activityEndsList.iterator();
-		while (iterator.hasNext()) {
-			AgentEntry entry = iterator.next();
-			if (entry.agent == agent) {
-				iterator.remove();
-				return entry;
-			}
+		AgentEntry entry = entriesByAgent.remove(agent.getId());
+		if (entry != null) {
+			entry.cancelled = true;
 		}
-		return null;
+		return entry;
 	}
 
 	private void unregisterAgentAtActivityLocation(final MobsimAgent agent) {
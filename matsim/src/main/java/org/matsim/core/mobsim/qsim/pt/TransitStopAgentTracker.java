@@ -28,13 +28,21 @@ import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.mobsim.qsim.AgentTracker;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
+ * Keeps track of the agents waiting at transit stops.
+ * <p>
+ * Stops are handled by the threads of the network engine which simulate the link of the stop, while agents may start
+ * waiting from any thread. The waiting agents are thus kept in one queue per stop, indexed by the stop's {@link Id#index()},
+ * and each queue is synchronized on its own. Adding and removing agents does not copy the queue, only
+ * {@link #getAgentsAtFacility(Id)} returns a snapshot.
+ *
  * @author mrieser
  */
 public class TransitStopAgentTracker implements AgentTracker {
@@ -42,7 +50,7 @@ public class TransitStopAgentTracker implements AgentTracker {
 	private final static Logger log = LogManager.getLogger(TransitStopAgentTracker.class);
 	
 	private final EventsManager events;
-	private final Map<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStops = new ConcurrentHashMap<>();
+	private volatile WaitingAgents[] agentsByStopIndex = new WaitingAgents[0];
 
 	public TransitStopAgentTracker(final EventsManager events) {
 		this.events = events;
@@ -52,12 +60,7 @@ public class TransitStopAgentTracker implements AgentTracker {
 		if (stopId == null) {
 			throw new NullPointerException("stop must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
-		if (agents == null) {
-			agents = new CopyOnWriteArrayList<>();// TODO check again. this might turn out to be slow, but we likely need something thread safe here. marcel/oct2014 
-			this.agentsAtStops.put(stopId, agents);
-		}
-		if ( !agents.add(agent) ) {
+		if ( !getOrCreateWaitingAgents(stopId).add(agent) ) {
 			log.error("did NOT add agent " + agent.getId() + " since it was already there.");
 		}
 		Id<TransitStopFacility> destinationStopId = agent.getDesiredDestinationStopId();
@@ -68,7 +71,7 @@ public class TransitStopAgentTracker implements AgentTracker {
 		if (stopId == null) {
 			throw new NullPointerException("stopId must not be null.");
 		}
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = getWaitingAgents(stopId);
 		if (agents != null) {
 			if (!agents.remove(agent)) {
 				log.error("Agent " + agent.getId() + " could not be removed from waiting at stop " + stopId);
@@ -80,14 +83,72 @@ public class TransitStopAgentTracker implements AgentTracker {
 
 	@Override
 	public List<PTPassengerAgent> getAgentsAtFacility(final Id<TransitStopFacility> stopId) {
-		List<PTPassengerAgent> agents = this.agentsAtStops.get(stopId);
+		WaitingAgents agents = getWaitingAgents(stopId);
 		if (agents == null) {
 			return Collections.emptyList();
 		}
-		return Collections.unmodifiableList(agents);
+		return agents.snapshot();
 	}
 
+	/**
+	 * Copies the agents waiting at all stops, which is expensive and meant for the end of the simulation only. Use
+	 * {@link #getAgentsAtFacility(Id)} to look up the agents at a single stop.
+	 *
+	 * @return a snapshot of the agents waiting at each stop, in the order of the stop indices
+	 */
 	public Map<Id<TransitStopFacility>, List<PTPassengerAgent>> getAgentsAtStop() {
-		return this.agentsAtStops;
+		WaitingAgents[] agentsByStop = this.agentsByStopIndex;
+		Map<Id<TransitStopFacility>, List<PTPassengerAgent>> agentsAtStops = new LinkedHashMap<>();
+		for (int i = 0; i < agentsByStop.length; i++) {
+			if (agentsByStop[i] != null) {
+				agentsAtStops.put(Id.get(i, TransitStopFacility.class), agentsByStop[i].snapshot());
+			}
+		}
+		return agentsAtStops;
+	}
+
+	private WaitingAgents getWaitingAgents(final Id<TransitStopFacility> stopId) {
+		WaitingAgents[] agentsByStop = this.agentsByStopIndex;
+		int index = stopId.index();
+		return index < agentsByStop.length ? agentsByStop[index] : null;
+	}
+
+	private WaitingAgents getOrCreateWaitingAgents(final Id<TransitStopFacility> stopId) {
+		WaitingAgents agents = getWaitingAgents(stopId);
+		if (agents != null) {
+			return agents;
+		}
+		synchronized (this) {
+			WaitingAgents[] agentsByStop = this.agentsByStopIndex;
+			int index = stopId.index();
+			if (index >= agentsByStop.length) {
+				// stop ids might be created after the tracker, so grow to the current number of ids
+				WaitingAgents[] grown = new WaitingAgents[Math.max(index + 1, Id.getNumberOfIds(TransitStopFacility.class))];
+				System.arraycopy(agentsByStop, 0, grown, 0, agentsByStop.length);
+				agentsByStop = grown;
+			}
+			if (agentsByStop[index] == null) {
+				agentsByStop[index] = new WaitingAgents();
+			}
+			this.agentsByStopIndex = agentsByStop;
+			return agentsByStop[index];
+		}
+	}
+
+	private static final class WaitingAgents {
+		// in the order of arrival at the stop
+		private final LinkedHashSet<PTPassengerAgent> agents = new LinkedHashSet<>();
+
+		synchronized boolean add(PTPassengerAgent agent) {
+			return this.agents.add(agent);
+		}
+
+		synchronized boolean remove(PTPassengerAgent agent) {
+			return this.agents.remove(agent);
+		}
+
+		synchronized List<PTPassengerAgent> snapshot() {
+			return this.agents.isEmpty() ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(this.agents));
+		}
 	}
 }
@@ -19,14 +19,13 @@
 
 package org.matsim.core.mobsim.qsim.qnetsimengine;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.Queue;
 
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.matsim.api.core.v01.Coord;
@@ -132,7 +131,9 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	private double flowCapacityPerTimeStep;
 	private double remainingHolesStorageCapacity = 0.0 ;
 
-	private final Queue<QueueWithBuffer.Hole> holes = new LinkedList<>();
+	private final Queue<QueueWithBuffer.Hole> holes = new ArrayDeque<>();
+	/** holes that have arrived at the upstream end of the link, for re-use */
+	private final ArrayDeque<QueueWithBuffer.Hole> holePool = new ArrayDeque<>();
 
 	/** the last time-step the front-most vehicle in the buffer was moved. Used for detecting dead-locks. */
 	private double bufferLastMovedTime = Double.NEGATIVE_INFINITY ;
@@ -151,7 +152,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	 * (1) entry to the buffer (this is where it is computed and then stored) <br>
 	 * (2) update of the remaining flow capacity (where we account for all vehicles that are still in the buffer since previous time steps) - see {@link #subtractConsumptionOfVehiclesThatAreAlreadyInTheBuffer()} <br>
 	 */
-	private final Queue<Pair<QVehicle,Double>> buffer = new LinkedList<>() ;
+	private final VehicleBuffer buffer = new VehicleBuffer() ;
 	/**
 	 * null if the link is not signalized
 	 */
@@ -173,12 +174,14 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 	/**
 	 * Points to the latest vehicle that entered the buffer and the entry time.
 	 */
-	private Pair<QVehicle,Double> lastBufferEntry = null;
+	private QVehicle lastBufferEntryVehicle = null;
+	private double lastBufferEntryTime;
 
 	/**
 	 * Points to the latest vehicle that entered the queue and the entry time.
 	 */
-	private Pair<QVehicle,Double> lastQueueEntry = null;
+	private QVehicle lastQueueEntryVehicle = null;
+	private double lastQueueEntryTime;
 
 
 	private final VisData visData = new VisDataImpl() ;
@@ -225,12 +228,13 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 
 		double now = context.getSimTimer().getTimeOfDay() ;
 
-		double flowConsumption = (lastBufferEntry == null) ?
-				getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastBufferEntry.getKey(), now - lastBufferEntry.getValue());
+		double flowConsumption = (lastBufferEntryVehicle == null) ?
+				getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastBufferEntryVehicle, now - lastBufferEntryTime);
         this.flowcap_accumulate.addValue(-flowConsumption, now);
 
-		buffer.add(new ImmutablePair<>(veh,flowConsumption));
-		lastBufferEntry = new ImmutablePair<>(veh,now);
+		buffer.add(veh, flowConsumption);
+		lastBufferEntryVehicle = veh;
+		lastBufferEntryTime = now;
 
 		if (buffer.size() == 1) {
 			bufferLastMovedTime = now;
@@ -354,9 +358,9 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 
 	private double subtractConsumptionOfVehiclesThatAreAlreadyInTheBuffer() {
 		double remainingFlowCapThisTimeStep = flowCapacityPerTimeStep;
-		for (Pair<QVehicle,Double> vehEfficiencyPair : buffer) {
+		for (int i = 0; i < buffer.size(); i++) {
 			// Subtract size of vehicles that are already in the buffer (from previous time steps)
-			remainingFlowCapThisTimeStep -= vehEfficiencyPair.getValue();
+			remainingFlowCapThisTimeStep -= buffer.getFlowConsumption(i);
 		}
 		return remainingFlowCapThisTimeStep;
 	}
@@ -584,6 +588,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		while ( this.holes.size()>0 && this.holes.peek().getEarliestLinkExitTime() < now ) {
 			Hole hole = this.holes.poll(); // ???
             this.remainingHolesStorageCapacity += hole.getSizeInEquivalents();
+            this.holePool.push(hole);
         }
     }
 
@@ -634,15 +639,16 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
                 break;
             case kinematicWaves:
                 this.remainingHolesStorageCapacity -= veh.getSizeInEquivalents();
-				double flowConsumption = (lastQueueEntry == null) ?
-						getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastQueueEntry.getKey(), now - lastQueueEntry.getValue());
+				double flowConsumption = (lastQueueEntryVehicle == null) ?
+						getFlowCapacityConsumptionInEquivalents(veh, null, null) : getFlowCapacityConsumptionInEquivalents(veh, lastQueueEntryVehicle, now - lastQueueEntryTime);
                 this.accumulatedInflowCap -= flowConsumption;
                 break;
             default:
                 throw new RuntimeException("The traffic dynamics " + context.qsimConfig.getTrafficDynamics() + " is not implemented yet.");
 		}
 
-		lastQueueEntry = new ImmutablePair<>(veh, now);
+		lastQueueEntryVehicle = veh;
+		lastQueueEntryTime = now;
 	}
 
 	private void removeVehicleFromQueue(final QVehicle veh2Remove) {
@@ -667,7 +673,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 				break;
 			case withHoles:
 			case kinematicWaves:
-				QueueWithBuffer.Hole hole = new QueueWithBuffer.Hole() ;
+				QueueWithBuffer.Hole hole = holePool.isEmpty() ? new QueueWithBuffer.Hole() : holePool.pop() ;
 
 				//			double offset = this.storageCapacity/this.flowCapacityPerTimeStep ;
 			/* NOTE: Start with completely full link, i.e. N_storageCap cells filled.  Now make light at end of link green, discharge with
@@ -777,9 +783,9 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 			if (veh.getId().equals(vehicleId))
 				return veh;
 		}
-		for (Pair<QVehicle,Double> vehEfficiencyPair : this.buffer) {
-			if (vehEfficiencyPair.getKey().getId().equals(vehicleId))
-				return vehEfficiencyPair.getKey();
+		for (int i = 0; i < this.buffer.size(); i++) {
+			if (this.buffer.getVehicle(i).getId().equals(vehicleId))
+				return this.buffer.getVehicle(i);
 		}
 		return null;
 	}
@@ -790,8 +796,8 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		 * It will be more complicated for passingQueue. amit feb'16
 		 */
 		Collection<MobsimVehicle> vehicles = new ArrayList<>();
-		for (Pair<QVehicle, Double> pair : buffer) {
-			vehicles.add(pair.getKey());
+		for (int i = 0; i < buffer.size(); i++) {
+			vehicles.add(buffer.getVehicle(i));
 		}
 		vehicles.addAll(vehQueue);
 		return vehicles ;
@@ -811,7 +817,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 
 	private final QVehicle removeFirstVehicle(){
 		double now = context.getSimTimer().getTimeOfDay() ;
-		QVehicle veh = buffer.poll().getKey();
+		QVehicle veh = buffer.poll();
 		bufferLastMovedTime = now; // just in case there is another vehicle in the buffer that is now the new front-most
 		if( context.qsimConfig.isUsingFastCapacityUpdate() ) {
 			flowcap_accumulate.setTimeStep(now - context.qsimConfig.getTimeStepSize());
@@ -872,8 +878,8 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		}
 		vehQueue.clear();
 
-		for (Pair<QVehicle,Double> bufferEntry : buffer) {
-			QVehicle veh = bufferEntry.getKey();
+		for (int i = 0; i < buffer.size(); i++) {
+			QVehicle veh = buffer.getVehicle(i);
 			context.getEventsManager().processEvent( new VehicleAbortsEvent(now, veh.getId(), veh.getCurrentLink().getId()));
 			context.getEventsManager().processEvent( new PersonStuckEvent(now, veh.getDriver().getId(), veh.getCurrentLink().getId(), veh.getDriver().getMode()));
 
@@ -909,7 +915,7 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		if (this.buffer.isEmpty()) {
 			return this.vehQueue.peek();
 		}
-		return this.buffer.peek().getKey() ;
+		return this.buffer.peek() ;
 	}
 
 	@Override
@@ -948,6 +954,77 @@ final class QueueWithBuffer implements QLaneI, SignalizeableItem {
 		return this.id;
 	}
 
+	/**
+	 * FIFO ring buffer of vehicles and their flow capacity consumption. The two are kept in parallel arrays, so that
+	 * moving a vehicle through the buffer does not allocate.
+	 */
+	private static final class VehicleBuffer {
+		// capacity is always a power of two
+		private QVehicle[] vehicles = new QVehicle[4];
+		private double[] flowConsumptions = new double[4];
+		private int head = 0;
+		private int size = 0;
+
+		void add(QVehicle vehicle, double flowConsumption) {
+			if (size == vehicles.length) {
+				grow();
+			}
+			int index = (head + size) & (vehicles.length - 1);
+			vehicles[index] = vehicle;
+			flowConsumptions[index] = flowConsumption;
+			size++;
+		}
+
+		private void grow() {
+			QVehicle[] newVehicles = new QVehicle[vehicles.length * 2];
+			double[] newFlowConsumptions = new double[vehicles.length * 2];
+			for (int i = 0; i < size; i++) {
+				newVehicles[i] = getVehicle(i);
+				newFlowConsumptions[i] = getFlowConsumption(i);
+			}
+			vehicles = newVehicles;
+			flowConsumptions = newFlowConsumptions;
+			head = 0;
+		}
+
+		QVehicle peek() {
+			return size == 0 ? null : vehicles[head];
+		}
+
+		QVehicle poll() {
+			if (size == 0) {
+				return null;
+			}
+			QVehicle vehicle = vehicles[head];
+			vehicles[head] = null;
+			head = (head + 1) & (vehicles.length - 1);
+			size--;
+			return vehicle;
+		}
+
+		QVehicle getVehicle(int i) {
+			return vehicles[(head + i) & (vehicles.length - 1)];
+		}
+
+		double getFlowConsumption(int i) {
+			return flowConsumptions[(head + i) & (vehicles.length - 1)];
+		}
+
+		int size() {
+			return size;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void clear() {
+			Arrays.fill(vehicles, null);
+			head = 0;
+			size = 0;
+		}
+	}
+
 	static final class Hole implements QItem {
 		private double earliestLinkEndTime ;
 		private double pcu;
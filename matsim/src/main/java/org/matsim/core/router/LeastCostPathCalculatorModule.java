@@ -43,6 +43,11 @@ public class LeastCostPathCalculatorModule extends AbstractModule {
             bind(LeastCostPathCalculatorFactory.class).to(AStarLandmarksFactory.class);
         } else if (config.controller().getRoutingAlgorithmType().equals(ControllerConfigGroup.RoutingAlgorithmType.SpeedyALT)) {
             bind(LeastCostPathCalculatorFactory.class).to(SpeedyALTFactory.class);
+            if (config.controller().getLandmarksTimeSliceSize() > 0 || config.controller().getRouteCacheSize() > 0
+                    || config.controller().getSharedOriginTreesTimeBinSize() > 0) {
+                // drops the time dependent landmarks and shared origin trees, and updates the route caches at the start of every iteration
+                addControlerListenerBinding().to(SpeedyALTFactory.class);
+            }
         }
     }
 
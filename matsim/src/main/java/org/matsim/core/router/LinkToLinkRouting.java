@@ -107,9 +107,12 @@ public class LinkToLinkRouting
                 filteredNetwork = NetworkUtils.createNetwork(scenario.getConfig().network());
                 filter.filter(filteredNetwork, modes);
 
+                this.singleModeNetworksCache.getSingleModeNetworksCache().put(mode, filteredNetwork);
+            }
+            // the filtered network might already have been created by another router, without the inverted one
+            if (invertedNetwork == null) {
                 invertedNetwork = new NetworkInverter(filteredNetwork, networkTurnInfoBuilder.createAllowedTurnInfos()).getInvertedNetwork();
 
-                this.singleModeNetworksCache.getSingleModeNetworksCache().put(mode, filteredNetwork);
                 this.singleModeNetworksCache.getSingleModeNetworksCache().put(mode + "-inv", invertedNetwork);
             }
         }
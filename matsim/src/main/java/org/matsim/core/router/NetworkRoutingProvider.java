@@ -95,6 +95,9 @@ public class NetworkRoutingProvider implements Provider<RoutingModule>{
 		log.debug( "requesting network routing module with routingMode="
 						   + routingMode + ";\tmode=" + mode) ;
 
+		// filter the networks of all network modes in one parallel pass, instead of one by one as the providers are called:
+		singleModeNetworksCache.createSingleModeNetworks(routingConfigGroup.getNetworkModes());
+
 		// the network refers to the (transport)mode:
 		Network filteredNetwork = singleModeNetworksCache.getOrCreateSingleModeNetwork(mode);
 
@@ -21,6 +21,7 @@
 
  package org.matsim.core.router;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -53,6 +54,19 @@ public class SingleModeNetworksCache {
         return getSingleModeNetworksCache().computeIfAbsent(mode, this::filterNetwork);
     }
 
+    /**
+     * Makes sure the filtered networks of all given modes are available. Modes which are not yet in the cache are
+     * filtered in parallel, as the filtering only reads the full network.
+     */
+    public void createSingleModeNetworks(final Collection<String> modes) {
+        modes.stream()
+                .distinct()
+                .filter(mode -> !getSingleModeNetworksCache().containsKey(mode))
+                .toList()
+                .parallelStream()
+                .forEach(this::getOrCreateSingleModeNetwork);
+    }
+
     private Network filterNetwork(final String mode) {
         TransportModeNetworkFilter filter = new TransportModeNetworkFilter(fullNetwork);
         Set<String> modes = new HashSet<>();
@@ -0,0 +1,55 @@
+package org.matsim.core.router.speedy;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+
+/**
+ * Looks up paths in a shared {@link PathCache} first, and only passes the query on to the delegate if there is no
+ * valid path cached for the origin, destination, departure time bin and vehicle type. Networks with turn restrictions
+ * are always passed on to the delegate.
+ *
+ * Like the other routers, this implementation is not thread-safe, but all instances can share the same cache.
+ */
+public class CachingPathCalculator implements LeastCostPathCalculator {
+
+	private final PathCache cache;
+	private final LeastCostPathCalculator delegate;
+	private final boolean hasTurnRestrictions;
+
+	CachingPathCalculator(SpeedyGraph graph, PathCache cache, LeastCostPathCalculator delegate) {
+		this.cache = cache;
+		this.delegate = delegate;
+		this.hasTurnRestrictions = graph.getTurnRestrictions().isPresent();
+	}
+
+	@Override
+	public Path calcLeastCostPath(Link fromLink, Link toLink, double startTime, Person person, Vehicle vehicle) {
+		if (this.hasTurnRestrictions) {
+			return this.delegate.calcLeastCostPath(fromLink, toLink, startTime, person, vehicle);
+		}
+		return calcLeastCostPath(fromLink.getToNode(), toLink.getFromNode(), startTime, person, vehicle);
+	}
+
+	@Override
+	public Path calcLeastCostPath(Node fromNode, Node toNode, double startTime, Person person, Vehicle vehicle) {
+		if (this.hasTurnRestrictions) {
+			return this.delegate.calcLeastCostPath(fromNode, toNode, startTime, person, vehicle);
+		}
+		int fromNodeIndex = fromNode.getId().index();
+		int toNodeIndex = toNode.getId().index();
+		Id<VehicleType> vehicleType = vehicle == null ? null : vehicle.getType().getId();
+		Path path = this.cache.get(fromNodeIndex, toNodeIndex, startTime, vehicleType);
+		if (path == null) {
+			path = this.delegate.calcLeastCostPath(fromNode, toNode, startTime, person, vehicle);
+			if (path != null) {
+				this.cache.put(fromNodeIndex, toNodeIndex, startTime, vehicleType, path);
+			}
+		}
+		return path;
+	}
+}
@@ -0,0 +1,193 @@
+package org.matsim.core.router.speedy;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Least cost paths of one graph and travel time, shared by all {@link CachingPathCalculator}s and kept across
+ * iterations.
+ *
+ * The network is divided into square regions, and for each region and time bin the cache remembers in which update
+ * the travel time of any of its links changed by more than the given relative threshold. A cached path is only
+ * returned if none of the regions within its bounding box changed in the time bins between its departure and arrival
+ * since the path was calculated. {@link #update()} must be called whenever the travel times might have changed, e.g.
+ * at the start of every iteration.
+ *
+ * The paths are cached per vehicle type, as the travel times may depend on it (e.g. its maximum velocity), but without
+ * person, so the travel disutility must not depend on the person (e.g. no randomness). A cached path is returned for
+ * any departure within the time bin, so the travel times are approximated.
+ *
+ * This class is thread-safe and can safely be used by multiple threads.
+ */
+class PathCache {
+
+	private final static Logger LOG = LogManager.getLogger(PathCache.class);
+
+	private final SpeedyGraph graph;
+	private final TravelTime travelTime;
+	private final double timeBinSize;
+	private final int timeBinCount;
+	private final double changeThreshold;
+
+	private final double minX;
+	private final double minY;
+	private final double regionSize;
+	private final int regionsX;
+	private final int regionCount;
+	private final int[] regionByNode;
+
+	private final float[] travelTimes; // per link and time bin, as of the last change
+	private final int[] lastChangeByRegionAndBin;
+	private volatile int currentUpdate = 0;
+
+	private final Cache<Key, Entry> entries;
+
+	PathCache(SpeedyGraph graph, TravelTime travelTime, double timeBinSize, double endTime, double regionSize, double changeThreshold, long maxSize) {
+		this.graph = graph;
+		this.travelTime = travelTime;
+		this.timeBinSize = timeBinSize;
+		this.timeBinCount = Math.max(1, (int) Math.ceil(endTime / timeBinSize));
+		this.changeThreshold = changeThreshold;
+		this.regionSize = regionSize;
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			Node node = graph.getNode(nodeIdx);
+			if (node != null) {
+				Coord coord = node.getCoord();
+				minX = Math.min(minX, coord.getX());
+				minY = Math.min(minY, coord.getY());
+				maxX = Math.max(maxX, coord.getX());
+				maxY = Math.max(maxY, coord.getY());
+			}
+		}
+		if (minX > maxX) {
+			minX = maxX = minY = maxY = 0;
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.regionsX = (int) ((maxX - minX) / regionSize) + 1;
+		this.regionCount = this.regionsX * ((int) ((maxY - minY) / regionSize) + 1);
+		this.regionByNode = new int[graph.nodeCount];
+		for (int nodeIdx = 0; nodeIdx < graph.nodeCount; nodeIdx++) {
+			Node node = graph.getNode(nodeIdx);
+			this.regionByNode[nodeIdx] = node == null ? 0 : getRegion(node.getCoord());
+		}
+
+		this.travelTimes = new float[graph.linkCount * this.timeBinCount];
+		Arrays.fill(this.travelTimes, Float.NaN);
+		this.lastChangeByRegionAndBin = new int[this.regionCount * this.timeBinCount];
+		this.entries = CacheBuilder.newBuilder().maximumSize(maxSize).build();
+		update();
+	}
+
+	private int getRegion(Coord coord) {
+		int x = (int) ((coord.getX() - this.minX) / this.regionSize);
+		int y = (int) ((coord.getY() - this.minY) / this.regionSize);
+		return y * this.regionsX + x;
+	}
+
+	/**
+	 * Compares the current travel times with the ones of the last update and marks the regions and time bins with
+	 * changed travel times, invalidating the cached paths through them.
+	 */
+	synchronized void update() {
+		int update = this.currentUpdate + 1;
+		int changedLinks = 0;
+		for (int linkIdx = 0; linkIdx < this.graph.linkCount; linkIdx++) {
+			Link link = this.graph.getLink(linkIdx);
+			if (link == null) {
+				continue;
+			}
+			int fromRegion = getRegion(link.getFromNode().getCoord());
+			int toRegion = getRegion(link.getToNode().getCoord());
+			boolean changed = false;
+			for (int bin = 0; bin < this.timeBinCount; bin++) {
+				double tt = this.travelTime.getLinkTravelTime(link, (bin + 0.5) * this.timeBinSize, null, null);
+				int index = linkIdx * this.timeBinCount + bin;
+				double oldTT = this.travelTimes[index];
+				if (Double.isNaN(oldTT) || Math.abs(tt - oldTT) > this.changeThreshold * oldTT) {
+					this.travelTimes[index] = (float) tt;
+					this.lastChangeByRegionAndBin[bin * this.regionCount + fromRegion] = update;
+					this.lastChangeByRegionAndBin[bin * this.regionCount + toRegion] = update;
+					changed = true;
+				}
+			}
+			if (changed) {
+				changedLinks++;
+			}
+		}
+		this.currentUpdate = update;
+		LOG.info("updated path cache: " + changedLinks + " links with changed travel times, " + this.entries.size() + " cached paths.");
+	}
+
+	Path get(int fromNodeIndex, int toNodeIndex, double departureTime, Id<VehicleType> vehicleType) {
+		Entry entry = this.entries.getIfPresent(new Key(fromNodeIndex, toNodeIndex, getTimeBin(departureTime), vehicleType));
+		if (entry == null) {
+			return null;
+		}
+		for (int bin = entry.departureBin; bin <= entry.arrivalBin; bin++) {
+			int offset = bin * this.regionCount;
+			for (int y = entry.minRegionY; y <= entry.maxRegionY; y++) {
+				for (int x = entry.minRegionX; x <= entry.maxRegionX; x++) {
+					if (this.lastChangeByRegionAndBin[offset + y * this.regionsX + x] > entry.update) {
+						return null;
+					}
+				}
+			}
+		}
+		// copies, so callers can not modify the cached lists
+		return new Path(new ArrayList<>(entry.path.nodes), new ArrayList<>(entry.path.links), entry.path.travelTime, entry.path.travelCost);
+	}
+
+	void put(int fromNodeIndex, int toNodeIndex, double departureTime, Id<VehicleType> vehicleType, Path path) {
+		int minRegionX = Integer.MAX_VALUE;
+		int minRegionY = Integer.MAX_VALUE;
+		int maxRegionX = Integer.MIN_VALUE;
+		int maxRegionY = Integer.MIN_VALUE;
+		for (Node node : path.nodes) {
+			int region = this.regionByNode[node.getId().index()];
+			int x = region % this.regionsX;
+			int y = region / this.regionsX;
+			minRegionX = Math.min(minRegionX, x);
+			minRegionY = Math.min(minRegionY, y);
+			maxRegionX = Math.max(maxRegionX, x);
+			maxRegionY = Math.max(maxRegionY, y);
+		}
+		int departureBin = getTimeBin(departureTime);
+		int arrivalBin = getTimeBin(departureTime + path.travelTime);
+		Path copy = new Path(List.copyOf(path.nodes), List.copyOf(path.links), path.travelTime, path.travelCost);
+		this.entries.put(new Key(fromNodeIndex, toNodeIndex, departureBin, vehicleType),
+				new Entry(copy, this.currentUpdate, departureBin, arrivalBin, minRegionX, minRegionY, maxRegionX, maxRegionY));
+	}
+
+	private int getTimeBin(double time) {
+		return Math.max(0, Math.min((int) (time / this.timeBinSize), this.timeBinCount - 1));
+	}
+
+	/**
+	 * @param vehicleType null for queries without vehicle
+	 */
+	private record Key(int fromNodeIndex, int toNodeIndex, int timeBin, Id<VehicleType> vehicleType) {
+	}
+
+	private record Entry(Path path, int update, int departureBin, int arrivalBin, int minRegionX, int minRegionY, int maxRegionX,
+			int maxRegionY) {
+	}
+}
@@ -0,0 +1,140 @@
+package org.matsim.core.router.speedy;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes queries starting at the same node within the same time bin from one shared {@link LeastCostPathTree}.
+ *
+ * During replanning, many trips often start at the same link at about the same time (e.g. home-based trips in the
+ * morning). Instead of running a separate point-to-point search for each of them, this calculator computes a full
+ * least cost path tree for such an origin and time bin once it was queried a second time, and extracts all further
+ * routes from the tree. All other queries are passed on to the delegate.
+ *
+ * Routes from a shared tree are calculated for a departure at the start of the time bin, so the travel times are only
+ * approximated for departures later in the bin. There is one tree per vehicle type, calculated with the vehicle of the
+ * query that created it, so vehicle type dependent travel times (e.g. maximum speeds) are respected. The trees are
+ * calculated without person, so the travel disutility must not depend on it (e.g. no randomness). Networks with turn
+ * restrictions are always passed on to the delegate.
+ *
+ * Each tree requires memory in the order of the network size, so only the given number of trees is kept, dropping the
+ * least recently used one. The trees and request counts must be dropped with {@link #reset()} whenever the travel times
+ * change, e.g. at the start of every iteration. Like the other routers, this implementation is not thread-safe.
+ */
+public class SharedOriginTreesPathCalculator implements LeastCostPathCalculator {
+
+	private final SpeedyGraph graph;
+	private final LeastCostPathCalculator delegate;
+	private final TravelTime tt;
+	private final TravelDisutility td;
+	private final double timeBinSize;
+	private final int maxTrees;
+	private final boolean hasTurnRestrictions;
+
+	private final Map<TreeKey, Integer> requestCounts = new HashMap<>();
+	private final LinkedHashMap<TreeKey, LeastCostPathTree> trees = new LinkedHashMap<>(16, 0.75f, true);
+
+	public SharedOriginTreesPathCalculator(SpeedyGraph graph, LeastCostPathCalculator delegate, TravelTime tt, TravelDisutility td,
+			double timeBinSize, int maxTrees) {
+		this.graph = graph;
+		this.delegate = delegate;
+		this.tt = tt;
+		this.td = td;
+		this.timeBinSize = timeBinSize;
+		this.maxTrees = maxTrees;
+		this.hasTurnRestrictions = graph.getTurnRestrictions().isPresent();
+	}
+
+	@Override
+	public Path calcLeastCostPath(Link fromLink, Link toLink, double startTime, Person person, Vehicle vehicle) {
+		if (this.hasTurnRestrictions) {
+			return this.delegate.calcLeastCostPath(fromLink, toLink, startTime, person, vehicle);
+		}
+		return calcLeastCostPath(fromLink.getToNode(), toLink.getFromNode(), startTime, person, vehicle);
+	}
+
+	@Override
+	public Path calcLeastCostPath(Node fromNode, Node toNode, double startTime, Person person, Vehicle vehicle) {
+		if (this.hasTurnRestrictions || this.maxTrees <= 0) {
+			return this.delegate.calcLeastCostPath(fromNode, toNode, startTime, person, vehicle);
+		}
+
+		int timeBin = (int) (startTime / this.timeBinSize);
+		TreeKey key = new TreeKey(fromNode.getId().index(), timeBin, vehicle == null ? null : vehicle.getType().getId());
+		LeastCostPathTree tree = this.trees.get(key);
+		if (tree == null) {
+			if (this.requestCounts.merge(key, 1, Integer::sum) < 2) {
+				return this.delegate.calcLeastCostPath(fromNode, toNode, startTime, person, vehicle);
+			}
+			this.requestCounts.remove(key);
+			tree = createTree(key);
+			tree.calculate(fromNode, timeBin * this.timeBinSize, null, vehicle);
+		}
+
+		int toNodeIndex = toNode.getId().index();
+		if (Double.isInfinite(tree.getCost(toNodeIndex))) {
+			// not reachable, let the delegate handle (and report) it
+			return this.delegate.calcLeastCostPath(fromNode, toNode, startTime, person, vehicle);
+		}
+		return extractPath(tree, fromNode, toNode, timeBin * this.timeBinSize);
+	}
+
+	/**
+	 * Drops all trees and request counts, e.g. because the travel times changed.
+	 */
+	public void reset() {
+		this.requestCounts.clear();
+		this.trees.clear();
+	}
+
+	private LeastCostPathTree createTree(TreeKey key) {
+		LeastCostPathTree tree;
+		if (this.trees.size() >= this.maxTrees) {
+			// re-use the memory of the least recently used tree
+			Iterator<LeastCostPathTree> iterator = this.trees.values().iterator();
+			tree = iterator.next();
+			iterator.remove();
+		} else {
+			tree = new LeastCostPathTree(this.graph, this.tt, this.td);
+		}
+		this.trees.put(key, tree);
+		return tree;
+	}
+
+	private static Path extractPath(LeastCostPathTree tree, Node fromNode, Node toNode, double treeStartTime) {
+		int toNodeIndex = toNode.getId().index();
+		if (fromNode == toNode) {
+			return new Path(Collections.singletonList(fromNode), Collections.emptyList(), 0, 0);
+		}
+
+		List<Node> nodes = new ArrayList<>();
+		nodes.add(toNode);
+		tree.getNodePathIterator(toNode).forEachRemaining(nodes::add);
+		Collections.reverse(nodes);
+
+		List<Link> links = new ArrayList<>(nodes.size() - 1);
+		tree.getLinkPathIterator(toNode).forEachRemaining(links::add);
+		Collections.reverse(links);
+
+		double travelTime = tree.getTime(toNodeIndex).seconds() - treeStartTime;
+		return new Path(nodes, links, travelTime, tree.getCost(toNodeIndex));
+	}
+
+	private record TreeKey(int nodeIndex, int timeBin, Id<VehicleType> vehicleType) {
+	}
+}
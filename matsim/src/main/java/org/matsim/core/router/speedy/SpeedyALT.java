@@ -37,7 +37,8 @@ public class SpeedyALT implements LeastCostPathCalculator {
 	private final static Logger LOG = LogManager.getLogger(SpeedyALT.class);
 
 	private final SpeedyGraph graph;
-	private final SpeedyALTData astarData;
+	private final TimeSlicedSpeedyALTData timeSlicedData;
+	private SpeedyALTData astarData;
 	private final TravelTime tt;
 	private final TravelDisutility td;
 	private final double[] data; // 3 entries per node: cost to node, time, distance
@@ -49,8 +50,20 @@ public class SpeedyALT implements LeastCostPathCalculator {
 	private final DAryMinHeap pq;
 
 	public SpeedyALT(SpeedyALTData astarData, TravelTime tt, TravelDisutility td) {
-		this.graph = astarData.graph;
+		this(astarData.graph, astarData, null, tt, td);
+	}
+
+	/**
+	 * Uses the landmark data of the time slice of the departure time for each route query.
+	 */
+	public SpeedyALT(TimeSlicedSpeedyALTData timeSlicedData, TravelTime tt, TravelDisutility td) {
+		this(timeSlicedData.graph, timeSlicedData.getData(0), timeSlicedData, tt, td);
+	}
+
+	private SpeedyALT(SpeedyGraph graph, SpeedyALTData astarData, TimeSlicedSpeedyALTData timeSlicedData, TravelTime tt, TravelDisutility td) {
+		this.graph = graph;
 		this.astarData = astarData;
+		this.timeSlicedData = timeSlicedData;
 		this.tt = tt;
 		this.td = td;
 		this.data = new double[this.graph.nodeCount * 3];
@@ -126,6 +139,9 @@ public class SpeedyALT implements LeastCostPathCalculator {
 			this.currentIteration = Integer.MIN_VALUE;
 		}
 		boolean hasTurnRestrictions = this.graph.getTurnRestrictions().isPresent();
+		if (this.timeSlicedData != null) {
+			this.astarData = this.timeSlicedData.getData(startTime);
+		}
 
 		int startDeadend = this.astarData.getNodeDeadend(startNodeIndex);
 		int endDeadend = this.astarData.getNodeDeadend(endNodeIndex);
@@ -14,6 +14,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Preprocessed data for the ALT algorithm, see {@link SpeedyALT}.
@@ -28,7 +29,7 @@ class SpeedyALTData {
 
 	final SpeedyGraph graph;
 	private final int landmarksCount;
-	private final TravelDisutility travelCosts;
+	private final ToDoubleFunction<Link> minLinkCosts;
 	private final int[] landmarksNodeIndices;
 	private final double[] nodesData; // for each node: 2 values per landmark
 	private final int[] deadendData;
@@ -37,7 +38,7 @@ class SpeedyALTData {
 	public SpeedyALTData(SpeedyGraph graph, int landmarksCount, TravelDisutility travelCosts) {
 		this.graph = graph;
 		this.landmarksCount = landmarksCount;
-		this.travelCosts = travelCosts;
+		this.minLinkCosts = travelCosts::getLinkMinimumTravelDisutility;
 		this.landmarksNodeIndices = new int[landmarksCount];
 		this.nodesData = new double[graph.nodeCount * (landmarksCount * 2)];
 		this.deadendData = new int[graph.nodeCount];
@@ -47,6 +48,39 @@ class SpeedyALTData {
 		this.minTravelCostPerLength = this.calcMinTravelCostPerLength();
 	}
 
+	/**
+	 * Re-uses the landmarks and dead-ends of the given data, but calculates the landmark trees with different
+	 * lower bounds of the link travel costs. The bounds must not be larger than the real travel costs at any time the
+	 * data is used for, otherwise the router is no longer guaranteed to find the least cost path.
+	 */
+	SpeedyALTData(SpeedyALTData landmarks, ToDoubleFunction<Link> minLinkCosts) {
+		this.graph = landmarks.graph;
+		this.landmarksCount = landmarks.landmarksCount;
+		this.minLinkCosts = minLinkCosts;
+		this.landmarksNodeIndices = landmarks.landmarksNodeIndices;
+		this.nodesData = new double[graph.nodeCount * (landmarksCount * 2)];
+		this.deadendData = landmarks.deadendData;
+
+		if (this.landmarksCount > 0 && this.graph.getNode(this.landmarksNodeIndices[0]) != null) {
+			this.calcLandmarkTrees();
+		}
+		this.minTravelCostPerLength = this.calcMinTravelCostPerLength();
+	}
+
+	/**
+	 * Checks if this data can also be used with the given travel costs, i.e. if the lower bounds of the link travel
+	 * costs it was calculated with are not larger than the minimum link travel costs of the given ones.
+	 */
+	boolean isValidFor(TravelDisutility travelCosts) {
+		for (int linkIdx = 0; linkIdx < this.graph.linkCount; linkIdx++) {
+			Link link = this.graph.getLink(linkIdx);
+			if (link != null && this.minLinkCosts.applyAsDouble(link) > travelCosts.getLinkMinimumTravelDisutility(link)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private void findDeadEnds() {
 		LOG.info("find dead ends...");
 
@@ -169,13 +203,35 @@ class SpeedyALTData {
 		executor.shutdown();
 	}
 
+	private void calcLandmarkTrees() {
+		LOG.info("calculate landmark trees...");
+		Future<double[]>[] trees = new Future[this.landmarksCount * 2];
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+
+		for (int i = 0; i < this.landmarksCount; i++) {
+			int landmark = this.landmarksNodeIndices[i];
+			trees[i * 2] = executor.submit(() -> calculateTreeForward(landmark));
+			trees[i * 2 + 1] = executor.submit(() -> calculateTreeBackward(landmark));
+		}
+
+		for (int i = 0; i < trees.length; i++) {
+			try {
+				double[] data = trees[i].get();
+				setNodeData(data, i);
+			} catch (InterruptedException | ExecutionException e) {
+				LOG.error(e);
+			}
+		}
+		executor.shutdown();
+	}
+
 	private double calcMinTravelCostPerLength() {
 		LOG.info("calculate min travelcost...");
 		double minCost = Double.POSITIVE_INFINITY;
 		for (int linkIdx = 0; linkIdx < graph.linkCount; linkIdx++) {
 			Link link = this.graph.getLink(linkIdx);
 			if (link != null) {
-				double cost = this.travelCosts.getLinkMinimumTravelDisutility(link) / link.getLength();
+				double cost = this.minLinkCosts.applyAsDouble(link) / link.getLength();
 				if (cost < minCost) {
 					minCost = cost;
 				}
@@ -249,7 +305,7 @@ class SpeedyALTData {
 			while (outLI.next()) {
 				int toNode = outLI.getToNodeIndex();
 
-				double newCost = currCost + this.travelCosts.getLinkMinimumTravelDisutility(this.graph.getLink(outLI.getLinkIndex()));
+				double newCost = currCost + this.minLinkCosts.applyAsDouble(this.graph.getLink(outLI.getLinkIndex()));
 
 				double oldCost = data[toNode];
 				if (Double.isFinite(oldCost)) {
@@ -288,7 +344,7 @@ class SpeedyALTData {
 			while (inLI.next()) {
 				int fromNode = inLI.getFromNodeIndex();
 
-				double newCost = currCost + this.travelCosts.getLinkMinimumTravelDisutility(this.graph.getLink(inLI.getLinkIndex()));
+				double newCost = currCost + this.minLinkCosts.applyAsDouble(this.graph.getLink(inLI.getLinkIndex()));
 
 				double oldCost = data[fromNode];
 				if (Double.isFinite(oldCost)) {
@@ -1,36 +1,171 @@
 package org.matsim.core.router.speedy;
 
 import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.config.groups.TravelTimeCalculatorConfigGroup;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.IterationStartsListener;
 import org.matsim.core.router.util.LeastCostPathCalculator;
 import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
 
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * If a landmarks time slice size is set, the routers use {@link TimeSlicedSpeedyALTData} based on the travel times
+ * passed to {@link #createPathCalculator(Network, TravelDisutility, TravelTime)}. This data is dropped at the start of
+ * every iteration, so it is recalculated from the travel times of the last iteration. For this, the factory must be
+ * registered as controller listener.
+ * <p>
+ * If a shared origin trees time bin size is set, the routers are wrapped in a {@link SharedOriginTreesPathCalculator},
+ * so queries starting at the same node within the same time bin are answered from one shared least cost path tree.
+ * Their trees are dropped at the start of every iteration.
+ * <p>
+ * If a route cache size is set, the routers are wrapped in a {@link CachingPathCalculator}, with one {@link PathCache}
+ * per graph and travel time that is kept across iterations. At the start of every iteration, the cache is updated with
+ * the new travel times, which invalidates the paths through regions with changed travel times.
+ *
  * @author mrieser / Simunto, sponsored by SBB Swiss Federal Railways
  */
-public class SpeedyALTFactory implements LeastCostPathCalculatorFactory {
+@Singleton
+public class SpeedyALTFactory implements LeastCostPathCalculatorFactory, IterationStartsListener {
 
 	private final Map<Network, SpeedyGraph> graphs = new ConcurrentHashMap<>();
-	private final Map<SpeedyGraph, SpeedyALTData> landmarksData = new ConcurrentHashMap<>();
+	private final Map<SpeedyGraph, List<SpeedyALTData>> landmarksData = new ConcurrentHashMap<>();
+	private final Map<GraphAndTravelTime, TimeSlicedSpeedyALTData> timeSlicedData = new ConcurrentHashMap<>();
+	private final Map<GraphAndTravelTime, PathCache> pathCaches = new ConcurrentHashMap<>();
+	private final Set<GraphAndTravelTime> usedPathCaches = ConcurrentHashMap.newKeySet();
+	private final Set<SharedOriginTreesPathCalculator> sharedOriginTreesRouters = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+	private final double landmarksTimeSliceSize;
+	private final double timeBinSize;
+	private final double endTime;
+	private final double sharedOriginTreesTimeBinSize;
+	private final int sharedOriginTreesCount;
+	private final long routeCacheSize;
+	private final double routeCacheTimeBinSize;
+	private final double routeCacheRegionSize;
+	private final double routeCacheChangeThreshold;
+
+	public SpeedyALTFactory() {
+		this(0, 0, 0);
+	}
+
+	@Inject
+	public SpeedyALTFactory(ControllerConfigGroup controllerConfigGroup, TravelTimeCalculatorConfigGroup travelTimeCalculatorConfigGroup) {
+		this(controllerConfigGroup.getLandmarksTimeSliceSize(), travelTimeCalculatorConfigGroup.getTraveltimeBinSize(),
+				travelTimeCalculatorConfigGroup.getMaxTime(), controllerConfigGroup.getSharedOriginTreesTimeBinSize(),
+				controllerConfigGroup.getSharedOriginTreesCount(), controllerConfigGroup.getRouteCacheSize(),
+				controllerConfigGroup.getRouteCacheTimeBinSize(), controllerConfigGroup.getRouteCacheRegionSize(),
+				controllerConfigGroup.getRouteCacheChangeThreshold());
+	}
+
+	/**
+	 * @param landmarksTimeSliceSize size of the time slices of the landmark data, 0 to use free speed landmarks only
+	 * @param timeBinSize            time bin size of the travel times, used to sample the travel disutilities
+	 * @param endTime                time up to which the travel disutilities are sampled
+	 */
+	public SpeedyALTFactory(double landmarksTimeSliceSize, double timeBinSize, double endTime) {
+		this(landmarksTimeSliceSize, timeBinSize, endTime, 0, 0);
+	}
+
+	/**
+	 * @param sharedOriginTreesTimeBinSize time bin size for sharing least cost path trees between queries from the same
+	 *                                     origin, 0 to route each query separately
+	 * @param sharedOriginTreesCount       maximum number of shared trees kept by each router
+	 */
+	public SpeedyALTFactory(double landmarksTimeSliceSize, double timeBinSize, double endTime, double sharedOriginTreesTimeBinSize,
+			int sharedOriginTreesCount) {
+		this(landmarksTimeSliceSize, timeBinSize, endTime, sharedOriginTreesTimeBinSize, sharedOriginTreesCount, 0, 0, 0, 0);
+	}
+
+	private SpeedyALTFactory(double landmarksTimeSliceSize, double timeBinSize, double endTime, double sharedOriginTreesTimeBinSize,
+			int sharedOriginTreesCount, long routeCacheSize, double routeCacheTimeBinSize, double routeCacheRegionSize,
+			double routeCacheChangeThreshold) {
+		this.landmarksTimeSliceSize = landmarksTimeSliceSize;
+		this.timeBinSize = timeBinSize;
+		this.endTime = endTime;
+		this.sharedOriginTreesTimeBinSize = sharedOriginTreesTimeBinSize;
+		this.sharedOriginTreesCount = sharedOriginTreesCount;
+		this.routeCacheSize = routeCacheSize;
+		this.routeCacheTimeBinSize = routeCacheTimeBinSize;
+		this.routeCacheRegionSize = routeCacheRegionSize;
+		this.routeCacheChangeThreshold = routeCacheChangeThreshold;
+	}
 
 	@Override
 	public LeastCostPathCalculator createPathCalculator(Network network, TravelDisutility travelCosts, TravelTime travelTimes) {
-		SpeedyGraph graph = this.graphs.get(network);
-		if (graph == null) {
-			graph = SpeedyGraphBuilder.build(network);
-			this.graphs.put(network, graph);
+		// computeIfAbsent, so that routers created concurrently for the same network do not build the same data twice
+		SpeedyGraph graph = this.graphs.computeIfAbsent(network, SpeedyGraphBuilder::build);
+		SpeedyALTData landmarks = getLandmarksData(graph, travelCosts);
+		LeastCostPathCalculator router;
+		if (this.landmarksTimeSliceSize > 0) {
+			TimeSlicedSpeedyALTData sliced = this.timeSlicedData.computeIfAbsent(new GraphAndTravelTime(graph, travelTimes),
+					k -> new TimeSlicedSpeedyALTData(landmarks, travelCosts, this.landmarksTimeSliceSize, this.timeBinSize, this.endTime));
+			router = new SpeedyALT(sliced, travelTimes, travelCosts);
+		} else {
+			router = new SpeedyALT(landmarks, travelTimes, travelCosts);
 		}
-		SpeedyALTData landmarks = this.landmarksData.get(graph);
-		if (landmarks == null) {
-			int landmarksCount = Math.min(16, graph.nodeCount);
-			landmarks = new SpeedyALTData(graph, landmarksCount, travelCosts);
-			this.landmarksData.put(graph, landmarks);
+		if (this.sharedOriginTreesTimeBinSize > 0) {
+			SharedOriginTreesPathCalculator sharedOriginTrees = new SharedOriginTreesPathCalculator(graph, router, travelTimes, travelCosts,
+					this.sharedOriginTreesTimeBinSize, this.sharedOriginTreesCount);
+			this.sharedOriginTreesRouters.add(sharedOriginTrees);
+			router = sharedOriginTrees;
 		}
-		return new SpeedyALT(landmarks, travelTimes, travelCosts);
+		if (this.routeCacheSize > 0) {
+			GraphAndTravelTime key = new GraphAndTravelTime(graph, travelTimes);
+			PathCache cache = this.pathCaches.computeIfAbsent(key, k -> new PathCache(graph, travelTimes, this.routeCacheTimeBinSize,
+					this.endTime, this.routeCacheRegionSize, this.routeCacheChangeThreshold, this.routeCacheSize));
+			this.usedPathCaches.add(key);
+			router = new CachingPathCalculator(graph, cache, router);
+		}
+		return router;
+	}
+
+	/**
+	 * The landmarks data is shared by all routers on the same graph whose minimum link travel disutilities are not
+	 * lower than the ones the data was calculated with, as the landmark distances are then still lower bounds of their
+	 * costs. For other travel disutilities (e.g. of another mode on the same network), the landmark trees are
+	 * recalculated with the same landmarks.
+	 */
+	private SpeedyALTData getLandmarksData(SpeedyGraph graph, TravelDisutility travelCosts) {
+		List<SpeedyALTData> dataList = this.landmarksData.computeIfAbsent(graph, g -> new ArrayList<>());
+		synchronized (dataList) {
+			for (SpeedyALTData data : dataList) {
+				if (data.isValidFor(travelCosts)) {
+					return data;
+				}
+			}
+			SpeedyALTData data = dataList.isEmpty() ?
+					new SpeedyALTData(graph, Math.min(16, graph.nodeCount), travelCosts) :
+					new SpeedyALTData(dataList.get(0), travelCosts::getLinkMinimumTravelDisutility);
+			dataList.add(data);
+			return data;
+		}
+	}
+
+	@Override
+	public void notifyIterationStarts(IterationStartsEvent event) {
+		this.timeSlicedData.clear();
+		synchronized (this.sharedOriginTreesRouters) {
+			this.sharedOriginTreesRouters.forEach(SharedOriginTreesPathCalculator::reset);
+		}
+		// drop the caches of travel times which were not used in the last iteration, and update the others
+		this.pathCaches.keySet().retainAll(this.usedPathCaches);
+		this.usedPathCaches.clear();
+		this.pathCaches.values().forEach(PathCache::update);
+	}
+
+	private record GraphAndTravelTime(SpeedyGraph graph, TravelTime travelTime) {
 	}
 
 }
@@ -6,23 +6,22 @@ import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
 import org.matsim.core.router.util.TravelDisutility;
 import org.matsim.core.router.util.TravelTime;
 
+import jakarta.inject.Singleton;
+
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author mrieser / Simunto, sponsored by SBB Swiss Federal Railways
  */
+@Singleton
 public class SpeedyDijkstraFactory implements LeastCostPathCalculatorFactory {
 
 	private final Map<Network, SpeedyGraph> graphs = new ConcurrentHashMap<>();
 
 	@Override
 	public LeastCostPathCalculator createPathCalculator(Network network, TravelDisutility travelCosts, TravelTime travelTimes) {
-		SpeedyGraph graph = graphs.get(network);
-		if (graph == null) {
-			graph = SpeedyGraphBuilder.build(network);
-			graphs.put(network, graph);
-		}
+		SpeedyGraph graph = graphs.computeIfAbsent(network, SpeedyGraphBuilder::build);
 		return new SpeedyDijkstra(graph, travelTimes, travelCosts);
 	}
 }
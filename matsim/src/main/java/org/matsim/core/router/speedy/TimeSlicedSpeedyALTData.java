@@ -0,0 +1,76 @@
+package org.matsim.core.router.speedy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.router.util.TravelDisutility;
+
+import java.util.Arrays;
+
+/**
+ * Landmark data for {@link SpeedyALT} with one set of landmark trees per time slice.
+ *
+ * The landmark trees of {@link SpeedyALTData} are based on the minimum (free speed) travel disutility of the links,
+ * which results in weak lower bounds and thus many settled nodes when the network is congested. This class instead
+ * calculates the trees of each time slice based on the minimum travel disutility of each link at or after the start
+ * of the slice (sampled at half of the given time bin size up to the end time). As a route departing in a slice can only
+ * use links at or after the start of the slice, the bounds remain admissible.
+ *
+ * The travel disutility is evaluated without person and vehicle, so it must not depend on them (e.g. no randomness).
+ * The landmarks and dead-ends are shared with the given free speed data, but memory usage of the landmark trees is
+ * multiplied by the number of time slices.
+ *
+ * This class is thread-safe and can safely be used by multiple threads.
+ */
+class TimeSlicedSpeedyALTData {
+
+	private final static Logger LOG = LogManager.getLogger(TimeSlicedSpeedyALTData.class);
+
+	final SpeedyGraph graph;
+	private final double timeSliceSize;
+	private final SpeedyALTData[] dataBySlice;
+
+	TimeSlicedSpeedyALTData(SpeedyALTData freeSpeedData, TravelDisutility travelCosts, double timeSliceSize, double timeBinSize, double endTime) {
+		this.graph = freeSpeedData.graph;
+		this.timeSliceSize = timeSliceSize;
+		int sliceCount = Math.max(1, (int) Math.ceil(endTime / timeSliceSize));
+		this.dataBySlice = new SpeedyALTData[sliceCount];
+
+		LOG.info("calculate landmark trees for " + sliceCount + " time slices...");
+
+		double sampleStep = timeBinSize / 2;
+		int sample = (int) (endTime / sampleStep);
+		double[] minCosts = new double[Id.getNumberOfIds(Link.class)];
+		Arrays.fill(minCosts, Double.POSITIVE_INFINITY);
+
+		// going backwards in time, so the minimum costs are always those at or after the start of the current slice
+		for (int slice = sliceCount - 1; slice >= 0; slice--) {
+			double sliceStartTime = slice * timeSliceSize;
+			for (; sample >= 0 && sample * sampleStep >= sliceStartTime; sample--) {
+				double time = sample * sampleStep;
+				for (int linkIdx = 0; linkIdx < this.graph.linkCount; linkIdx++) {
+					Link link = this.graph.getLink(linkIdx);
+					if (link != null) {
+						int index = link.getId().index();
+						double cost = travelCosts.getLinkTravelDisutility(link, time, null, null);
+						if (index < minCosts.length && cost < minCosts[index]) {
+							minCosts[index] = cost;
+						}
+					}
+				}
+			}
+			double[] sliceMinCosts = minCosts.clone();
+			this.dataBySlice[slice] = new SpeedyALTData(freeSpeedData, link -> sliceMinCosts[link.getId().index()]);
+		}
+	}
+
+	SpeedyALTData getData(double time) {
+		int slice = (int) (time / this.timeSliceSize);
+		return this.dataBySlice[Math.max(0, Math.min(slice, this.dataBySlice.length - 1))];
+	}
+
+	int getTimeSliceCount() {
+		return this.dataBySlice.length;
+	}
+}
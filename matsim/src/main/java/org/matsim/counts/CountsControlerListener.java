@@ -23,7 +23,6 @@ package org.matsim.counts;
 import org.matsim.analysis.IterationStopWatch;
 import org.matsim.analysis.VolumesAnalyzer;
 import org.matsim.api.core.v01.Id;
-import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.config.groups.ControllerConfigGroup;
@@ -43,13 +42,16 @@ import org.matsim.counts.algorithms.graphs.CountsErrorGraphCreator;
 import org.matsim.counts.algorithms.graphs.CountsLoadCurveGraphCreator;
 import org.matsim.counts.algorithms.graphs.CountsSimReal24GraphCreator;
 import org.matsim.counts.algorithms.graphs.CountsSimRealPerHourGraphCreator;
+import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
 import jakarta.inject.Inject;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 import java.util.Set;
+import java.util.stream.IntStream;
 
 /**
  * @author dgrether
@@ -73,7 +75,12 @@ class CountsControlerListener implements StartupListener, IterationEndsListener
     @com.google.inject.Inject(optional=true)
     private Counts<Link> counts = null;
 
-    private final IdMap<Link, double[]> linkStats = new IdMap<>(Link.class);
+    /** links with counts, the summed volumes are stored in {@link #linkStats} at the same position */
+    private final List<Id<Link>> countLinks = new ArrayList<>();
+    /** summed volumes per count link and hour, flat [position * 24 + hour] */
+    private double[] linkStats = new double[0];
+    /** position in {@link #countLinks} by link id index, or -1 */
+    private int[] positionByLinkIndex = new int[0];
     private int iterationsUsed = 0;
 
     @Inject
@@ -91,8 +98,12 @@ class CountsControlerListener implements StartupListener, IterationEndsListener
 	@Override
 	public void notifyStartup(final StartupEvent controlerStartupEvent) {
         if (counts != null) {
-            for (Id<Link> linkId : counts.getCounts().keySet()) {
-                this.linkStats.put(linkId, new double[24]);
+            this.countLinks.addAll(counts.getCounts().keySet());
+            this.linkStats = new double[this.countLinks.size() * 24];
+            this.positionByLinkIndex = new int[Id.getNumberOfIds(Link.class)];
+            Arrays.fill(this.positionByLinkIndex, -1);
+            for (int i = 0; i < this.countLinks.size(); i++) {
+                this.positionByLinkIndex[this.countLinks.get(i).index()] = i;
             }
         }
 	}
@@ -106,26 +117,13 @@ class CountsControlerListener implements StartupListener, IterationEndsListener
 
             if (createCountsInIteration(event.getIteration())) {
                 iterationStopwatch.beginOperation(OPERATION_COMPARECOUNTS);
-                IdMap<Link, double[]> averages;
-                if (this.iterationsUsed > 1) {
-                    averages = new IdMap<>(Link.class);
-                    for (Map.Entry<Id<Link>, double[]> e : this.linkStats.entrySet()) {
-                        Id<Link> linkId = e.getKey();
-                        double[] totalVolumesPerHour = e.getValue();
-                        double[] averageVolumesPerHour = new double[totalVolumesPerHour.length];
-                        for (int i = 0; i < totalVolumesPerHour.length; i++) {
-                            averageVolumesPerHour[i] = totalVolumesPerHour[i] / this.iterationsUsed;
-                        }
-                        averages.put(linkId, averageVolumesPerHour);
-                    }
-                } else {
-                    averages = this.linkStats;
-                }
-                CountsComparisonAlgorithm cca = new CountsComparisonAlgorithm(averages, counts, network, config.getCountsScaleFactor());
+                CountsComparisonAlgorithm cca = new CountsComparisonAlgorithm(this::getAverageVolumes, counts, network, config.getCountsScaleFactor());
                 if ((this.config.getDistanceFilter() != null) && (this.config.getDistanceFilterCenterNode() != null)) {
                     cca.setDistanceFilter(this.config.getDistanceFilter(), this.config.getDistanceFilterCenterNode());
                 }
                 cca.setCountsScaleFactor(this.config.getCountsScaleFactor());
+                // the average volumes are only read, and the distance filter only reads the network
+                cca.setParallel(true);
                 cca.run();
 
                 if (this.config.getOutputFormat().contains("html") ||
@@ -149,11 +147,13 @@ class CountsControlerListener implements StartupListener, IterationEndsListener
                     Counts<Link> simCounts = new Counts<>();
                     simCounts.setDescription("sim values from iteration " + event.getIteration()); simCounts.setName("sim values from iteration " + event.getIteration()); simCounts.setYear(event.getIteration());
                     for (CountSimComparison countSimComparison : cca.getComparison()) {
-						if (simCounts.getCount(countSimComparison.getId()) == null) {
-							simCounts.createAndAddCount(countSimComparison.getId(), counts.getCount(countSimComparison.getId()).getCsLabel());
-							simCounts.getCount(countSimComparison.getId()).setCoord(counts.getCount(countSimComparison.getId()).getCoord());
+						Count<Link> simCount = simCounts.getCount(countSimComparison.getId());
+						if (simCount == null) {
+							Count<Link> count = counts.getCount(countSimComparison.getId());
+							simCount = simCounts.createAndAddCount(countSimComparison.getId(), count.getCsLabel());
+							simCount.setCoord(count.getCoord());
 						}
-						simCounts.getCount(countSimComparison.getId()).createVolume(countSimComparison.getHour(), countSimComparison.getSimulationValue());
+						simCount.createVolume(countSimComparison.getHour(), countSimComparison.getSimulationValue());
 					}
                     CountsWriter countsWriter = new CountsWriter(TransformationFactory.getCoordinateTransformation(globalConfigGroup.getCoordinateSystem(), TransformationFactory.WGS84), simCounts);
                     countsWriter.write(filename);
@@ -182,14 +182,30 @@ class CountsControlerListener implements StartupListener, IterationEndsListener
 
 	private void addVolumes(final VolumesAnalyzer volumes) {
 		this.iterationsUsed++;
-		for (Map.Entry<Id<Link>, double[]> e : this.linkStats.entrySet()) {
-			Id<Link> linkId = e.getKey();
-			double[] volumesPerHour = e.getValue();
-			double[] newVolume = getVolumesPerHourForLink(volumes, linkId);
+		// every count link writes its own part of the array, so the links can be processed in parallel
+		IntStream.range(0, this.countLinks.size()).parallel().forEach(pos -> {
+			double[] newVolume = getVolumesPerHourForLink(volumes, this.countLinks.get(pos));
 			for (int i = 0; i < 24; i++) {
-				volumesPerHour[i] += newVolume[i];
+				this.linkStats[pos * 24 + i] += newVolume[i];
 			}
+		});
+	}
+
+	/**
+	 * @return the volumes per hour averaged over the used iterations, or null if the link has no counts.
+	 */
+	private double[] getAverageVolumes(final Id<TransitStopFacility> locationId) {
+		// the location ids are created from the link ids by the comparison algorithm
+		Id<Link> linkId = Id.createLinkId(locationId);
+		int pos = linkId.index() < this.positionByLinkIndex.length ? this.positionByLinkIndex[linkId.index()] : -1;
+		if (pos < 0) {
+			return null;
+		}
+		double[] averageVolumesPerHour = new double[24];
+		for (int i = 0; i < 24; i++) {
+			averageVolumesPerHour[i] = this.linkStats[pos * 24 + i] / Math.max(1, this.iterationsUsed);
 		}
+		return averageVolumesPerHour;
 	}
 
 	private double[] getVolumesPerHourForLink(final VolumesAnalyzer volumes, final Id<Link> linkId) {
@@ -210,9 +226,7 @@ class CountsControlerListener implements StartupListener, IterationEndsListener
 
 	private void reset() {
 		this.iterationsUsed = 0;
-		for (double[] hours : this.linkStats.values()) {
-			Arrays.fill(hours, 0.0);
-		}
+		Arrays.fill(this.linkStats, 0.0);
 	}
 
 }
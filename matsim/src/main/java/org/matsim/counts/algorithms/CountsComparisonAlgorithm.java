@@ -38,6 +38,7 @@ import org.matsim.counts.Volume;
 import org.matsim.pt.transitSchedule.api.TransitStopFacility;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -49,10 +50,16 @@ import java.util.List;
  */
 public class CountsComparisonAlgorithm {
 
+	/**
+	 * Must be thread-safe if the comparison runs in parallel, see {@link #setParallel(boolean)}.
+	 */
 	public static interface VolumesForId {
 		double[] getVolumesForStop(Id<TransitStopFacility> locationId);
 	}
-	
+
+	/**
+	 * Must be thread-safe if the comparison runs in parallel, see {@link #setParallel(boolean)}.
+	 */
 	public static interface DistanceFilter {
 		boolean isInRange(Count<Link> count);
 	}
@@ -76,6 +83,8 @@ public class CountsComparisonAlgorithm {
 
 	private double countsScaleFactor;
 
+	private boolean parallel = false;
+
 	private final static Logger log = LogManager.getLogger(CountsComparisonAlgorithm.class);
 
 	public CountsComparisonAlgorithm(final VolumesAnalyzer volumes, final Counts<Link> counts, final Network network, final double countsScaleFactor) {
@@ -118,28 +127,40 @@ public class CountsComparisonAlgorithm {
 
 	/**
 	 * Creates the List with the counts vs sim values stored in the
-	 * countAttribute Attribute of this class.
+	 * countAttribute Attribute of this class. If enabled, the count locations are compared in parallel,
+	 * the order of the result is always the same as the order of the counts.
 	 */
 	private void compare() {
-		for (Count<Link> count : this.counts.getCounts().values()) {
-			if (!distanceFilter.isInRange(count)) {
-				continue;
-			}
-			double[] volumes = this.volumesPerLinkPerHour.getVolumesForStop(Id.create(count.getId(), TransitStopFacility.class));
-			if (volumes == null || volumes.length == 0) {
-				log.warn("No volumes for count location: " + count.getId().toString());
-				continue;
-			}
-			for (int hour = 1; hour <= 24; hour++) {
-				Volume volume = count.getVolume(hour);
-				if (volume != null) {
-					double countValue = volume.getValue();
-					double simValue=volumes[hour-1];
-					simValue *= this.countsScaleFactor;
-					this.result.add(new CountSimComparisonImpl(count.getId(), count.getCsLabel(), hour, countValue, simValue));
-				}
+		Collection<Count<Link>> countValues = this.counts.getCounts().values();
+		List<List<CountSimComparison>> comparisons = (this.parallel ? countValues.parallelStream() : countValues.stream())
+			.map(this::compare)
+			.toList();
+
+		for (List<CountSimComparison> comparison : comparisons) {
+			this.result.addAll(comparison);
+		}
+	}
+
+	private List<CountSimComparison> compare(Count<Link> count) {
+		if (!distanceFilter.isInRange(count)) {
+			return List.of();
+		}
+		double[] volumes = this.volumesPerLinkPerHour.getVolumesForStop(Id.create(count.getId(), TransitStopFacility.class));
+		if (volumes == null || volumes.length == 0) {
+			log.warn("No volumes for count location: " + count.getId().toString());
+			return List.of();
+		}
+		List<CountSimComparison> comparison = new ArrayList<>();
+		for (int hour = 1; hour <= 24; hour++) {
+			Volume volume = count.getVolume(hour);
+			if (volume != null) {
+				double countValue = volume.getValue();
+				double simValue=volumes[hour-1];
+				simValue *= this.countsScaleFactor;
+				comparison.add(new CountSimComparisonImpl(count.getId(), count.getCsLabel(), hour, countValue, simValue));
 			}
 		}
+		return comparison;
 	}
 
 	/**
@@ -197,5 +218,13 @@ public class CountsComparisonAlgorithm {
 	public void setCountsScaleFactor(final double countsScaleFactor) {
 		this.countsScaleFactor = countsScaleFactor;
 	}
+
+	/**
+	 * Compares the count locations in parallel. Only enable this if the {@link VolumesForId} and the
+	 * {@link DistanceFilter} are thread-safe, as they are then called concurrently. Default is false.
+	 */
+	public void setParallel(final boolean parallel) {
+		this.parallel = parallel;
+	}
 	
 }
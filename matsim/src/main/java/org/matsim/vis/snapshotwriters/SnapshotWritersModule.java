@@ -28,6 +28,7 @@ import org.matsim.core.controler.AbstractModule;
 import org.matsim.core.mobsim.framework.listeners.MobsimListener;
 import org.matsim.core.replanning.ReplanningContext;
 
+import com.google.inject.Singleton;
 import jakarta.inject.Inject;
 import jakarta.inject.Provider;
 import java.util.Collection;
@@ -46,6 +47,11 @@ public class SnapshotWritersModule extends AbstractModule {
 		if (getConfig().controller().getSnapshotFormat().contains(SnapshotFormat.positionevents)) {
 			addSnapshotWriterBinding().toProvider(PositionEventsWriterFactory.class);
 		}
+		if (getConfig().controller().getSnapshotFormat().contains(SnapshotFormat.trajectories)) {
+			bind(VehicleTrajectoriesWriter.class).in(Singleton.class);
+			addEventHandlerBinding().to(VehicleTrajectoriesWriter.class);
+			addControlerListenerBinding().to(VehicleTrajectoriesWriter.class);
+		}
 		if (getConfig().controller().getWriteSnapshotsInterval() != 0) {
 			addMobsimListenerBinding().toProvider(SnapshotWriterManagerProvider.class);
 		}
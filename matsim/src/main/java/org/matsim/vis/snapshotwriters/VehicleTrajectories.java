@@ -0,0 +1,310 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.vis.snapshotwriters;
+
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.vehicles.Vehicle;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Compact store of vehicle trajectories, consisting of one record per vehicle and link with the times the vehicle
+ * entered and left the link. Positions are not stored, but can be reconstructed for any point in time by
+ * interpolating along the link, which makes this much smaller than writing snapshots every few seconds.
+ * <p>
+ * Records must be added in the order of their enter time, which is the case when they are created from events.
+ * Queries for a time window use an index with the records overlapping each time bin, so only records near the window
+ * need to be looked at, even if some vehicles stay on a link for a very long time.
+ *
+ * @see VehicleTrajectoriesWriter
+ */
+public final class VehicleTrajectories {
+
+	/**
+	 * Header for version 1, VT/1
+	 */
+	static final int HEADER_V1 = 0x56542f31;
+
+	private final List<Id<Vehicle>> vehicleIds = new ArrayList<>();
+	private final Object2IntMap<Id<Vehicle>> vehicleIndex = new Object2IntOpenHashMap<>();
+	private final List<Id<Link>> linkIds = new ArrayList<>();
+	private final Object2IntMap<Id<Link>> linkIndex = new Object2IntOpenHashMap<>();
+
+	private final IntArrayList vehicles = new IntArrayList();
+	private final IntArrayList links = new IntArrayList();
+	private final FloatArrayList enterTimes = new FloatArrayList();
+	private final FloatArrayList leaveTimes = new FloatArrayList();
+	/** relative position on the link at the enter and leave time, usually 0 and 1 */
+	private final FloatArrayList enterPositions = new FloatArrayList();
+	private final FloatArrayList leavePositions = new FloatArrayList();
+
+	/** size of the time bins of the index [s] */
+	private static final double INDEX_BIN_SIZE = 900;
+
+	/** records overlapping each time bin, in the order of the records, built lazily: binRecords[binStart[bin]...binStart[bin+1]] */
+	private int[] binStart;
+	private int[] binRecords;
+
+	public VehicleTrajectories() {
+		this.vehicleIndex.defaultReturnValue(-1);
+		this.linkIndex.defaultReturnValue(-1);
+	}
+
+	/**
+	 * Adds a record for a vehicle on a link. The leave time is not known yet and needs to be set with
+	 * {@link #setLeave(int, double, double)}.
+	 *
+	 * @return index of the new record
+	 */
+	public int addEnter(Id<Vehicle> vehicleId, Id<Link> linkId, double time, double relativePosition) {
+		int size = this.enterTimes.size();
+		if (size > 0 && time < this.enterTimes.getFloat(size - 1)) {
+			throw new IllegalArgumentException("Records must be added in the order of their enter time.");
+		}
+		this.vehicles.add(getOrCreate(vehicleId, this.vehicleIds, this.vehicleIndex));
+		this.links.add(getOrCreate(linkId, this.linkIds, this.linkIndex));
+		this.enterTimes.add((float) time);
+		this.enterPositions.add((float) relativePosition);
+		// vehicles that never leave stay on the link until the end
+		this.leaveTimes.add(Float.POSITIVE_INFINITY);
+		this.leavePositions.add((float) relativePosition);
+		this.binStart = null;
+		return size;
+	}
+
+	public void setLeave(int record, double time, double relativePosition) {
+		this.leaveTimes.set(record, (float) time);
+		this.leavePositions.set(record, (float) relativePosition);
+		this.binStart = null;
+	}
+
+	private static <T> int getOrCreate(Id<T> id, List<Id<T>> ids, Object2IntMap<Id<T>> index) {
+		int idx = index.getInt(id);
+		if (idx < 0) {
+			idx = ids.size();
+			ids.add(id);
+			index.put(id, idx);
+		}
+		return idx;
+	}
+
+	public int size() {
+		return this.enterTimes.size();
+	}
+
+	public Id<Vehicle> getVehicleId(int record) {
+		return this.vehicleIds.get(this.vehicles.getInt(record));
+	}
+
+	public Id<Link> getLinkId(int record) {
+		return this.linkIds.get(this.links.getInt(record));
+	}
+
+	public double getEnterTime(int record) {
+		return this.enterTimes.getFloat(record);
+	}
+
+	/**
+	 * @return the leave time, or positive infinity if the vehicle did not leave the link.
+	 */
+	public double getLeaveTime(int record) {
+		return this.leaveTimes.getFloat(record);
+	}
+
+	/**
+	 * Calls the consumer with all records where the vehicle is on the link at some time within the window. A vehicle
+	 * is on the link from its enter time up to, but not including, its leave time, so at the time it moves on to the
+	 * next link, it is only reported on the next one.
+	 */
+	public void forEachRecord(double fromTime, double toTime, IntConsumer consumer) {
+		if (fromTime > toTime) {
+			return;
+		}
+		buildIndex();
+
+		int lastBin = this.binStart.length - 2;
+		int fromBin = getBin(fromTime, lastBin);
+		int toBin = getBin(toTime, lastBin);
+		for (int bin = fromBin; bin <= toBin; bin++) {
+			for (int i = this.binStart[bin]; i < this.binStart[bin + 1]; i++) {
+				int record = this.binRecords[i];
+				// records overlapping several bins are only reported from the first one in the window
+				if (bin > fromBin && getBin(this.enterTimes.getFloat(record), lastBin) < bin) {
+					continue;
+				}
+				if (this.enterTimes.getFloat(record) <= toTime && this.leaveTimes.getFloat(record) > fromTime) {
+					consumer.accept(record);
+				}
+			}
+		}
+	}
+
+	private static int getBin(double time, int lastBin) {
+		return (int) Math.max(0, Math.min(lastBin, Math.floor(time / INDEX_BIN_SIZE)));
+	}
+
+	private void buildIndex() {
+		if (this.binStart != null) {
+			return;
+		}
+
+		// vehicles which never left stay in the last bin with any enter or leave time
+		double maxTime = 0;
+		for (int i = 0; i < size(); i++) {
+			maxTime = Math.max(maxTime, this.enterTimes.getFloat(i));
+			float leave = this.leaveTimes.getFloat(i);
+			if (Float.isFinite(leave)) {
+				maxTime = Math.max(maxTime, leave);
+			}
+		}
+		int lastBin = (int) Math.floor(maxTime / INDEX_BIN_SIZE);
+
+		int[] start = new int[lastBin + 2];
+		for (int i = 0; i < size(); i++) {
+			for (int bin = getBin(this.enterTimes.getFloat(i), lastBin); bin <= getBin(this.leaveTimes.getFloat(i), lastBin); bin++) {
+				start[bin + 1]++;
+			}
+		}
+		for (int bin = 0; bin <= lastBin; bin++) {
+			start[bin + 1] += start[bin];
+		}
+
+		int[] records = new int[start[lastBin + 1]];
+		int[] next = Arrays.copyOf(start, lastBin + 1);
+		for (int i = 0; i < size(); i++) {
+			for (int bin = getBin(this.enterTimes.getFloat(i), lastBin); bin <= getBin(this.leaveTimes.getFloat(i), lastBin); bin++) {
+				records[next[bin]++] = i;
+			}
+		}
+
+		this.binRecords = records;
+		this.binStart = start;
+	}
+
+	/**
+	 * Reconstructs the positions of all vehicles on the network at the given time.
+	 */
+	public List<Position> getPositions(double time, Network network) {
+		List<Position> positions = new ArrayList<>();
+		forEachRecord(time, time, record -> {
+			Link link = network.getLinks().get(getLinkId(record));
+			if (link == null) {
+				return;
+			}
+
+			double enter = getEnterTime(record);
+			double leave = getLeaveTime(record);
+			double progress = leave > enter && Double.isFinite(leave) ? Math.min(1, (time - enter) / (leave - enter)) : 0;
+			double relativePosition = this.enterPositions.getFloat(record)
+				+ (this.leavePositions.getFloat(record) - this.enterPositions.getFloat(record)) * progress;
+
+			Coord from = link.getFromNode().getCoord();
+			Coord to = link.getToNode().getCoord();
+			Coord coord = new Coord(from.getX() + (to.getX() - from.getX()) * relativePosition,
+				from.getY() + (to.getY() - from.getY()) * relativePosition);
+
+			positions.add(new Position(getVehicleId(record), link.getId(), coord));
+		});
+		return positions;
+	}
+
+	public static void write(String filePath, VehicleTrajectories trajectories) {
+		try (DataOutputStream out = new DataOutputStream(IOUtils.getOutputStream(IOUtils.getFileUrl(filePath), false))) {
+			out.writeInt(HEADER_V1);
+
+			out.writeInt(trajectories.vehicleIds.size());
+			for (Id<Vehicle> id : trajectories.vehicleIds) {
+				out.writeUTF(id.toString());
+			}
+
+			out.writeInt(trajectories.linkIds.size());
+			for (Id<Link> id : trajectories.linkIds) {
+				out.writeUTF(id.toString());
+			}
+
+			out.writeInt(trajectories.size());
+			for (int i = 0; i < trajectories.size(); i++) {
+				out.writeInt(trajectories.vehicles.getInt(i));
+				out.writeInt(trajectories.links.getInt(i));
+				out.writeFloat(trajectories.enterTimes.getFloat(i));
+				out.writeFloat(trajectories.leaveTimes.getFloat(i));
+				out.writeFloat(trajectories.enterPositions.getFloat(i));
+				out.writeFloat(trajectories.leavePositions.getFloat(i));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	public static VehicleTrajectories read(String filePath) {
+		VehicleTrajectories trajectories = new VehicleTrajectories();
+
+		try (DataInputStream in = new DataInputStream(IOUtils.getInputStream(IOUtils.getFileUrl(filePath)))) {
+			if (in.readInt() != HEADER_V1) {
+				throw new IllegalArgumentException("Invalid trajectories file header");
+			}
+
+			int vehicles = in.readInt();
+			for (int i = 0; i < vehicles; i++) {
+				getOrCreate(Id.createVehicleId(in.readUTF()), trajectories.vehicleIds, trajectories.vehicleIndex);
+			}
+
+			int links = in.readInt();
+			for (int i = 0; i < links; i++) {
+				getOrCreate(Id.createLinkId(in.readUTF()), trajectories.linkIds, trajectories.linkIndex);
+			}
+
+			int records = in.readInt();
+			for (int i = 0; i < records; i++) {
+				trajectories.vehicles.add(in.readInt());
+				trajectories.links.add(in.readInt());
+				trajectories.enterTimes.add(in.readFloat());
+				trajectories.leaveTimes.add(in.readFloat());
+				trajectories.enterPositions.add(in.readFloat());
+				trajectories.leavePositions.add(in.readFloat());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return trajectories;
+	}
+
+	/**
+	 * Reconstructed position of a vehicle.
+	 */
+	public record Position(Id<Vehicle> vehicleId, Id<Link> linkId, Coord coord) {
+	}
+}
@@ -0,0 +1,139 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.vis.snapshotwriters;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.events.VehicleAbortsEvent;
+import org.matsim.api.core.v01.events.VehicleEntersTrafficEvent;
+import org.matsim.api.core.v01.events.VehicleLeavesTrafficEvent;
+import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
+import org.matsim.api.core.v01.events.handler.LinkLeaveEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleAbortsEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleEntersTrafficEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleLeavesTrafficEventHandler;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.config.groups.QSimConfigGroup;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.vehicles.Vehicle;
+
+import jakarta.inject.Inject;
+import java.util.Objects;
+
+/**
+ * Collects the {@link VehicleTrajectories} of all vehicles from the link events and writes them at the end of each
+ * iteration in which snapshots would be written. Unlike the snapshot writers, this does not depend on the snapshot
+ * period, because positions can be reconstructed for any time afterwards.
+ */
+public final class VehicleTrajectoriesWriter implements LinkEnterEventHandler, LinkLeaveEventHandler,
+	VehicleEntersTrafficEventHandler, VehicleLeavesTrafficEventHandler, VehicleAbortsEventHandler, IterationEndsListener {
+
+	public static final String FILENAME = "trajectories.bin.gz";
+
+	private final Network network;
+	private final ControllerConfigGroup controllerConfigGroup;
+	private final QSimConfigGroup qSimConfigGroup;
+	private final OutputDirectoryHierarchy controlerIO;
+
+	/** record on the current link per vehicle */
+	private final Object2IntMap<Id<Vehicle>> currentRecords = new Object2IntOpenHashMap<>();
+	private VehicleTrajectories trajectories = null;
+
+	@Inject
+	VehicleTrajectoriesWriter(Network network, ControllerConfigGroup controllerConfigGroup, QSimConfigGroup qSimConfigGroup,
+							  OutputDirectoryHierarchy controlerIO) {
+		this.network = network;
+		this.controllerConfigGroup = controllerConfigGroup;
+		this.qSimConfigGroup = qSimConfigGroup;
+		this.controlerIO = controlerIO;
+		this.currentRecords.defaultReturnValue(-1);
+	}
+
+	@Override
+	public void reset(int iteration) {
+		this.currentRecords.clear();
+		int interval = this.controllerConfigGroup.getWriteSnapshotsInterval();
+		this.trajectories = interval > 0 && iteration % interval == 0 ? new VehicleTrajectories() : null;
+	}
+
+	@Override
+	public void handleEvent(VehicleEntersTrafficEvent event) {
+		enter(event.getVehicleId(), event.getLinkId(), event.getTime(), event.getRelativePositionOnLink());
+	}
+
+	@Override
+	public void handleEvent(LinkEnterEvent event) {
+		enter(event.getVehicleId(), event.getLinkId(), event.getTime(), 0.0);
+	}
+
+	@Override
+	public void handleEvent(LinkLeaveEvent event) {
+		leave(event.getVehicleId(), event.getTime(), 1.0);
+	}
+
+	@Override
+	public void handleEvent(VehicleLeavesTrafficEvent event) {
+		leave(event.getVehicleId(), event.getTime(), event.getRelativePositionOnLink());
+	}
+
+	@Override
+	public void handleEvent(VehicleAbortsEvent event) {
+		// stuck vehicles are removed from the end of the link, where they were waiting
+		leave(event.getVehicleId(), event.getTime(), 1.0);
+	}
+
+	private void enter(Id<Vehicle> vehicleId, Id<Link> linkId, double time, double relativePosition) {
+		if (this.trajectories != null && isRecorded(linkId)) {
+			this.currentRecords.put(vehicleId, this.trajectories.addEnter(vehicleId, linkId, time, relativePosition));
+		}
+	}
+
+	private void leave(Id<Vehicle> vehicleId, double time, double relativePosition) {
+		if (this.trajectories != null) {
+			int record = this.currentRecords.removeInt(vehicleId);
+			if (record >= 0) {
+				this.trajectories.setLeave(record, time, relativePosition);
+			}
+		}
+	}
+
+	private boolean isRecorded(Id<Link> linkId) {
+		if (this.qSimConfigGroup.getFilterSnapshots() == QSimConfigGroup.FilterSnapshots.withLinkAttributes) {
+			Link link = this.network.getLinks().get(linkId);
+			return link != null && Objects.equals(link.getAttributes().getAttribute(SnapshotWritersModule.GENERATE_SNAPSHOT_FOR_LINK_KEY), true);
+		}
+		return true;
+	}
+
+	@Override
+	public void notifyIterationEnds(IterationEndsEvent event) {
+		if (this.trajectories != null) {
+			VehicleTrajectories.write(this.controlerIO.getIterationFilename(event.getIteration(), FILENAME), this.trajectories);
+			this.trajectories = null;
+		}
+	}
+}
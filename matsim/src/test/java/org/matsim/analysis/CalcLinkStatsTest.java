@@ -19,7 +19,9 @@
 
 package org.matsim.analysis;
 
+import java.io.DataInputStream;
 import java.io.File;
+import java.io.IOException;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -39,6 +41,7 @@ import org.matsim.core.router.util.TravelTime;
 import org.matsim.core.scenario.ScenarioUtils;
 import org.matsim.core.trafficmonitoring.FreeSpeedTravelTime;
 import org.matsim.core.trafficmonitoring.TravelTimeCalculator;
+import org.matsim.core.utils.io.IOUtils;
 import org.matsim.testcases.MatsimTestUtils;
 import org.matsim.vehicles.Vehicle;
 
@@ -282,4 +285,80 @@ public class CalcLinkStatsTest {
 		Assertions.assertEquals(2.5, cls2.getAvgLinkVolumes(link1.getId())[1], 1e-8);
 		Assertions.assertEquals(3.0, cls2.getAvgLinkVolumes(link2.getId())[1], 1e-8);
 	}
+
+	@Test
+	void testAddData_rolling() {
+		Scenario s = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = s.getNetwork();
+		NetworkFactory nf = network.getFactory();
+
+		Node node1 = nf.createNode(Id.create("1", Node.class), new Coord((double) 0, (double) 0));
+		Node node2 = nf.createNode(Id.create("2", Node.class), new Coord((double) 1000, (double) 0));
+		network.addNode(node1);
+		network.addNode(node2);
+		Link link1 = nf.createLink(Id.create("101", Link.class), node1, node2);
+		network.addLink(link1);
+
+		VolumesAnalyzer analyzer = new VolumesAnalyzer(3600, 86400, network);
+		TravelTime ttimes = new FreeSpeedTravelTime();
+		CalcLinkStats cls = new CalcLinkStats(network, 2);
+
+		Id<Vehicle> vehId = Id.create("1001", Vehicle.class);
+		// 1, 3 and 5 vehicles in hour 0 of three iterations
+		double[] expectedAverages = { 1.0, 2.0, 4.0 };
+		for (int iteration = 0; iteration < 3; iteration++) {
+			analyzer.reset(iteration);
+			for (int i = 0; i < 2 * iteration + 1; i++) {
+				analyzer.handleEvent(new LinkLeaveEvent(1000 + i, vehId, link1.getId()));
+			}
+			cls.addData(analyzer, ttimes);
+			// only the last two iterations are averaged, without any reset
+			Assertions.assertEquals(expectedAverages[iteration], cls.getAvgLinkVolumes(link1.getId())[0], 1e-8);
+		}
+
+		cls.reset();
+		Assertions.assertEquals(0, cls.getAvgLinkVolumes(link1.getId()).length);
+	}
+
+	@Test
+	void testWriteBinary() throws IOException {
+		Scenario s = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = s.getNetwork();
+		NetworkFactory nf = network.getFactory();
+
+		Node node1 = nf.createNode(Id.create("1", Node.class), new Coord((double) 0, (double) 0));
+		Node node2 = nf.createNode(Id.create("2", Node.class), new Coord((double) 1000, (double) 0));
+		network.addNode(node1);
+		network.addNode(node2);
+		Link link1 = nf.createLink(Id.create("101", Link.class), node1, node2);
+		link1.setLength(1000);
+		link1.setFreespeed(10);
+		network.addLink(link1);
+
+		VolumesAnalyzer analyzer = new VolumesAnalyzer(3600, 86400, network);
+		TravelTime ttimes = new FreeSpeedTravelTime();
+		CalcLinkStats cls = new CalcLinkStats(network);
+
+		Id<Vehicle> vehId = Id.create("1001", Vehicle.class);
+		analyzer.handleEvent(new LinkLeaveEvent(1000, vehId, link1.getId()));
+		analyzer.handleEvent(new LinkLeaveEvent(1010, vehId, link1.getId()));
+		analyzer.handleEvent(new LinkLeaveEvent(4000, vehId, link1.getId()));
+		cls.addData(analyzer, ttimes);
+
+		String filename = this.util.getOutputDirectory() + "linkstats.bin";
+		cls.writeBinary(filename);
+
+		try (DataInputStream in = new DataInputStream(IOUtils.getInputStream(IOUtils.getFileUrl(filename)))) {
+			Assertions.assertEquals(CalcLinkStats.BINARY_HEADER_V1, in.readInt());
+			Assertions.assertEquals(24, in.readInt());
+			Assertions.assertEquals(1, in.readInt());
+			Assertions.assertEquals("101", in.readUTF());
+			Assertions.assertEquals(2.0f, in.readFloat(), 1e-6);
+			Assertions.assertEquals(1.0f, in.readFloat(), 1e-6);
+			for (int i = 2; i < 24; i++) {
+				Assertions.assertEquals(0.0f, in.readFloat(), 1e-6);
+			}
+			Assertions.assertEquals(100.0f, in.readFloat(), 1e-3);
+		}
+	}
 }
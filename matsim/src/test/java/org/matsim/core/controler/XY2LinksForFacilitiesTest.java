@@ -0,0 +1,68 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.facilities.ActivityFacilities;
+import org.matsim.facilities.ActivityFacilitiesFactory;
+import org.matsim.facilities.ActivityFacility;
+
+public class XY2LinksForFacilitiesTest {
+
+	@Test
+	void testParallelAssignment_sameAsSequential() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+
+		ActivityFacilities facilities = scenario.getActivityFacilities();
+		ActivityFacilitiesFactory factory = facilities.getFactory();
+		Id<Link> givenLinkId = Id.createLinkId("1");
+		for (int i = 0; i < 1000; i++) {
+			Coord coord = new Coord(-25000 + (i * 37) % 40000, -10000 + (i * 53) % 20000);
+			Id<ActivityFacility> id = Id.create(i, ActivityFacility.class);
+			// every tenth facility already has a link, which must be kept
+			facilities.addActivityFacility(i % 10 == 0 ? factory.createActivityFacility(id, coord, givenLinkId) : factory.createActivityFacility(id, coord));
+		}
+
+		XY2LinksForFacilities.run(network, facilities, 4);
+
+		for (ActivityFacility facility : facilities.getFacilities().values()) {
+			assertNotNull(facility.getLinkId());
+			if (Integer.parseInt(facility.getId().toString()) % 10 == 0) {
+				assertEquals(givenLinkId, facility.getLinkId());
+			} else {
+				assertEquals(NetworkUtils.getNearestLink(network, facility.getCoord()).getId(), facility.getLinkId());
+			}
+		}
+	}
+}
@@ -164,4 +164,13 @@ public class EventsReadersTest {
 		events.finishProcessing();
 		assertEquals(9, handler.eventCounter, "number of read events");
 	}
+
+	@Test
+	final void testReadEventsParallel() {
+		TestHandler handler1 = new TestHandler();
+		TestHandler handler2 = new TestHandler();
+		EventsUtils.readEventsParallel(utils.getClassInputDirectory() + "events.xml", handler1, handler2);
+		assertEquals(9, handler1.eventCounter, "number of read events");
+		assertEquals(9, handler2.eventCounter, "number of read events");
+	}
 }
@@ -149,6 +149,49 @@ public class HermesTest {
 	}
 
 
+	/**
+	 * Tests that with incremental import an unchanged plan is simulated again, and a newly selected plan is re-imported.
+	 */
+	@Test
+	void testSingleAgentIncrementalImport() {
+		Fixture f = new Fixture();
+		f.scenario.getConfig().hermes().setIncrementalImport(true);
+
+		Person person = PopulationUtils.getFactory().createPerson(Id.create(0, Person.class));
+		Plan plan = PersonUtils.createAndAddPlan(person, true);
+		Activity a1 = PopulationUtils.createAndAddActivityFromLinkId(plan, "h", f.link1.getId());
+		a1.setEndTime(6*3600);
+		Leg leg = PopulationUtils.createAndAddLeg( plan, TransportMode.car );
+		TripStructureUtils.setRoutingMode( leg, TransportMode.car );
+		NetworkRoute route = f.scenario.getPopulation().getFactory().getRouteFactories().createRoute(NetworkRoute.class, f.link1.getId(), f.link3.getId());
+		route.setLinkIds(f.link1.getId(), f.linkIds2, f.link3.getId());
+		leg.setRoute(route);
+		PopulationUtils.createAndAddActivityFromLinkId(plan, "w", f.link3.getId());
+		f.plans.addPerson(person);
+
+		EventsManager events = EventsUtils.createEventsManager();
+		LinkEnterEventCollector collector = new LinkEnterEventCollector();
+		events.addHandler(collector);
+
+		// the second run re-uses the imported agent
+		for (int i = 0; i < 2; i++) {
+			collector.events.clear();
+			createHermes(f, events).run();
+			Assertions.assertEquals(2, collector.events.size(), "wrong number of link enter events.");
+			Assertions.assertEquals(6.0*3600, collector.events.get(0).getTime(), MatsimTestUtils.EPSILON, "wrong time in first event.");
+			Assertions.assertEquals(6.0*3600 + 11, collector.events.get(1).getTime(), MatsimTestUtils.EPSILON, "wrong time in second event.");
+		}
+
+		// a new selected plan is re-imported
+		Plan newPlan = person.createCopyOfSelectedPlanAndMakeSelected();
+		((Activity) newPlan.getPlanElements().get(0)).setEndTime(7*3600);
+		collector.events.clear();
+		createHermes(f, events).run();
+		Assertions.assertEquals(2, collector.events.size(), "wrong number of link enter events.");
+		Assertions.assertEquals(7.0*3600, collector.events.get(0).getTime(), MatsimTestUtils.EPSILON, "wrong time in first event.");
+		Assertions.assertEquals(7.0*3600 + 11, collector.events.get(1).getTime(), MatsimTestUtils.EPSILON, "wrong time in second event.");
+	}
+
 	/**
 	 * This test is mostly useful for manual debugging, because only a single agent is simulated
 	 * on a very simple network.
@@ -0,0 +1,98 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.router;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.ControllerConfigGroup;
+import org.matsim.core.controler.AbstractModule;
+import org.matsim.core.controler.Injector;
+import org.matsim.core.controler.events.IterationStartsEvent;
+import org.matsim.core.controler.listener.ControlerListener;
+import org.matsim.core.controler.listener.IterationStartsListener;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.LeastCostPathCalculatorFactory;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.vehicles.Vehicle;
+
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+
+public class LeastCostPathCalculatorModuleTest {
+
+	@Test
+	void testSharedOriginTrees_droppedAtIterationStart() {
+		Config config = ConfigUtils.createConfig();
+		config.controller().setRoutingAlgorithmType(ControllerConfigGroup.RoutingAlgorithmType.SpeedyALT);
+		config.controller().setSharedOriginTreesTimeBinSize(900);
+
+		com.google.inject.Injector injector = Injector.createInjector(config, new AbstractModule() {
+			@Override
+			public void install() {
+				install(new LeastCostPathCalculatorModule());
+			}
+		});
+
+		Network network = NetworkUtils.createNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+		double[] factor = { 1.0 };
+		TravelTime travelTime = new TravelTime() {
+			@Override
+			public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+				return factor[0] * link.getLength() / link.getFreespeed();
+			}
+		};
+		LeastCostPathCalculator router = injector.getInstance(LeastCostPathCalculatorFactory.class)
+				.createPathCalculator(network, new OnlyTimeDependentTravelDisutility(travelTime), travelTime);
+
+		Node node1 = network.getNodes().get(Id.create("1", Node.class));
+		Node node15 = network.getNodes().get(Id.create("15", Node.class));
+		// the second query from the same origin and time bin creates a shared tree
+		router.calcLeastCostPath(node1, node15, 8 * 3600, null, null);
+		Path path = router.calcLeastCostPath(node1, node15, 8 * 3600, null, null);
+
+		factor[0] = 2.0;
+		Set<ControlerListener> listeners = injector.getInstance(Key.get(new TypeLiteral<Set<ControlerListener>>() {}));
+		for (ControlerListener listener : listeners) {
+			if (listener instanceof IterationStartsListener iterationStartsListener) {
+				iterationStartsListener.notifyIterationStarts(new IterationStartsEvent(null, 1, false));
+			}
+		}
+
+		// the tree of the last iteration must not be used anymore
+		Path newPath = router.calcLeastCostPath(node1, node15, 8 * 3600, null, null);
+		assertEquals(2 * path.travelTime, newPath.travelTime, 1e-6);
+	}
+
+}
@@ -0,0 +1,155 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.router.speedy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+
+public class CachingPathCalculatorTest {
+
+	@Test
+	void testCachedPaths_invalidatedByTravelTimeChanges() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+
+		double[] factor = { 1.0 };
+		TravelTime travelTime = new TravelTime() {
+			@Override
+			public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+				return factor[0] * link.getLength() / link.getFreespeed();
+			}
+		};
+		OnlyTimeDependentTravelDisutility travelDisutility = new OnlyTimeDependentTravelDisutility(travelTime);
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
+		CountingPathCalculator delegate = new CountingPathCalculator(new SpeedyDijkstra(graph, travelTime, travelDisutility));
+		PathCache cache = new PathCache(graph, travelTime, 3600, 30 * 3600, 2000, 0.1, 1000);
+		CachingPathCalculator router = new CachingPathCalculator(graph, cache, delegate);
+
+		Node node1 = network.getNodes().get(Id.create("1", Node.class));
+		Node node15 = network.getNodes().get(Id.create("15", Node.class));
+
+		Path path = router.calcLeastCostPath(node1, node15, 8 * 3600, null, null);
+		assertEquals(1, delegate.count);
+
+		// same time bin: from the cache
+		Path cachedPath = router.calcLeastCostPath(node1, node15, 8 * 3600 + 600, null, null);
+		assertEquals(1, delegate.count);
+		assertEquals(path.links, cachedPath.links);
+		assertEquals(path.travelCost, cachedPath.travelCost, 1e-9);
+
+		// other time bin
+		router.calcLeastCostPath(node1, node15, 12 * 3600, null, null);
+		assertEquals(2, delegate.count);
+
+		// small changes keep the cached paths
+		factor[0] = 1.05;
+		cache.update();
+		router.calcLeastCostPath(node1, node15, 8 * 3600, null, null);
+		assertEquals(2, delegate.count);
+
+		// larger changes invalidate them
+		factor[0] = 2.0;
+		cache.update();
+		Path newPath = router.calcLeastCostPath(node1, node15, 8 * 3600, null, null);
+		assertEquals(3, delegate.count);
+		assertEquals(2 * path.travelCost, newPath.travelCost, 1e-6);
+	}
+
+	@Test
+	void testCachedPaths_perVehicleType() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+
+		TravelTime travelTime = new TravelTime() {
+			@Override
+			public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+				double speed = vehicle == null ? link.getFreespeed() : Math.min(link.getFreespeed(), vehicle.getType().getMaximumVelocity());
+				return link.getLength() / speed;
+			}
+		};
+		OnlyTimeDependentTravelDisutility travelDisutility = new OnlyTimeDependentTravelDisutility(travelTime);
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
+		SpeedyDijkstra dijkstra = new SpeedyDijkstra(graph, travelTime, travelDisutility);
+		CountingPathCalculator delegate = new CountingPathCalculator(new SpeedyDijkstra(graph, travelTime, travelDisutility));
+		PathCache cache = new PathCache(graph, travelTime, 3600, 30 * 3600, 2000, 0.1, 1000);
+		CachingPathCalculator router = new CachingPathCalculator(graph, cache, delegate);
+
+		VehicleType fast = VehicleUtils.createVehicleType(Id.create("fast", VehicleType.class));
+		fast.setMaximumVelocity(100);
+		VehicleType slow = VehicleUtils.createVehicleType(Id.create("slow", VehicleType.class));
+		slow.setMaximumVelocity(5);
+		Vehicle fastVehicle = VehicleUtils.createVehicle(Id.createVehicleId("fast"), fast);
+		Vehicle slowVehicle = VehicleUtils.createVehicle(Id.createVehicleId("slow"), slow);
+
+		Node node1 = network.getNodes().get(Id.create("1", Node.class));
+		Node node15 = network.getNodes().get(Id.create("15", Node.class));
+
+		Path fastPath = router.calcLeastCostPath(node1, node15, 8 * 3600, null, fastVehicle);
+		assertEquals(1, delegate.count);
+
+		// the slow vehicle must not get the path of the fast one
+		Path slowPath = router.calcLeastCostPath(node1, node15, 8 * 3600, null, slowVehicle);
+		assertEquals(2, delegate.count);
+		assertEquals(dijkstra.calcLeastCostPath(node1, node15, 8 * 3600, null, slowVehicle).travelTime, slowPath.travelTime, 1e-6);
+		assertTrue(slowPath.travelTime > fastPath.travelTime);
+
+		// but both are cached for their own type
+		Path cachedFastPath = router.calcLeastCostPath(node1, node15, 8 * 3600 + 600, null, fastVehicle);
+		Path cachedSlowPath = router.calcLeastCostPath(node1, node15, 8 * 3600 + 600, null, slowVehicle);
+		assertEquals(2, delegate.count);
+		assertEquals(fastPath.travelTime, cachedFastPath.travelTime, 1e-9);
+		assertEquals(slowPath.travelTime, cachedSlowPath.travelTime, 1e-9);
+	}
+
+	private static class CountingPathCalculator implements LeastCostPathCalculator {
+		private final LeastCostPathCalculator delegate;
+		private int count = 0;
+
+		CountingPathCalculator(LeastCostPathCalculator delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public Path calcLeastCostPath(Node fromNode, Node toNode, double startTime, Person person, Vehicle vehicle) {
+			this.count++;
+			return this.delegate.calcLeastCostPath(fromNode, toNode, startTime, person, vehicle);
+		}
+	}
+}
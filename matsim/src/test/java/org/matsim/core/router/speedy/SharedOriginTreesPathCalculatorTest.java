@@ -0,0 +1,114 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.router.speedy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.ScoringConfigGroup;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.router.costcalculators.FreespeedTravelTimeAndDisutility;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+
+public class SharedOriginTreesPathCalculatorTest {
+
+	@Test
+	void testRoutesFromSharedTrees_sameAsDijkstra() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+
+		FreespeedTravelTimeAndDisutility travelTimeCostCalculator = new FreespeedTravelTimeAndDisutility(new ScoringConfigGroup());
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
+		SpeedyDijkstra dijkstra = new SpeedyDijkstra(graph, travelTimeCostCalculator, travelTimeCostCalculator);
+		SharedOriginTreesPathCalculator shared = new SharedOriginTreesPathCalculator(graph,
+				new SpeedyDijkstra(graph, travelTimeCostCalculator, travelTimeCostCalculator), travelTimeCostCalculator,
+				travelTimeCostCalculator, 900, 2);
+
+		// the first round is routed by the delegate, the following ones from the shared trees
+		for (int round = 0; round < 3; round++) {
+			for (Node fromNode : network.getNodes().values()) {
+				for (Node toNode : network.getNodes().values()) {
+					Path expected = dijkstra.calcLeastCostPath(fromNode, toNode, 8 * 3600, null, null);
+					Path actual = shared.calcLeastCostPath(fromNode, toNode, 8 * 3600 + 60, null, null);
+					// equil has several routes with the same costs, so only compare the end points and the costs
+					String message = "from " + fromNode.getId() + " to " + toNode.getId();
+					assertEquals(expected.nodes.get(0), actual.nodes.get(0), message);
+					assertEquals(toNode, actual.nodes.get(actual.nodes.size() - 1), message);
+					assertEquals(expected.travelTime, actual.travelTime, 1e-6, message);
+					assertEquals(expected.travelCost, actual.travelCost, 1e-6, message);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testRoutesFromSharedTrees_perVehicleType() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+
+		TravelTime travelTime = new TravelTime() {
+			@Override
+			public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+				return link.getLength() / Math.min(link.getFreespeed(), vehicle.getType().getMaximumVelocity());
+			}
+		};
+		OnlyTimeDependentTravelDisutility travelDisutility = new OnlyTimeDependentTravelDisutility(travelTime);
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
+		SpeedyDijkstra dijkstra = new SpeedyDijkstra(graph, travelTime, travelDisutility);
+		SharedOriginTreesPathCalculator shared = new SharedOriginTreesPathCalculator(graph,
+				new SpeedyDijkstra(graph, travelTime, travelDisutility), travelTime, travelDisutility, 900, 4);
+
+		VehicleType fast = VehicleUtils.createVehicleType(Id.create("fast", VehicleType.class));
+		fast.setMaximumVelocity(100);
+		VehicleType slow = VehicleUtils.createVehicleType(Id.create("slow", VehicleType.class));
+		slow.setMaximumVelocity(5);
+		Vehicle[] vehicles = {VehicleUtils.createVehicle(Id.createVehicleId("fast"), fast), VehicleUtils.createVehicle(Id.createVehicleId("slow"), slow)};
+
+		Node fromNode = network.getNodes().get(Id.createNodeId("1"));
+		for (int round = 0; round < 3; round++) {
+			for (Vehicle vehicle : vehicles) {
+				for (Node toNode : network.getNodes().values()) {
+					Path expected = dijkstra.calcLeastCostPath(fromNode, toNode, 8 * 3600, null, vehicle);
+					Path actual = shared.calcLeastCostPath(fromNode, toNode, 8 * 3600 + 60, null, vehicle);
+					String message = vehicle.getId() + " to " + toNode.getId();
+					assertEquals(expected.travelTime, actual.travelTime, 1e-6, message);
+					assertEquals(expected.travelCost, actual.travelCost, 1e-6, message);
+				}
+			}
+			// travel times may change between iterations
+			shared.reset();
+		}
+	}
+}
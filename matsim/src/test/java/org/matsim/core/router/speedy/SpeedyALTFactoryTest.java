@@ -0,0 +1,84 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.router.speedy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.vehicles.Vehicle;
+
+public class SpeedyALTFactoryTest {
+
+	@Test
+	void testLandmarks_notSharedWithLowerTravelDisutilities() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+
+		TravelTime travelTime = (link, time, person, vehicle) -> link.getLength() / link.getFreespeed();
+		TravelDisutility expensive = new OnlyTimeDependentTravelDisutility(travelTime);
+		// e.g. another mode on the same network, for which the landmarks of the first one would overestimate the costs
+		TravelDisutility cheap = new TravelDisutility() {
+			@Override
+			public double getLinkTravelDisutility(Link link, double time, Person person, Vehicle vehicle) {
+				return getLinkMinimumTravelDisutility(link);
+			}
+
+			@Override
+			public double getLinkMinimumTravelDisutility(Link link) {
+				return link.getId().toString().equals("6") ? 1.0 : 0.1 * link.getLength() / link.getFreespeed();
+			}
+		};
+
+		SpeedyALTFactory factory = new SpeedyALTFactory();
+		LeastCostPathCalculator expensiveRouter = factory.createPathCalculator(network, expensive, travelTime);
+		LeastCostPathCalculator cheapRouter = factory.createPathCalculator(network, cheap, travelTime);
+
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
+		SpeedyDijkstra expensiveDijkstra = new SpeedyDijkstra(graph, travelTime, expensive);
+		SpeedyDijkstra cheapDijkstra = new SpeedyDijkstra(graph, travelTime, cheap);
+
+		for (Node fromNode : network.getNodes().values()) {
+			for (Node toNode : network.getNodes().values()) {
+				String message = "from " + fromNode.getId() + " to " + toNode.getId();
+				Path expected = expensiveDijkstra.calcLeastCostPath(fromNode, toNode, 8 * 3600, null, null);
+				Path actual = expensiveRouter.calcLeastCostPath(fromNode, toNode, 8 * 3600, null, null);
+				assertEquals(expected.travelCost, actual.travelCost, 1e-6, message);
+
+				expected = cheapDijkstra.calcLeastCostPath(fromNode, toNode, 8 * 3600, null, null);
+				actual = cheapRouter.calcLeastCostPath(fromNode, toNode, 8 * 3600, null, null);
+				assertEquals(expected.travelCost, actual.travelCost, 1e-6, message);
+			}
+		}
+	}
+}
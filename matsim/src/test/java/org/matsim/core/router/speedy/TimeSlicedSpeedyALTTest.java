@@ -0,0 +1,91 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.router.speedy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.ScoringConfigGroup;
+import org.matsim.core.network.io.MatsimNetworkReader;
+import org.matsim.core.router.AbstractLeastCostPathCalculatorTestWithTurnRestrictions;
+import org.matsim.core.router.costcalculators.FreespeedTravelTimeAndDisutility;
+import org.matsim.core.router.costcalculators.OnlyTimeDependentTravelDisutility;
+import org.matsim.core.router.util.LeastCostPathCalculator;
+import org.matsim.core.router.util.LeastCostPathCalculator.Path;
+import org.matsim.core.router.util.TravelDisutility;
+import org.matsim.core.router.util.TravelTime;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.vehicles.Vehicle;
+
+public class TimeSlicedSpeedyALTTest extends AbstractLeastCostPathCalculatorTestWithTurnRestrictions {
+
+	@Override
+	protected LeastCostPathCalculator getLeastCostPathCalculator(final Network network) {
+		FreespeedTravelTimeAndDisutility travelTimeCostCalculator = new FreespeedTravelTimeAndDisutility(new ScoringConfigGroup());
+		SpeedyGraph g = SpeedyGraphBuilder.build(network);
+		SpeedyALTData altData = new SpeedyALTData(g, 4, travelTimeCostCalculator);
+		TimeSlicedSpeedyALTData slicedData = new TimeSlicedSpeedyALTData(altData, travelTimeCostCalculator, 3600, 900, 30 * 3600);
+		return new SpeedyALT(slicedData, travelTimeCostCalculator, travelTimeCostCalculator);
+	}
+
+	@Test
+	void testCongestedTravelTimes_sameCostsAsDijkstra() {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		new MatsimNetworkReader(network).readFile("test/scenarios/equil/network.xml");
+
+		// all links are ten times slower in the morning peak, odd links also in the evening
+		TravelTime travelTime = new TravelTime() {
+			@Override
+			public double getLinkTravelTime(Link link, double time, Person person, Vehicle vehicle) {
+				double freespeedTravelTime = link.getLength() / link.getFreespeed();
+				boolean morningPeak = time >= 7 * 3600 && time < 9 * 3600;
+				boolean eveningPeak = time >= 16 * 3600 && time < 19 * 3600 && Integer.parseInt(link.getId().toString()) % 2 == 1;
+				return morningPeak || eveningPeak ? 10 * freespeedTravelTime : freespeedTravelTime;
+			}
+		};
+		TravelDisutility travelDisutility = new OnlyTimeDependentTravelDisutility(travelTime);
+
+		SpeedyGraph graph = SpeedyGraphBuilder.build(network);
+		TimeSlicedSpeedyALTData slicedData = new TimeSlicedSpeedyALTData(new SpeedyALTData(graph, 4, travelDisutility), travelDisutility,
+				3600, 900, 30 * 3600);
+		assertEquals(30, slicedData.getTimeSliceCount());
+
+		SpeedyALT alt = new SpeedyALT(slicedData, travelTime, travelDisutility);
+		SpeedyDijkstra dijkstra = new SpeedyDijkstra(graph, travelTime, travelDisutility);
+
+		for (double departureTime : new double[] { 0, 6.5 * 3600, 8 * 3600, 17 * 3600, 29.5 * 3600, 40 * 3600 }) {
+			for (Node fromNode : network.getNodes().values()) {
+				for (Node toNode : network.getNodes().values()) {
+					Path altPath = alt.calcLeastCostPath(fromNode, toNode, departureTime, null, null);
+					Path dijkstraPath = dijkstra.calcLeastCostPath(fromNode, toNode, departureTime, null, null);
+					assertEquals(dijkstraPath.travelCost, altPath.travelCost, 1e-6,
+							"from " + fromNode.getId() + " to " + toNode.getId() + " at " + departureTime);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,116 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2026 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.vis.snapshotwriters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.vehicles.Vehicle;
+
+public class VehicleTrajectoriesTest {
+
+	@RegisterExtension
+	private MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	void testPositions_afterWriteAndRead() {
+		Network network = NetworkUtils.createNetwork();
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.create("1", Node.class), new Coord(0, 0));
+		Node node2 = NetworkUtils.createAndAddNode(network, Id.create("2", Node.class), new Coord(1000, 0));
+		Node node3 = NetworkUtils.createAndAddNode(network, Id.create("3", Node.class), new Coord(1000, 1000));
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.create("1", Link.class), node1, node2, 1000, 10, 9999, 1);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.create("2", Link.class), node2, node3, 1000, 10, 9999, 1);
+
+		Id<Vehicle> veh1 = Id.createVehicleId("v1");
+		Id<Vehicle> veh2 = Id.createVehicleId("v2");
+
+		VehicleTrajectories trajectories = new VehicleTrajectories();
+		int r1 = trajectories.addEnter(veh1, link1.getId(), 100, 0.0);
+		int r2 = trajectories.addEnter(veh2, link1.getId(), 150, 0.0);
+		trajectories.setLeave(r1, 200, 1.0);
+		trajectories.addEnter(veh1, link2.getId(), 200, 0.0);
+		trajectories.setLeave(r2, 1000, 1.0);
+
+		String file = utils.getOutputDirectory() + "trajectories.bin.gz";
+		VehicleTrajectories.write(file, trajectories);
+		VehicleTrajectories read = VehicleTrajectories.read(file);
+
+		assertEquals(3, read.size());
+		assertEquals(0, read.getPositions(50, network).size());
+
+		List<VehicleTrajectories.Position> positions = read.getPositions(150, network);
+		assertEquals(2, positions.size());
+		assertEquals(veh1, positions.get(0).vehicleId());
+		assertEquals(500, positions.get(0).coord().getX(), 1e-6);
+		assertEquals(veh2, positions.get(1).vehicleId());
+		assertEquals(0, positions.get(1).coord().getX(), 1e-6);
+
+		// at the time v1 moves on, it is only on the next link
+		positions = read.getPositions(200, network);
+		assertEquals(2, positions.size());
+		assertEquals(veh2, positions.get(0).vehicleId());
+		assertEquals(veh1, positions.get(1).vehicleId());
+		assertEquals(link2.getId(), positions.get(1).linkId());
+
+		// v1 never left link 2, so it stays at the start of it
+		positions = read.getPositions(2000, network);
+		assertEquals(1, positions.size());
+		assertEquals(link2.getId(), positions.get(0).linkId());
+		assertEquals(1000, positions.get(0).coord().getX(), 1e-6);
+		assertEquals(0, positions.get(0).coord().getY(), 1e-6);
+
+		int[] count = {0};
+		read.forEachRecord(500, 1500, record -> count[0]++);
+		assertEquals(2, count[0]);
+	}
+
+	@Test
+	void testForEachRecord_withLongRecords() {
+		Id<Link> linkId = Id.createLinkId("1");
+		VehicleTrajectories trajectories = new VehicleTrajectories();
+		// one vehicle stays on the link for most of the day, one never leaves
+		trajectories.setLeave(trajectories.addEnter(Id.createVehicleId("long"), linkId, 0, 0.0), 80000, 1.0);
+		trajectories.addEnter(Id.createVehicleId("stuck"), linkId, 10, 0.0);
+		for (int i = 0; i < 100; i++) {
+			int record = trajectories.addEnter(Id.createVehicleId("v" + i), linkId, 1000 * i + 100, 0.0);
+			trajectories.setLeave(record, 1000 * i + 600, 1.0);
+		}
+
+		List<Integer> records = new ArrayList<>();
+		trajectories.forEachRecord(50000, 52000, records::add);
+		// long, stuck, and the vehicles entering at 50100 and 51100, each reported once
+		assertEquals(List.of(0, 1, 52, 53), records.stream().sorted().toList());
+
+		records.clear();
+		trajectories.forEachRecord(200000, 200000, records::add);
+		assertEquals(List.of(1), records);
+	}
+}